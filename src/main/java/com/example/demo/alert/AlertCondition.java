@@ -0,0 +1,20 @@
+package com.example.demo.alert;
+
+import com.example.demo.model.ServiceStatus;
+
+/**
+ * The compiled condition of one rule for one service. Each result costs O(1), however long the
+ * rule's window is.
+ */
+interface AlertCondition {
+
+    /**
+     * Feeds one result observed at {@code now} (epoch millis) and returns whether the condition holds.
+     */
+    boolean update(long now, ServiceStatus status);
+
+    /**
+     * What the last update observed, for notifications.
+     */
+    String describe();
+}
@@ -0,0 +1,176 @@
+package com.example.demo.alert;
+
+import com.example.demo.config.ServiceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers alert events to the sinks on a single background thread, so that the check path only
+ * pays for a queue offer. Each sink is rate limited to {@code services.alerts.rate-limit}
+ * notifications per minute (a token bucket); notifications over the limit are dropped, except
+ * resolutions, which are always delivered so that no alert is left firing downstream.
+ *
+ * <p>Publishes {@code status.alerts.notifications} by {@code sink} and {@code outcome}
+ * ({@code sent}, {@code failed}, {@code rate_limited}), counted once delivery completes, plus {@code dropped} with
+ * {@code sink=none} for events that found the queue full.
+ */
+@Component
+public class AlertDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertDispatcher.class);
+
+    private final ServiceProperties.Alerts properties;
+    private final Map<String, Sink> sinks = new LinkedHashMap<>();
+    private final BlockingQueue<AlertEvent> queue;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public AlertDispatcher(ServiceProperties serviceProperties, ObjectProvider<AlertSink> alertSinks,
+                           MeterRegistry meterRegistry) {
+        this.properties = serviceProperties.getAlerts();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        for (AlertSink sink : alertSinks.orderedStream().toList()) {
+            sinks.put(sink.getName(), new Sink(sink, new TokenBucket(properties.getRateLimit()), meterRegistry));
+        }
+        this.dropped = notifications(meterRegistry, "none", "dropped");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (properties.getRules().isEmpty()) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "alert-dispatcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Alert sinks: {}", sinks.keySet());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public Set<String> getSinkNames() {
+        return sinks.keySet();
+    }
+
+    /**
+     * Queues an event for delivery without blocking.
+     */
+    public void offer(AlertEvent event) {
+        if (!queue.offer(event)) {
+            dropped.increment();
+            logger.warn("Alert queue is full, dropped {} for {}", event.rule(), event.service());
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                AlertEvent event = queue.poll(1, TimeUnit.SECONDS);
+                if (event != null) {
+                    deliver(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    void deliver(AlertEvent event) {
+        for (Sink sink : sinks.values()) {
+            if (!event.sinks().isEmpty() && !event.sinks().contains(sink.sink.getName())) {
+                continue;
+            }
+            // Resolutions bypass the limit: there is at most one per firing, and dropping it would leave
+            // the alert firing downstream
+            if (event.state() != AlertEvent.State.RESOLVED && !sink.bucket.tryAcquire(System.nanoTime())) {
+                sink.rateLimited.increment();
+                continue;
+            }
+            try {
+                sink.sink.send(event).subscribe(null, error -> sink.failed(event, error), sink.sent::increment);
+            } catch (Exception e) {
+                sink.failed(event, e);
+            }
+        }
+    }
+
+    private static Counter notifications(MeterRegistry meterRegistry, String sink, String outcome) {
+        return Counter.builder("status.alerts.notifications")
+                .description("Alert notifications by sink and outcome")
+                .tag("sink", sink)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Sink {
+        private final AlertSink sink;
+        private final TokenBucket bucket;
+        private final Counter sent;
+        private final Counter failed;
+        private final Counter rateLimited;
+
+        Sink(AlertSink sink, TokenBucket bucket, MeterRegistry meterRegistry) {
+            this.sink = sink;
+            this.bucket = bucket;
+            this.sent = notifications(meterRegistry, sink.getName(), "sent");
+            this.failed = notifications(meterRegistry, sink.getName(), "failed");
+            this.rateLimited = notifications(meterRegistry, sink.getName(), "rate_limited");
+        }
+
+        void failed(AlertEvent event, Throwable error) {
+            failed.increment();
+            logger.warn("Alert sink {} failed for {}: {}", sink.getName(), event.rule(), error.getMessage());
+        }
+    }
+
+    /**
+     * {@code perMinute} tokens, refilled continuously. Only used by the dispatcher thread.
+     */
+    static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt = Long.MIN_VALUE;
+
+        TokenBucket(int perMinute) {
+            this.capacity = Math.max(1, perMinute);
+            this.tokensPerNano = capacity / TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacity;
+        }
+
+        boolean tryAcquire(long now) {
+            if (refilledAt != Long.MIN_VALUE) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            }
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.demo.alert;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Alerts.Rule;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.model.CheckType;
+import com.example.demo.model.EpochNanos;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.CheckResultListener;
+import com.example.demo.service.ServiceRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates the alert rules in {@code services.alerts.rules} on every check result. Rules are
+ * compiled once at startup into one {@link CompiledRule} per rule and service ({@code *} expands
+ * to every target), indexed by service and check type, so a result only touches the rules that
+ * watch its service and check type however many rules there are. Rules without a service watch
+ * the aggregated {@code overallStatus}.
+ *
+ * <p>Rule types:
+ * <ul>
+ *     <li>{@code status}: the health status has been {@code status} for {@code duration} ms</li>
+ *     <li>{@code latency}: the {@code percentile} health latency over {@code window} ms is above
+ *     {@code threshold} ms</li>
+ *     <li>{@code metric}: the latest value of {@code metric} is above {@code threshold}</li>
+ *     <li>{@code metric-rate}: the increase of counter {@code metric} per second over
+ *     {@code window} ms is above {@code threshold}</li>
+ * </ul>
+ * Metric rules read the target's metric-detail checks, so the metric must be in its
+ * {@code metric-names}. Events go to the {@link AlertDispatcher}. Publishes
+ * {@code status.alerts.firing}.
+ */
+@Component
+public class AlertEngine implements CheckResultListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertEngine.class);
+
+    static final String OVERALL = "overall";
+    private static final CompiledRule[] NONE = new CompiledRule[0];
+
+    private final AlertDispatcher alertDispatcher;
+    private final Map<String, EnumMap<CheckType, CompiledRule[]>> rules = new HashMap<>();
+    private final CompiledRule[] overallRules;
+    private final List<CompiledRule> allRules = new ArrayList<>();
+
+    public AlertEngine(ServiceProperties serviceProperties, ServiceRegistry serviceRegistry,
+                       AlertDispatcher alertDispatcher, MeterRegistry meterRegistry) {
+        this.alertDispatcher = alertDispatcher;
+        ServiceProperties.Alerts properties = serviceProperties.getAlerts();
+
+        Map<String, EnumMap<CheckType, List<CompiledRule>>> compiled = new HashMap<>();
+        List<CompiledRule> overall = new ArrayList<>();
+        for (Rule rule : properties.getRules()) {
+            validate(rule, serviceRegistry);
+            if (rule.getService() == null || rule.getService().isEmpty()) {
+                overall.add(compile(rule, OVERALL, properties.getRepeatInterval()));
+                continue;
+            }
+            List<String> services = "*".equals(rule.getService())
+                    ? serviceRegistry.getTargets().stream().map(Target::getName).toList()
+                    : List.of(rule.getService());
+            for (String service : services) {
+                CompiledRule compiledRule = compile(rule, service, properties.getRepeatInterval());
+                compiled.computeIfAbsent(service, key -> new EnumMap<>(CheckType.class))
+                        .computeIfAbsent(compiledRule.getType(), key -> new ArrayList<>())
+                        .add(compiledRule);
+            }
+        }
+        compiled.forEach((service, byType) -> {
+            EnumMap<CheckType, CompiledRule[]> arrays = new EnumMap<>(CheckType.class);
+            byType.forEach((type, list) -> {
+                arrays.put(type, list.toArray(NONE));
+                allRules.addAll(list);
+            });
+            rules.put(service, arrays);
+        });
+        this.overallRules = overall.toArray(NONE);
+        allRules.addAll(overall);
+
+        if (!allRules.isEmpty()) {
+            logger.info("Compiled {} alert rules into {} rule instances", properties.getRules().size(), allRules.size());
+        }
+        Gauge.builder("status.alerts.firing", this, AlertEngine::firing)
+                .description("Alert rule instances currently firing")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onCheckResult(CheckType type, ServiceStatus status) {
+        // Metric rules are timed by when the values were sampled, e.g. scraped, not by arrival
+        long now = type == CheckType.METRIC_DETAILS
+                ? EpochNanos.toMillis(status.getTimestampNanos()) : System.currentTimeMillis();
+        for (AlertEvent event : evaluate(type, status, now)) {
+            alertDispatcher.offer(event);
+        }
+    }
+
+    /**
+     * Feeds the aggregated status of a complete snapshot to the rules without a service.
+     */
+    public void onOverallStatus(String overallStatus) {
+        if (overallRules.length == 0) {
+            return;
+        }
+        ServiceStatus status = new ServiceStatus(OVERALL, overallStatus);
+        long now = System.currentTimeMillis();
+        for (CompiledRule rule : overallRules) {
+            AlertEvent event = rule.evaluate(now, status);
+            if (event != null) {
+                alertDispatcher.offer(event);
+            }
+        }
+    }
+
+    List<AlertEvent> evaluate(CheckType type, ServiceStatus status, long now) {
+        EnumMap<CheckType, CompiledRule[]> byType = rules.get(status.getServiceName());
+        CompiledRule[] matching = byType != null ? byType.getOrDefault(type, NONE) : NONE;
+        if (matching.length == 0) {
+            return List.of();
+        }
+        List<AlertEvent> events = new ArrayList<>(1);
+        for (CompiledRule rule : matching) {
+            AlertEvent event = rule.evaluate(now, status);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private int firing() {
+        int firing = 0;
+        for (CompiledRule rule : allRules) {
+            if (rule.isFiring()) {
+                firing++;
+            }
+        }
+        return firing;
+    }
+
+    private static CompiledRule compile(Rule rule, String service, long repeatInterval) {
+        AlertCondition condition;
+        CheckType type;
+        switch (rule.getType()) {
+            case "status" -> {
+                condition = new StatusCondition(rule.getStatus(), rule.getDuration());
+                type = CheckType.HEALTH;
+            }
+            case "latency" -> {
+                condition = new LatencyCondition(rule.getPercentile(), rule.getThreshold(), rule.getWindow(),
+                        rule.getMinSamples());
+                type = CheckType.HEALTH;
+            }
+            case "metric", "metric-rate" -> {
+                condition = new MetricCondition(rule.getMetric(), rule.getStatistic(), rule.getThreshold(),
+                        "metric-rate".equals(rule.getType()), rule.getWindow());
+                type = CheckType.METRIC_DETAILS;
+            }
+            default -> throw new IllegalStateException("Unknown alert rule type: " + rule.getType());
+        }
+        return new CompiledRule(rule.getName(), service, type, condition, rule.getSinks(), repeatInterval);
+    }
+
+    private void validate(Rule rule, ServiceRegistry serviceRegistry) {
+        if (rule.getName() == null || rule.getName().isEmpty()) {
+            throw new IllegalStateException("services.alerts.rules entries must have a name");
+        }
+        String service = rule.getService();
+        boolean overall = service == null || service.isEmpty();
+        if (!overall && !"*".equals(service) && serviceRegistry.getTarget(service) == null) {
+            throw new IllegalStateException("Alert rule " + rule.getName() + " refers to unknown service " + service);
+        }
+        if (overall && !"status".equals(rule.getType())) {
+            throw new IllegalStateException("Alert rule " + rule.getName() + " needs a service");
+        }
+        if (rule.getType().startsWith("metric")) {
+            if (rule.getMetric() == null || rule.getMetric().isEmpty()) {
+                throw new IllegalStateException("Alert rule " + rule.getName() + " needs a metric");
+            }
+            Target target = overall ? null : serviceRegistry.getTarget(service);
+            if (target != null && !target.getMetricNames().contains(rule.getMetric())) {
+                throw new IllegalStateException("Alert rule " + rule.getName() + " needs " + rule.getMetric()
+                        + " in the metric-names of " + service);
+            }
+        }
+        for (String sink : rule.getSinks()) {
+            if (!alertDispatcher.getSinkNames().contains(sink)) {
+                throw new IllegalStateException("Alert rule " + rule.getName() + " refers to unknown sink " + sink);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.alert;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A rule starting or stopping to fire for one service ({@code overall} for rules on the
+ * aggregated status). {@code sinks} lists the sinks the rule notifies; empty means all of them.
+ */
+public record AlertEvent(String rule, String service, State state, String message, Instant timestamp,
+                         @JsonIgnore List<String> sinks) {
+
+    public enum State {
+        FIRING, RESOLVED
+    }
+}
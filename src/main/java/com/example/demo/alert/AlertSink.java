@@ -0,0 +1,21 @@
+package com.example.demo.alert;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Destination for alert notifications. Called from the single alert dispatcher thread, so
+ * implementations may block briefly but should not hold it for long.
+ */
+public interface AlertSink {
+
+    /**
+     * The name rules use to select this sink in {@code services.alerts.rules[i].sinks}.
+     */
+    String getName();
+
+    /**
+     * Sends one notification. The returned {@link Mono} completes once it has been delivered, or
+     * errors if delivery failed; sinks that deliver synchronously return {@link Mono#empty()}.
+     */
+    Mono<Void> send(AlertEvent event) throws Exception;
+}
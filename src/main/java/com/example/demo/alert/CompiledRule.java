@@ -0,0 +1,66 @@
+package com.example.demo.alert;
+
+import com.example.demo.model.CheckType;
+import com.example.demo.model.ServiceStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One rule bound to one service, with the state that turns condition updates into
+ * notifications: an event when the rule starts firing, optionally repeated every
+ * {@code repeatIntervalMillis} while it keeps firing, and one when it resolves.
+ */
+final class CompiledRule {
+
+    private final String name;
+    private final String service;
+    private final CheckType type;
+    private final AlertCondition condition;
+    private final List<String> sinks;
+    private final long repeatIntervalMillis;
+    private boolean firing;
+    private long notifiedAt;
+
+    CompiledRule(String name, String service, CheckType type, AlertCondition condition, List<String> sinks,
+                 long repeatIntervalMillis) {
+        this.name = name;
+        this.service = service;
+        this.type = type;
+        this.condition = condition;
+        this.sinks = List.copyOf(sinks);
+        this.repeatIntervalMillis = repeatIntervalMillis;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getService() {
+        return service;
+    }
+
+    CheckType getType() {
+        return type;
+    }
+
+    synchronized boolean isFiring() {
+        return firing;
+    }
+
+    /**
+     * Feeds one result and returns the event to send, or {@code null} if nothing changed.
+     */
+    synchronized AlertEvent evaluate(long now, ServiceStatus status) {
+        boolean holds = condition.update(now, status);
+        if (holds == firing) {
+            if (!firing || repeatIntervalMillis <= 0 || now - notifiedAt < repeatIntervalMillis) {
+                return null;
+            }
+        }
+        firing = holds;
+        notifiedAt = now;
+        return new AlertEvent(name, service, holds ? AlertEvent.State.FIRING : AlertEvent.State.RESOLVED,
+                condition.describe(), Instant.ofEpochMilli(now), sinks);
+    }
+}
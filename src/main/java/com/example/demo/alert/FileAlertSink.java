@@ -0,0 +1,50 @@
+package com.example.demo.alert;
+
+import com.example.demo.config.ServiceProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends alerts as JSON lines to {@code services.alerts.file.path}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "services.alerts.file", name = "path")
+public class FileAlertSink implements AlertSink {
+
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileAlertSink(ServiceProperties serviceProperties, ObjectMapper objectMapper) throws IOException {
+        this.path = Paths.get(serviceProperties.getAlerts().getFile().getPath());
+        this.objectMapper = objectMapper;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public Mono<Void> send(AlertEvent event) throws IOException {
+        byte[] line = objectMapper.writeValueAsBytes(event);
+        byte[] record = new byte[line.length + NEWLINE.length];
+        System.arraycopy(line, 0, record, 0, line.length);
+        System.arraycopy(NEWLINE, 0, record, line.length, NEWLINE.length);
+        // One write per record, so concurrent readers never see half a line
+        Files.write(path, record, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return Mono.empty();
+    }
+}
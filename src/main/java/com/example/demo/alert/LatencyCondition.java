@@ -0,0 +1,70 @@
+package com.example.demo.alert;
+
+import com.example.demo.model.ServiceStatus;
+
+import java.util.Arrays;
+
+/**
+ * Holds while the {@code percentile} latency of the successful results of the last
+ * {@code windowMillis} is above {@code thresholdMillis}. The window is a ring of time slots
+ * holding how many samples arrived and how many of them were above the threshold. With
+ * nearest-rank percentiles the percentile is above the threshold exactly when at least
+ * {@code n - ceil(percentile * n) + 1} of the {@code n} samples are.
+ */
+final class LatencyCondition implements AlertCondition {
+
+    private static final int SLOTS = 10;
+
+    private final double percentile;
+    private final double thresholdMillis;
+    private final int minSamples;
+    private final long slotMillis;
+    private final long[] slotIds = new long[SLOTS];
+    private final int[] totals = new int[SLOTS];
+    private final int[] above = new int[SLOTS];
+    private int lastTotal;
+    private int lastAbove;
+
+    LatencyCondition(double percentile, double thresholdMillis, long windowMillis, int minSamples) {
+        this.percentile = Math.min(1.0, Math.max(0.0, percentile));
+        this.thresholdMillis = thresholdMillis;
+        this.minSamples = Math.max(1, minSamples);
+        this.slotMillis = Math.max(1, windowMillis / SLOTS);
+        Arrays.fill(slotIds, -SLOTS);
+    }
+
+    @Override
+    public boolean update(long now, ServiceStatus status) {
+        long slotId = now / slotMillis;
+        if (status.getError() == null && status.getLatencyMillis() != null) {
+            int slot = (int) (slotId % SLOTS);
+            if (slotIds[slot] != slotId) {
+                slotIds[slot] = slotId;
+                totals[slot] = 0;
+                above[slot] = 0;
+            }
+            totals[slot]++;
+            if (status.getLatencyMillis() > thresholdMillis) {
+                above[slot]++;
+            }
+        }
+
+        int total = 0;
+        int slow = 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (slotId - slotIds[slot] < SLOTS) {
+                total += totals[slot];
+                slow += above[slot];
+            }
+        }
+        lastTotal = total;
+        lastAbove = slow;
+        return total >= minSamples && slow >= total - Math.max(1, (int) Math.ceil(percentile * total)) + 1;
+    }
+
+    @Override
+    public String describe() {
+        return lastAbove + " of " + lastTotal + " samples above " + (long) thresholdMillis + "ms (p"
+                + percentile * 100 + ")";
+    }
+}
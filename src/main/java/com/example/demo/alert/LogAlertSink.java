@@ -0,0 +1,30 @@
+package com.example.demo.alert;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes alerts to the application log: firing at WARN, resolved at INFO.
+ */
+@Component
+public class LogAlertSink implements AlertSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogAlertSink.class);
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public Mono<Void> send(AlertEvent event) {
+        if (event.state() == AlertEvent.State.FIRING) {
+            logger.warn("Alert {} firing for {}: {}", event.rule(), event.service(), event.message());
+        } else {
+            logger.info("Alert {} resolved for {}: {}", event.rule(), event.service(), event.message());
+        }
+        return Mono.empty();
+    }
+}
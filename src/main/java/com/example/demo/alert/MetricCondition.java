@@ -0,0 +1,130 @@
+package com.example.demo.alert;
+
+import com.example.demo.model.ServiceStatus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds while a metric of the metric-detail checks is above {@code threshold}: its latest value,
+ * or with {@code rate} its increase per second over the last {@code windowMillis}. A counter
+ * that goes down was reset, and its new value counts as the increase. Results are timed by when
+ * they were sampled, and one that is not newer than the last, such as the same scrape answered
+ * twice, is ignored.
+ *
+ * <p>The window is a ring of time slots holding the first sample of each slot, so the rate is
+ * measured from the oldest slot still in the window, or from the previous sample when the window
+ * holds no other.
+ */
+final class MetricCondition implements AlertCondition {
+
+    private static final int SLOTS = 10;
+
+    private final String metric;
+    private final String statistic;
+    private final double threshold;
+    private final boolean rate;
+    private final long windowMillis;
+    private final long slotMillis;
+    // One more slot than the window spans, so the oldest slot is only reused once it has expired
+    private final long[] slotIds = new long[SLOTS + 1];
+    private final long[] times = new long[SLOTS + 1];
+    private final double[] increases = new double[SLOTS + 1];
+    private long lastTime = Long.MIN_VALUE;
+    private double lastRaw = Double.NaN;
+    private double increase;
+    private double lastIncrease;
+    private double lastValue = Double.NaN;
+    private boolean holding;
+
+    MetricCondition(String metric, String statistic, double threshold, boolean rate, long windowMillis) {
+        this.metric = metric;
+        this.statistic = statistic;
+        this.threshold = threshold;
+        this.rate = rate;
+        this.windowMillis = windowMillis;
+        this.slotMillis = Math.max(1, (windowMillis + SLOTS - 1) / SLOTS);
+        Arrays.fill(slotIds, -1);
+        Arrays.fill(times, Long.MIN_VALUE);
+    }
+
+    @Override
+    public boolean update(long now, ServiceStatus status) {
+        double value = status.getDetails() != null ? metricValue(status.getDetails().get(metric), statistic) : Double.NaN;
+        if (Double.isNaN(value)) {
+            // Unavailable this time; keep the previous verdict
+            return holding;
+        }
+        if (now <= lastTime) {
+            // Already seen, e.g. the same scrape reported by a check and an on-demand request
+            return holding;
+        }
+        if (!rate) {
+            lastTime = now;
+            lastValue = value;
+            holding = value > threshold;
+            return holding;
+        }
+
+        if (!Double.isNaN(lastRaw)) {
+            increase += value >= lastRaw ? value - lastRaw : value;
+        }
+        lastRaw = value;
+        long slotId = now / slotMillis;
+        int slot = (int) (slotId % slotIds.length);
+        if (slotIds[slot] != slotId) {
+            slotIds[slot] = slotId;
+            times[slot] = now;
+            increases[slot] = increase;
+        }
+
+        long fromTime = now;
+        double fromIncrease = increase;
+        for (int i = 0; i < times.length; i++) {
+            if (times[i] >= now - windowMillis && times[i] < fromTime) {
+                fromTime = times[i];
+                fromIncrease = increases[i];
+            }
+        }
+        if (fromTime == now && lastTime != Long.MIN_VALUE) {
+            fromTime = lastTime;
+            fromIncrease = lastIncrease;
+        }
+        lastTime = now;
+        lastIncrease = increase;
+        if (fromTime == now) {
+            holding = false;
+            return false;
+        }
+        lastValue = (increase - fromIncrease) * 1000.0 / (now - fromTime);
+        holding = lastValue > threshold;
+        return holding;
+    }
+
+    @Override
+    public String describe() {
+        return metric + (rate ? " rate " : " ") + String.format("%.3f", lastValue) + (rate ? "/s" : "")
+                + " (threshold " + threshold + ")";
+    }
+
+    /**
+     * The value of {@code statistic} (or the first measurement) of an {@code /actuator/metrics/{name}}
+     * description, or NaN when there is none.
+     */
+    static double metricValue(Object description, String statistic) {
+        if (description instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (!(description instanceof Map<?, ?> map) || !(map.get("measurements") instanceof List<?> measurements)) {
+            return Double.NaN;
+        }
+        for (Object measurement : measurements) {
+            if (measurement instanceof Map<?, ?> entry && entry.get("value") instanceof Number value
+                    && (statistic == null || statistic.equalsIgnoreCase(String.valueOf(entry.get("statistic"))))) {
+                return value.doubleValue();
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.alert;
+
+import com.example.demo.model.ServiceStatus;
+
+/**
+ * Holds while the status has been {@code status} without interruption for at least
+ * {@code durationMillis}.
+ */
+final class StatusCondition implements AlertCondition {
+
+    private final String status;
+    private final long durationMillis;
+    private long since = -1;
+    private String last;
+    private long heldMillis;
+
+    StatusCondition(String status, long durationMillis) {
+        this.status = status;
+        this.durationMillis = Math.max(0, durationMillis);
+    }
+
+    @Override
+    public boolean update(long now, ServiceStatus result) {
+        last = result.getStatus();
+        if (!status.equals(last)) {
+            since = -1;
+            return false;
+        }
+        if (since < 0) {
+            since = now;
+        }
+        heldMillis = now - since;
+        return heldMillis >= durationMillis;
+    }
+
+    @Override
+    public String describe() {
+        return status.equals(last)
+                ? "status " + status + " for " + heldMillis + "ms (limit " + durationMillis + "ms)"
+                : "status " + last;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.alert;
+
+import com.example.demo.config.ServiceProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Posts each alert as JSON to {@code services.alerts.webhook.url}. The dispatcher does not wait
+ * for the response; the returned {@link Mono} completes or errors once the webhook answers or
+ * the request times out.
+ */
+@Component
+@ConditionalOnProperty(prefix = "services.alerts.webhook", name = "url")
+public class WebhookAlertSink implements AlertSink {
+
+    private final ServiceProperties.Alerts.Webhook properties;
+    private final WebClient webClient;
+
+    public WebhookAlertSink(ServiceProperties serviceProperties, WebClient.Builder webClientBuilder) {
+        this.properties = serviceProperties.getAlerts().getWebhook();
+        this.webClient = webClientBuilder.build();
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public Mono<Void> send(AlertEvent event) {
+        return webClient.post()
+                .uri(properties.getUrl())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(event)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofMillis(properties.getTimeout()))
+                .then();
+    }
+}
@@ -0,0 +1,372 @@
+package com.example.demo.cluster;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.ServiceRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Splits the targets between the replicas of a cluster so that each target is checked by
+ * exactly one of them. Members are {@code services.cluster.self-url}, the static
+ * {@code services.cluster.peers} and the URLs listed in {@code services.cluster.members-file},
+ * which is re-read on every heartbeat. Targets are assigned with a {@link ConsistentHashRing}
+ * over the members that are alive.
+ *
+ * <p>Every heartbeat interval each replica posts a {@link PeerMessage} to every peer carrying
+ * the health results of its own targets that changed since that peer last acknowledged one.
+ * A peer that has neither answered nor sent anything for {@code services.cluster.failure-timeout}
+ * is dropped from the ring, and its targets move to the remaining replicas. When cluster mode is
+ * disabled this replica owns every target.
+ *
+ * <p>Publishes {@code status.cluster.members} (live members, including this one) and
+ * {@code status.cluster.owned.targets}.
+ */
+@Service
+public class ClusterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterService.class);
+
+    public static final String EXCHANGE_PATH = "/internal/cluster/exchange";
+    public static final String TOKEN_HEADER = "X-Cluster-Token";
+
+    private final ServiceProperties.Cluster properties;
+    private final ServiceRegistry serviceRegistry;
+    private final PeerMessageCodec codec;
+    private final WebClient webClient;
+    private final String self;
+    private final long incarnation = System.currentTimeMillis();
+    private final long failureTimeoutNanos;
+
+    private final ConcurrentMap<String, Peer> peers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LocalResult> localResults = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile ConsistentHashRing ring;
+    private long membersFileModified = -1;
+    private Set<String> filePeers = Collections.emptySet();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ClusterService(ServiceProperties serviceProperties, ServiceRegistry serviceRegistry,
+                          ObjectMapper objectMapper, WebClient.Builder webClientBuilder, MeterRegistry meterRegistry) {
+        this.properties = serviceProperties.getCluster();
+        this.serviceRegistry = serviceRegistry;
+        this.codec = new PeerMessageCodec(objectMapper);
+        this.webClient = webClientBuilder.build();
+        this.self = properties.isEnabled() ? normalize(properties.getSelfUrl()) : null;
+        this.failureTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFailureTimeout());
+
+        if (properties.isEnabled()) {
+            Gauge.builder("status.cluster.members", this, ClusterService::liveMemberCount)
+                    .description("Live cluster members, including this replica")
+                    .register(meterRegistry);
+            Gauge.builder("status.cluster.owned.targets", this, ClusterService::ownedTargets)
+                    .description("Targets checked by this replica")
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        join();
+        logger.info("Cluster mode enabled as {} with {} peers; owning {} of {} targets",
+                self, peers.size(), ownedTargets(), serviceRegistry.size());
+
+        running = true;
+        thread = new Thread(this::run, "cluster-heartbeat");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Whether this replica checks {@code serviceName}. Always true outside cluster mode.
+     */
+    public boolean isOwner(String serviceName) {
+        ConsistentHashRing current = ring;
+        return current == null || self.equals(current.owner(serviceName));
+    }
+
+    /**
+     * Records the latest stabilised health result of a target this replica checked, to be sent
+     * to the peers with the next heartbeat.
+     */
+    public void onLocalResult(ServiceStatus status) {
+        if (properties.isEnabled()) {
+            synchronized (localResults) {
+                localResults.put(status.getServiceName(), new LocalResult(sequence.incrementAndGet(), status));
+            }
+        }
+    }
+
+    /**
+     * Accepts a heartbeat from a peer and returns the results it carries for targets that are
+     * configured here and not owned by this replica.
+     *
+     * @throws SecurityException if the cluster token does not match
+     * @throws IllegalArgumentException if the body is not a valid peer message
+     */
+    public List<ServiceStatus> receive(byte[] body, String token) {
+        if (!properties.isEnabled()) {
+            throw new IllegalStateException("Cluster mode is disabled");
+        }
+        if (!tokenMatches(token)) {
+            throw new SecurityException("Invalid cluster token");
+        }
+
+        PeerMessage message = codec.decode(body);
+        Peer peer = peers.get(normalize(message.sender()));
+        if (peer == null) {
+            logger.debug("Ignoring heartbeat from unknown peer {}", message.sender());
+            return Collections.emptyList();
+        }
+        peer.lastContact = System.nanoTime();
+        if (peer.incarnation != message.incarnation()) {
+            // The peer restarted and has lost everything sent to it so far
+            peer.incarnation = message.incarnation();
+            peer.sentUpTo = 0;
+        }
+
+        List<ServiceStatus> accepted = new ArrayList<>(message.results().size());
+        for (ServiceStatus status : message.results()) {
+            if (serviceRegistry.getTarget(status.getServiceName()) != null && !isOwner(status.getServiceName())) {
+                accepted.add(status);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Builds the first ring from the configured members, which all count as alive until they
+     * have been silent for one failure timeout.
+     */
+    void join() {
+        updatePeers();
+        ring = new ConsistentHashRing(liveMembers(), properties.getVirtualNodes());
+    }
+
+    /**
+     * One heartbeat: re-reads the members, sends every peer its pending results and reassigns
+     * the targets if the live members changed.
+     */
+    void heartbeat() {
+        updatePeers();
+        for (Peer peer : peers.values()) {
+            send(peer);
+        }
+        updateRing();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                heartbeat();
+                Thread.sleep(properties.getHeartbeatInterval());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Cluster heartbeat failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void send(Peer peer) {
+        if (peer.inFlight) {
+            return;
+        }
+        long sentUpTo = peer.sentUpTo;
+        long upTo;
+        synchronized (localResults) {
+            // Every result numbered up to here has been stored
+            upTo = sequence.get();
+        }
+        List<ServiceStatus> results = new ArrayList<>();
+        for (Map.Entry<String, LocalResult> entry : localResults.entrySet()) {
+            long resultSequence = entry.getValue().sequence();
+            if (resultSequence > sentUpTo && resultSequence <= upTo && isOwner(entry.getKey())) {
+                results.add(entry.getValue().status());
+            }
+        }
+        byte[] body = codec.encode(new PeerMessage(self, incarnation, results));
+
+        peer.inFlight = true;
+        WebClient.RequestBodySpec request = webClient.post()
+                .uri(peer.url + EXCHANGE_PATH)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM);
+        if (properties.getToken() != null) {
+            request.header(TOKEN_HEADER, properties.getToken());
+        }
+        request.bodyValue(body)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofMillis(properties.getHeartbeatInterval()))
+                .subscribe(response -> {
+                    peer.lastContact = System.nanoTime();
+                    peer.sentUpTo = upTo;
+                    peer.failing = false;
+                    peer.inFlight = false;
+                }, error -> {
+                    if (!peer.failing) {
+                        logger.warn("Heartbeat to peer {} failed: {}", peer.url, error.getMessage());
+                    }
+                    // Resend everything once the peer is reachable again
+                    peer.failing = true;
+                    peer.sentUpTo = 0;
+                    peer.inFlight = false;
+                });
+    }
+
+    private void updateRing() {
+        Set<String> live = liveMembers();
+        if (live.equals(ring.getMembers())) {
+            return;
+        }
+        ring = new ConsistentHashRing(live, properties.getVirtualNodes());
+        localResults.keySet().removeIf(serviceName -> !isOwner(serviceName));
+        logger.warn("Cluster membership changed to {}; owning {} of {} targets",
+                live, ownedTargets(), serviceRegistry.size());
+    }
+
+    private Set<String> liveMembers() {
+        long now = System.nanoTime();
+        Set<String> live = new TreeSet<>();
+        live.add(self);
+        for (Peer peer : peers.values()) {
+            if (now - peer.lastContact < failureTimeoutNanos) {
+                live.add(peer.url);
+            }
+        }
+        return live;
+    }
+
+    private void updatePeers() {
+        Set<String> configured = new LinkedHashSet<>();
+        for (String url : properties.getPeers()) {
+            configured.add(normalize(url));
+        }
+        configured.addAll(readMembersFile());
+        configured.remove(self);
+
+        // New peers get one failure timeout to show up before their share is taken away from them
+        long now = System.nanoTime();
+        for (String url : configured) {
+            peers.computeIfAbsent(url, key -> new Peer(key, now));
+        }
+        peers.keySet().retainAll(configured);
+    }
+
+    private Set<String> readMembersFile() {
+        if (properties.getMembersFile() == null || properties.getMembersFile().isEmpty()) {
+            return Collections.emptySet();
+        }
+        Path path = Paths.get(properties.getMembersFile());
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified != membersFileModified) {
+                Set<String> members = new LinkedHashSet<>();
+                for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                    String url = line.trim();
+                    if (!url.isEmpty() && !url.startsWith("#")) {
+                        members.add(normalize(url));
+                    }
+                }
+                filePeers = members;
+                membersFileModified = modified;
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read cluster members file {}: {}", path, e.getMessage());
+        }
+        return filePeers;
+    }
+
+    private boolean tokenMatches(String token) {
+        String expected = properties.getToken();
+        if (expected == null || expected.isEmpty()) {
+            return true;
+        }
+        return token != null && MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int liveMemberCount() {
+        ConsistentHashRing current = ring;
+        return current != null ? current.getMembers().size() : 1;
+    }
+
+    private int ownedTargets() {
+        int owned = 0;
+        for (Target target : serviceRegistry.getTargets()) {
+            if (isOwner(target.getName())) {
+                owned++;
+            }
+        }
+        return owned;
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private record LocalResult(long sequence, ServiceStatus status) {
+    }
+
+    private static final class Peer {
+        private final String url;
+        private volatile long lastContact;
+        private volatile long incarnation;
+        private volatile long sentUpTo;
+        private volatile boolean inFlight;
+        private volatile boolean failing;
+
+        Peer(String url, long lastContact) {
+            this.url = url;
+            this.lastContact = lastContact;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring over the cluster members. Each member is placed on the ring
+ * {@code virtualNodes} times and a key belongs to the first member point at or after its hash,
+ * so removing a member only moves the keys that member owned, spread over all the others.
+ * Lookups are a binary search over a primitive array.
+ */
+public final class ConsistentHashRing {
+
+    private final Set<String> members;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        TreeSet<String> sorted = new TreeSet<>(members);
+        this.members = Collections.unmodifiableSet(sorted);
+        int replicas = Math.max(1, virtualNodes);
+
+        long[] hashes = new long[this.members.size() * replicas];
+        String[] memberOf = new String[hashes.length];
+        int i = 0;
+        for (String member : sorted) {
+            for (int replica = 0; replica < replicas; replica++) {
+                hashes[i] = hash(member + "#" + replica);
+                memberOf[i] = member;
+                i++;
+            }
+        }
+
+        // Sort the points and carry their owners along
+        Integer[] order = new Integer[hashes.length];
+        for (int j = 0; j < order.length; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[hashes.length];
+        this.owners = new String[hashes.length];
+        for (int j = 0; j < order.length; j++) {
+            points[j] = hashes[order[j]];
+            owners[j] = memberOf[order[j]];
+        }
+    }
+
+    /**
+     * The member that owns {@code key}, or {@code null} if the ring is empty.
+     */
+    public String owner(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public Set<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * 64-bit FNV-1a followed by the MurmurHash3 finalizer, so that similar keys such as
+     * {@code member#1} and {@code member#2} land far apart.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
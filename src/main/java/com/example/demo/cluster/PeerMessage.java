@@ -0,0 +1,13 @@
+package com.example.demo.cluster;
+
+import com.example.demo.model.ServiceStatus;
+
+import java.util.List;
+
+/**
+ * One heartbeat between replicas: who sent it, which run of that replica sent it (so a restart
+ * can be detected) and the health results of the targets it owns that changed since the last
+ * heartbeat the receiver acknowledged.
+ */
+public record PeerMessage(String sender, long incarnation, List<ServiceStatus> results) {
+}
@@ -0,0 +1,183 @@
+package com.example.demo.cluster;
+
+import com.example.demo.model.EpochNanos;
+import com.example.demo.model.ServiceStatus;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of {@link PeerMessage}s (big-endian):
+ *
+ * <pre>
+ * magic:int version:byte sender:UTF incarnation:long count:int
+ * count x (serviceName:UTF status:byte observedStatus:byte flags:byte timestamp:long
+ *          [latencyMillis:long] [error:UTF] [detailsLength:int details:JSON])
+ * </pre>
+ *
+ * Statuses are one byte; a status outside the known set is written as {@code OTHER} followed by
+ * its name. The optional fields are present when the matching {@code flags} bit is set. Health
+ * details are an arbitrary tree and stay JSON.
+ */
+public class PeerMessageCodec {
+
+    private static final int MAGIC = 0x41535043;
+    private static final byte VERSION = 1;
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private static final byte FLAPPING = 1;
+    private static final byte LATENCY = 1 << 1;
+    private static final byte ERROR = 1 << 2;
+    private static final byte DETAILS = 1 << 3;
+
+    private static final String[] STATUSES = {null, "UP", "DOWN", "DEGRADED", "OUT_OF_SERVICE", "UNKNOWN"};
+    private static final byte OTHER = 127;
+
+    private static final TypeReference<Map<String, Object>> DETAILS_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    public PeerMessageCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] encode(PeerMessage message) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + message.results().size() * 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(message.sender());
+            out.writeLong(message.incarnation());
+            out.writeInt(message.results().size());
+            for (ServiceStatus status : message.results()) {
+                writeStatus(out, status);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a message, failing with {@link IllegalArgumentException} on anything that was not
+     * written by a compatible {@link #encode}.
+     */
+    public PeerMessage decode(byte[] body) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a peer message");
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported peer message version " + version);
+            }
+            String sender = in.readUTF();
+            long incarnation = in.readLong();
+            int count = in.readInt();
+            if (count < 0 || count > body.length) {
+                throw new IllegalArgumentException("Invalid result count " + count);
+            }
+            List<ServiceStatus> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                results.add(readStatus(in));
+            }
+            return new PeerMessage(sender, incarnation, results);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid peer message: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeStatus(DataOutputStream out, ServiceStatus status) throws IOException {
+        Long latency = status.getLatencyMillis();
+        String error = status.getError();
+        Map<String, Object> details = status.getDetails();
+        byte flags = 0;
+        if (Boolean.TRUE.equals(status.getFlapping())) {
+            flags |= FLAPPING;
+        }
+        if (latency != null) {
+            flags |= LATENCY;
+        }
+        if (error != null) {
+            flags |= ERROR;
+        }
+        if (details != null) {
+            flags |= DETAILS;
+        }
+
+        out.writeUTF(status.getServiceName());
+        writeStatusName(out, status.getStatus());
+        writeStatusName(out, status.getObservedStatus());
+        out.writeByte(flags);
+        out.writeLong(EpochNanos.toMillis(status.getTimestampNanos()));
+        if (latency != null) {
+            out.writeLong(latency);
+        }
+        if (error != null) {
+            out.writeUTF(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        }
+        if (details != null) {
+            byte[] json = objectMapper.writeValueAsBytes(details);
+            out.writeInt(json.length);
+            out.write(json);
+        }
+    }
+
+    private ServiceStatus readStatus(DataInputStream in) throws IOException {
+        ServiceStatus status = new ServiceStatus(in.readUTF(), readStatusName(in));
+        status.setObservedStatus(readStatusName(in));
+        byte flags = in.readByte();
+        status.setTimestampNanos(EpochNanos.ofMillis(in.readLong()));
+        if ((flags & FLAPPING) != 0) {
+            status.setFlapping(true);
+        }
+        if ((flags & LATENCY) != 0) {
+            status.setLatencyMillis(in.readLong());
+        }
+        if ((flags & ERROR) != 0) {
+            status.setError(in.readUTF());
+        }
+        if ((flags & DETAILS) != 0) {
+            int length = in.readInt();
+            if (length < 0 || length > in.available()) {
+                throw new IOException("Invalid details length " + length);
+            }
+            byte[] json = new byte[length];
+            in.readFully(json);
+            status.setDetails(objectMapper.readValue(json, DETAILS_TYPE));
+        }
+        return status;
+    }
+
+    private static void writeStatusName(DataOutputStream out, String name) throws IOException {
+        for (byte code = 0; code < STATUSES.length; code++) {
+            if (name == null ? STATUSES[code] == null : name.equals(STATUSES[code])) {
+                out.writeByte(code);
+                return;
+            }
+        }
+        out.writeByte(OTHER);
+        out.writeUTF(name);
+    }
+
+    private static String readStatusName(DataInputStream in) throws IOException {
+        byte code = in.readByte();
+        if (code == OTHER) {
+            return in.readUTF();
+        }
+        if (code < 0 || code >= STATUSES.length) {
+            throw new IOException("Invalid status code " + code);
+        }
+        return STATUSES[code];
+    }
+}
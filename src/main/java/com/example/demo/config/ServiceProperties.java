@@ -6,42 +6,194 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Component
 @ConfigurationProperties(prefix = "services")
 public class ServiceProperties {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(ServiceProperties.class);
-    
-    private ApiServer apiServer = new ApiServer();
-    private LogService logService = new LogService();
+
+    private List<Target> targets = new ArrayList<>();
     private Timeout timeout = new Timeout();
+    private Poll poll = new Poll();
+    private Pool pool = new Pool();
+    private History history = new History();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Cache cache = new Cache();
+    private Stream stream = new Stream();
+    private Scrape scrape = new Scrape();
+    private State state = new State();
+    private Scheduler scheduler = new Scheduler();
+    private Cluster cluster = new Cluster();
+    private Alerts alerts = new Alerts();
+    private Rates rates = new Rates();
+    private LegacyService apiServer = new LegacyService();
+    private LegacyService logService = new LegacyService();
+
+    public List<Target> getTargets() {
+        return targets;
+    }
+
+    public void setTargets(List<Target> targets) {
+        this.targets = targets;
+    }
+
+    public Timeout getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Timeout timeout) {
+        this.timeout = timeout;
+    }
+
+    public Poll getPoll() {
+        return poll;
+    }
+
+    public void setPoll(Poll poll) {
+        this.poll = poll;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public void setPool(Pool pool) {
+        this.pool = pool;
+    }
+
+    public History getHistory() {
+        return history;
+    }
+
+    public void setHistory(History history) {
+        this.history = history;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public Stream getStream() {
+        return stream;
+    }
+
+    public void setStream(Stream stream) {
+        this.stream = stream;
+    }
+
+    public Scrape getScrape() {
+        return scrape;
+    }
+
+    public void setScrape(Scrape scrape) {
+        this.scrape = scrape;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    public void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public void setCluster(Cluster cluster) {
+        this.cluster = cluster;
+    }
+
+    public Alerts getAlerts() {
+        return alerts;
+    }
+
+    public void setAlerts(Alerts alerts) {
+        this.alerts = alerts;
+    }
 
-    public ApiServer getApiServer() {
+    public Rates getRates() {
+        return rates;
+    }
+
+    public void setRates(Rates rates) {
+        this.rates = rates;
+    }
+
+    /**
+     * {@code services.api-server.url}, from before targets were configurable. Mapped onto the
+     * {@code api-server} target.
+     */
+    @Deprecated
+    public LegacyService getApiServer() {
         return apiServer;
     }
 
-    public void setApiServer(ApiServer apiServer) {
+    @Deprecated
+    public void setApiServer(LegacyService apiServer) {
         this.apiServer = apiServer;
     }
 
-    public LogService getLogService() {
+    /**
+     * {@code services.log-service.url}, from before targets were configurable. Mapped onto the
+     * {@code log-service} target.
+     */
+    @Deprecated
+    public LegacyService getLogService() {
         return logService;
     }
 
-    public void setLogService(LogService logService) {
+    @Deprecated
+    public void setLogService(LegacyService logService) {
         this.logService = logService;
     }
 
-    public Timeout getTimeout() {
-        return timeout;
-    }
+    public static class Target {
+        private String name;
+        private String url;
+        private Integer connectTimeout;
+        private Integer readTimeout;
+        private boolean healthDetails = true;
+        private Map<String, String> tags = new LinkedHashMap<>();
+        private List<String> metricNames = new ArrayList<>();
+        private Map<String, Long> intervals = new LinkedHashMap<>();
+        private Pipeline pipeline = new Pipeline();
 
-    public void setTimeout(Timeout timeout) {
-        this.timeout = timeout;
-    }
+        public String getName() {
+            return name;
+        }
 
-    public static class ApiServer {
-        private String url;
+        public void setName(String name) {
+            this.name = name;
+        }
 
         public String getUrl() {
             return url;
@@ -50,23 +202,111 @@ public class ServiceProperties {
         public void setUrl(String url) {
             this.url = url;
         }
-    }
 
-    public static class LogService {
-        private String url;
+        public Integer getConnectTimeout() {
+            return connectTimeout;
+        }
 
-        public String getUrl() {
-            return url;
+        public void setConnectTimeout(Integer connectTimeout) {
+            this.connectTimeout = connectTimeout;
         }
 
-        public void setUrl(String url) {
-            this.url = url;
+        public Integer getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Integer readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public boolean isHealthDetails() {
+            return healthDetails;
+        }
+
+        public void setHealthDetails(boolean healthDetails) {
+            this.healthDetails = healthDetails;
+        }
+
+        public Map<String, String> getTags() {
+            return tags;
+        }
+
+        public void setTags(Map<String, String> tags) {
+            this.tags = tags;
+        }
+
+        public List<String> getMetricNames() {
+            return metricNames;
+        }
+
+        public void setMetricNames(List<String> metricNames) {
+            this.metricNames = metricNames;
+        }
+
+        public Map<String, Long> getIntervals() {
+            return intervals;
+        }
+
+        public void setIntervals(Map<String, Long> intervals) {
+            this.intervals = intervals;
+        }
+
+        public Pipeline getPipeline() {
+            return pipeline;
+        }
+
+        public void setPipeline(Pipeline pipeline) {
+            this.pipeline = pipeline;
+        }
+
+        /**
+         * Metrics of a consume-and-save pipeline, from the target's {@code metric-names}, that
+         * derived rates combine into lag, error ratio and mean processing time.
+         */
+        public static class Pipeline {
+            private String consumed;
+            private String saved;
+            private String errors;
+            private String processingTime;
+
+            public String getConsumed() {
+                return consumed;
+            }
+
+            public void setConsumed(String consumed) {
+                this.consumed = consumed;
+            }
+
+            public String getSaved() {
+                return saved;
+            }
+
+            public void setSaved(String saved) {
+                this.saved = saved;
+            }
+
+            public String getErrors() {
+                return errors;
+            }
+
+            public void setErrors(String errors) {
+                this.errors = errors;
+            }
+
+            public String getProcessingTime() {
+                return processingTime;
+            }
+
+            public void setProcessingTime(String processingTime) {
+                this.processingTime = processingTime;
+            }
         }
     }
 
     public static class Timeout {
         private int connect = 5000;
         private int read = 10000;
+        private int aggregate = 15000;
 
         public int getConnect() {
             return connect;
@@ -83,21 +323,774 @@ public class ServiceProperties {
         public void setRead(int read) {
             this.read = read;
         }
+
+        public int getAggregate() {
+            return aggregate;
+        }
+
+        public void setAggregate(int aggregate) {
+            this.aggregate = aggregate;
+        }
+    }
+
+    public static class Poll {
+        private int interval = 5000;
+
+        public int getInterval() {
+            return interval;
+        }
+
+        public void setInterval(int interval) {
+            this.interval = interval;
+        }
+    }
+
+    public static class Pool {
+        private int maxConnections = 50;
+        private int pendingAcquireMaxCount = 1000;
+        private int pendingAcquireTimeout = 5000;
+        private int maxIdleTime = 45000;
+        private int maxLifeTime = 600000;
+        private int evictionInterval = 30000;
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public int getPendingAcquireMaxCount() {
+            return pendingAcquireMaxCount;
+        }
+
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+            this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+        }
+
+        public int getPendingAcquireTimeout() {
+            return pendingAcquireTimeout;
+        }
+
+        public void setPendingAcquireTimeout(int pendingAcquireTimeout) {
+            this.pendingAcquireTimeout = pendingAcquireTimeout;
+        }
+
+        public int getMaxIdleTime() {
+            return maxIdleTime;
+        }
+
+        public void setMaxIdleTime(int maxIdleTime) {
+            this.maxIdleTime = maxIdleTime;
+        }
+
+        public int getMaxLifeTime() {
+            return maxLifeTime;
+        }
+
+        public void setMaxLifeTime(int maxLifeTime) {
+            this.maxLifeTime = maxLifeTime;
+        }
+
+        public int getEvictionInterval() {
+            return evictionInterval;
+        }
+
+        public void setEvictionInterval(int evictionInterval) {
+            this.evictionInterval = evictionInterval;
+        }
+    }
+
+    public static class History {
+        private int rawCapacity = 720;
+        private int minuteCapacity = 360;
+        private int hourCapacity = 168;
+        private Log log = new Log();
+
+        public int getRawCapacity() {
+            return rawCapacity;
+        }
+
+        public void setRawCapacity(int rawCapacity) {
+            this.rawCapacity = rawCapacity;
+        }
+
+        public int getMinuteCapacity() {
+            return minuteCapacity;
+        }
+
+        public void setMinuteCapacity(int minuteCapacity) {
+            this.minuteCapacity = minuteCapacity;
+        }
+
+        public int getHourCapacity() {
+            return hourCapacity;
+        }
+
+        public void setHourCapacity(int hourCapacity) {
+            this.hourCapacity = hourCapacity;
+        }
+
+        public Log getLog() {
+            return log;
+        }
+
+        public void setLog(Log log) {
+            this.log = log;
+        }
+
+        public static class Log {
+            private boolean enabled = false;
+            private String directory = "data/history";
+            private int segmentSize = 16 * 1024 * 1024;
+            private long maxTotalSize = 512L * 1024 * 1024;
+            private long maxAge = 30L * 24 * 60 * 60 * 1000;
+            private int queueCapacity = 10000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+
+            public int getSegmentSize() {
+                return segmentSize;
+            }
+
+            public void setSegmentSize(int segmentSize) {
+                this.segmentSize = segmentSize;
+            }
+
+            public long getMaxTotalSize() {
+                return maxTotalSize;
+            }
+
+            public void setMaxTotalSize(long maxTotalSize) {
+                this.maxTotalSize = maxTotalSize;
+            }
+
+            public long getMaxAge() {
+                return maxAge;
+            }
+
+            public void setMaxAge(long maxAge) {
+                this.maxAge = maxAge;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+    }
+
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        private int failureThreshold = 3;
+        private long openDuration = 5000;
+        private long maxOpenDuration = 300000;
+        private double jitter = 0.2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public long getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(long openDuration) {
+            this.openDuration = openDuration;
+        }
+
+        public long getMaxOpenDuration() {
+            return maxOpenDuration;
+        }
+
+        public void setMaxOpenDuration(long maxOpenDuration) {
+            this.maxOpenDuration = maxOpenDuration;
+        }
+
+        public double getJitter() {
+            return jitter;
+        }
+
+        public void setJitter(double jitter) {
+            this.jitter = jitter;
+        }
+    }
+
+    public static class Cache {
+        private long infoTtl = 60000;
+        private long metricsTtl = 15000;
+
+        public long getInfoTtl() {
+            return infoTtl;
+        }
+
+        public void setInfoTtl(long infoTtl) {
+            this.infoTtl = infoTtl;
+        }
+
+        public long getMetricsTtl() {
+            return metricsTtl;
+        }
+
+        public void setMetricsTtl(long metricsTtl) {
+            this.metricsTtl = metricsTtl;
+        }
+    }
+
+    public static class Stream {
+        private long heartbeatInterval = 15000;
+        private int bufferSize = 256;
+        private long latencyBucket = 250;
+
+        public long getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(long heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public long getLatencyBucket() {
+            return latencyBucket;
+        }
+
+        public void setLatencyBucket(long latencyBucket) {
+            this.latencyBucket = latencyBucket;
+        }
+    }
+
+    public static class Scrape {
+        private boolean enabled = false;
+        private int interval = 15000;
+        private String prefix = "remote_";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getInterval() {
+            return interval;
+        }
+
+        public void setInterval(int interval) {
+            this.interval = interval;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public void setPrefix(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    public static class State {
+        private int rise = 2;
+        private int fall = 3;
+        private long degradedLatency = 2000;
+        private double degradedPercentile = 0.9;
+        private int latencyWindow = 20;
+        private int flapWindow = 20;
+        private double flapHighThreshold = 0.5;
+        private double flapLowThreshold = 0.25;
+
+        public int getRise() {
+            return rise;
+        }
+
+        public void setRise(int rise) {
+            this.rise = rise;
+        }
+
+        public int getFall() {
+            return fall;
+        }
+
+        public void setFall(int fall) {
+            this.fall = fall;
+        }
+
+        public long getDegradedLatency() {
+            return degradedLatency;
+        }
+
+        public void setDegradedLatency(long degradedLatency) {
+            this.degradedLatency = degradedLatency;
+        }
+
+        public double getDegradedPercentile() {
+            return degradedPercentile;
+        }
+
+        public void setDegradedPercentile(double degradedPercentile) {
+            this.degradedPercentile = degradedPercentile;
+        }
+
+        public int getLatencyWindow() {
+            return latencyWindow;
+        }
+
+        public void setLatencyWindow(int latencyWindow) {
+            this.latencyWindow = latencyWindow;
+        }
+
+        public int getFlapWindow() {
+            return flapWindow;
+        }
+
+        public void setFlapWindow(int flapWindow) {
+            this.flapWindow = flapWindow;
+        }
+
+        public double getFlapHighThreshold() {
+            return flapHighThreshold;
+        }
+
+        public void setFlapHighThreshold(double flapHighThreshold) {
+            this.flapHighThreshold = flapHighThreshold;
+        }
+
+        public double getFlapLowThreshold() {
+            return flapLowThreshold;
+        }
+
+        public void setFlapLowThreshold(double flapLowThreshold) {
+            this.flapLowThreshold = flapLowThreshold;
+        }
+    }
+
+    public static class Scheduler {
+        private int maxConcurrent = 16;
+        private double jitter = 0.1;
+        private long snapshotInterval = 1000;
+        private Map<String, Long> intervals = new LinkedHashMap<>(Map.of(
+                "info", 600000L,
+                "metrics", 30000L,
+                "metric-details", 30000L));
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public double getJitter() {
+            return jitter;
+        }
+
+        public void setJitter(double jitter) {
+            this.jitter = jitter;
+        }
+
+        public long getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(long snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+
+        public Map<String, Long> getIntervals() {
+            return intervals;
+        }
+
+        public void setIntervals(Map<String, Long> intervals) {
+            this.intervals = intervals;
+        }
     }
-    
+
+    public static class Cluster {
+        private boolean enabled = false;
+        private String selfUrl;
+        private List<String> peers = new ArrayList<>();
+        private String membersFile;
+        private int heartbeatInterval = 2000;
+        private int failureTimeout = 6000;
+        private int virtualNodes = 128;
+        private String token;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getSelfUrl() {
+            return selfUrl;
+        }
+
+        public void setSelfUrl(String selfUrl) {
+            this.selfUrl = selfUrl;
+        }
+
+        public List<String> getPeers() {
+            return peers;
+        }
+
+        public void setPeers(List<String> peers) {
+            this.peers = peers;
+        }
+
+        public String getMembersFile() {
+            return membersFile;
+        }
+
+        public void setMembersFile(String membersFile) {
+            this.membersFile = membersFile;
+        }
+
+        public int getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(int heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public int getFailureTimeout() {
+            return failureTimeout;
+        }
+
+        public void setFailureTimeout(int failureTimeout) {
+            this.failureTimeout = failureTimeout;
+        }
+
+        public int getVirtualNodes() {
+            return virtualNodes;
+        }
+
+        public void setVirtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public void setToken(String token) {
+            this.token = token;
+        }
+    }
+
+    public static class Alerts {
+        private List<Rule> rules = new ArrayList<>();
+        private long repeatInterval = 0;
+        private int rateLimit = 20;
+        private int queueCapacity = 1000;
+        private Webhook webhook = new Webhook();
+        private FileSink file = new FileSink();
+
+        public List<Rule> getRules() {
+            return rules;
+        }
+
+        public void setRules(List<Rule> rules) {
+            this.rules = rules;
+        }
+
+        public long getRepeatInterval() {
+            return repeatInterval;
+        }
+
+        public void setRepeatInterval(long repeatInterval) {
+            this.repeatInterval = repeatInterval;
+        }
+
+        public int getRateLimit() {
+            return rateLimit;
+        }
+
+        public void setRateLimit(int rateLimit) {
+            this.rateLimit = rateLimit;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Webhook getWebhook() {
+            return webhook;
+        }
+
+        public void setWebhook(Webhook webhook) {
+            this.webhook = webhook;
+        }
+
+        public FileSink getFile() {
+            return file;
+        }
+
+        public void setFile(FileSink file) {
+            this.file = file;
+        }
+
+        public static class Rule {
+            private String name;
+            private String service;
+            private String type = "status";
+            private String status = "DOWN";
+            private long duration = 0;
+            private double percentile = 0.99;
+            private double threshold;
+            private long window = 300000;
+            private int minSamples = 5;
+            private String metric;
+            private String statistic;
+            private List<String> sinks = new ArrayList<>();
+
+            public String getName() {
+                return name;
+            }
+
+            public void setName(String name) {
+                this.name = name;
+            }
+
+            public String getService() {
+                return service;
+            }
+
+            public void setService(String service) {
+                this.service = service;
+            }
+
+            public String getType() {
+                return type;
+            }
+
+            public void setType(String type) {
+                this.type = type;
+            }
+
+            public String getStatus() {
+                return status;
+            }
+
+            public void setStatus(String status) {
+                this.status = status;
+            }
+
+            public long getDuration() {
+                return duration;
+            }
+
+            public void setDuration(long duration) {
+                this.duration = duration;
+            }
+
+            public double getPercentile() {
+                return percentile;
+            }
+
+            public void setPercentile(double percentile) {
+                this.percentile = percentile;
+            }
+
+            public double getThreshold() {
+                return threshold;
+            }
+
+            public void setThreshold(double threshold) {
+                this.threshold = threshold;
+            }
+
+            public long getWindow() {
+                return window;
+            }
+
+            public void setWindow(long window) {
+                this.window = window;
+            }
+
+            public int getMinSamples() {
+                return minSamples;
+            }
+
+            public void setMinSamples(int minSamples) {
+                this.minSamples = minSamples;
+            }
+
+            public String getMetric() {
+                return metric;
+            }
+
+            public void setMetric(String metric) {
+                this.metric = metric;
+            }
+
+            public String getStatistic() {
+                return statistic;
+            }
+
+            public void setStatistic(String statistic) {
+                this.statistic = statistic;
+            }
+
+            public List<String> getSinks() {
+                return sinks;
+            }
+
+            public void setSinks(List<String> sinks) {
+                this.sinks = sinks;
+            }
+        }
+
+        public static class Webhook {
+            private String url;
+            private int timeout = 5000;
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public int getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(int timeout) {
+                this.timeout = timeout;
+            }
+        }
+
+        public static class FileSink {
+            private String path;
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+        }
+    }
+
+    public static class Rates {
+        private List<Long> windows = new ArrayList<>(List.of(60000L, 300000L, 900000L));
+
+        public List<Long> getWindows() {
+            return windows;
+        }
+
+        public void setWindows(List<Long> windows) {
+            this.windows = windows;
+        }
+    }
+
+    public static class LegacyService {
+        private String url;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+    }
+
     @PostConstruct
     public void validate() {
-        if (apiServer.getUrl() == null || apiServer.getUrl().isEmpty()) {
-            logger.warn("api-server.url is not configured. Please check application.properties");
-        } else {
-            logger.info("api-server.url configured: {}", apiServer.getUrl());
+        applyLegacyUrl("api-server", apiServer);
+        applyLegacyUrl("log-service", logService);
+        if (targets.isEmpty()) {
+            logger.warn("No services.targets configured. Please check application.properties");
+        }
+
+        Set<String> names = new HashSet<>();
+        for (Target target : targets) {
+            if (target.getName() == null || target.getName().isEmpty()) {
+                throw new IllegalStateException("services.targets entries must have a name");
+            }
+            if (!names.add(target.getName())) {
+                throw new IllegalStateException("Duplicate services.targets name: " + target.getName());
+            }
+            if (target.getUrl() == null || target.getUrl().isEmpty()) {
+                logger.warn("{}.url is not configured. Please check application.properties", target.getName());
+            } else {
+                logger.info("{}.url configured: {}", target.getName(), target.getUrl());
+            }
         }
-        
-        if (logService.getUrl() == null || logService.getUrl().isEmpty()) {
-            logger.warn("log-service.url is not configured. Please check application.properties");
-        } else {
-            logger.info("log-service.url configured: {}", logService.getUrl());
+
+        if (cluster.isEnabled() && (cluster.getSelfUrl() == null || cluster.getSelfUrl().isEmpty())) {
+            throw new IllegalStateException("services.cluster.self-url is required when cluster mode is enabled");
         }
     }
-}
 
+    /**
+     * Maps a legacy {@code services.<name>.url} onto the target of that name, which it overrides
+     * as it used to override the built-in URL, or onto a new target if there is none.
+     */
+    private void applyLegacyUrl(String name, LegacyService legacy) {
+        if (legacy.getUrl() == null || legacy.getUrl().isEmpty()) {
+            return;
+        }
+        logger.warn("services.{}.url is deprecated; configure the service as a services.targets entry named {}",
+                name, name);
+        for (Target target : targets) {
+            if (name.equals(target.getName())) {
+                target.setUrl(legacy.getUrl());
+                return;
+            }
+        }
+        Target target = new Target();
+        target.setName(name);
+        target.setUrl(legacy.getUrl());
+        targets.add(target);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Shared HTTP client for all remote checks. Connections are pooled per remote host and kept
+ * alive between polls so that repeated checks reuse established TLS sessions.
+ *
+ * <p>Reactor Netty metrics ({@code reactor.netty.http.client.*}) time DNS resolution, connect,
+ * TLS handshake and response phases per remote address. Single-metric paths are collapsed to
+ * one {@code uri} tag value so that metric names never become tag values.
+ */
+@Configuration
+public class WebClientConfig {
+
+    private static final int MAX_URI_TAGS = 100;
+    private static final String METRICS_PATH = "actuator/metrics/";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider remoteConnectionProvider(ServiceProperties serviceProperties) {
+        ServiceProperties.Pool pool = serviceProperties.getPool();
+        return ConnectionProvider.builder("remote-services")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(pool.getPendingAcquireTimeout()))
+                .maxIdleTime(Duration.ofMillis(pool.getMaxIdleTime()))
+                .maxLifeTime(Duration.ofMillis(pool.getMaxLifeTime()))
+                .evictInBackground(Duration.ofMillis(pool.getEvictionInterval()))
+                // Most recently used connection first, so idle extras age out instead of being re-handshaked
+                .lifo()
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public HttpClient remoteHttpClient(ConnectionProvider remoteConnectionProvider,
+                                       ServiceProperties serviceProperties) {
+        ServiceProperties.Timeout timeout = serviceProperties.getTimeout();
+        return HttpClient.create(remoteConnectionProvider)
+                .metrics(true, WebClientConfig::uriTag)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeout.getConnect())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(timeout.getRead()))
+                .keepAlive(true);
+    }
+
+    /**
+     * Safety net for the {@code uri} tag in case a target's base path varies unexpectedly.
+     */
+    @Bean
+    public MeterFilter remoteUriTagLimit() {
+        return MeterFilter.maximumAllowableTags("reactor.netty.http.client", "uri", MAX_URI_TAGS, MeterFilter.deny());
+    }
+
+    @Bean
+    public WebClient remoteWebClient(HttpClient remoteHttpClient) {
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(remoteHttpClient))
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024))
+                .build();
+    }
+
+    static String uriTag(String path) {
+        int metrics = path.indexOf(METRICS_PATH);
+        if (metrics < 0 || path.length() == metrics + METRICS_PATH.length()) {
+            return path;
+        }
+        return path.substring(0, metrics + METRICS_PATH.length()) + "{name}";
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.controller;
+
+import com.example.demo.cluster.ClusterService;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.CheckScheduler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Receives heartbeats from the other replicas in cluster mode.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "services.cluster", name = "enabled", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterService clusterService;
+    private final CheckScheduler checkScheduler;
+
+    public ClusterController(ClusterService clusterService, CheckScheduler checkScheduler) {
+        this.clusterService = clusterService;
+        this.checkScheduler = checkScheduler;
+    }
+
+    @PostMapping(value = ClusterService.EXCHANGE_PATH, consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> exchange(@RequestBody byte[] body,
+                                         @RequestHeader(value = ClusterService.TOKEN_HEADER, required = false) String token) {
+        List<ServiceStatus> results;
+        try {
+            results = clusterService.receive(body, token);
+        } catch (SecurityException e) {
+            return ResponseEntity.status(403).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        checkScheduler.onPeerResults(results);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,97 +1,223 @@
 package com.example.demo.controller;
 
-import com.example.demo.model.AggregatedStatus;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.history.Resolution;
+import com.example.demo.history.StatusHistoryService;
+import com.example.demo.metrics.MetricRateService;
+import com.example.demo.model.CheckType;
+import com.example.demo.model.ComponentView;
+import com.example.demo.model.MetricRates;
+import com.example.demo.model.ServiceHistory;
 import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.ComponentIndex;
+import com.example.demo.service.EncodedBody;
 import com.example.demo.service.RemoteServiceChecker;
+import com.example.demo.service.ServiceRegistry;
+import com.example.demo.service.StatusSnapshotService;
+import com.example.demo.service.StatusStreamService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/status")
 public class StatusController {
-    
+
+    private static final String SNAPSHOT_AGE_HEADER = "X-Snapshot-Age-Millis";
+    private static final Duration DEFAULT_HISTORY_WINDOW = Duration.ofHours(1);
+
     private final RemoteServiceChecker remoteServiceChecker;
+    private final StatusSnapshotService statusSnapshotService;
+    private final ServiceRegistry serviceRegistry;
+    private final StatusHistoryService statusHistoryService;
+    private final StatusStreamService statusStreamService;
+    private final ComponentIndex componentIndex;
+    private final MetricRateService metricRateService;
 
-    public StatusController(RemoteServiceChecker remoteServiceChecker) {
+    public StatusController(RemoteServiceChecker remoteServiceChecker,
+                            StatusSnapshotService statusSnapshotService,
+                            ServiceRegistry serviceRegistry,
+                            StatusHistoryService statusHistoryService,
+                            StatusStreamService statusStreamService,
+                            ComponentIndex componentIndex,
+                            MetricRateService metricRateService) {
         this.remoteServiceChecker = remoteServiceChecker;
+        this.statusSnapshotService = statusSnapshotService;
+        this.serviceRegistry = serviceRegistry;
+        this.statusHistoryService = statusHistoryService;
+        this.statusStreamService = statusStreamService;
+        this.componentIndex = componentIndex;
+        this.metricRateService = metricRateService;
     }
 
     @GetMapping
-    public ResponseEntity<AggregatedStatus> getOverallStatus() {
-        AggregatedStatus aggregatedStatus = new AggregatedStatus();
-        
-        ServiceStatus apiServerStatus = remoteServiceChecker.checkApiServerHealth();
-        ServiceStatus logServiceStatus = remoteServiceChecker.checkLogServiceHealth();
-        
-        List<ServiceStatus> services = Arrays.asList(apiServerStatus, logServiceStatus);
-        aggregatedStatus.setServices(services);
-        
-        return ResponseEntity.ok(aggregatedStatus);
+    public ResponseEntity<byte[]> getOverallStatus(@RequestHeader HttpHeaders headers) {
+        return snapshotResponse(statusSnapshotService.getEncodedSnapshot(), headers);
     }
 
     @GetMapping("/health")
-    public ResponseEntity<AggregatedStatus> getHealthStatus() {
-        return getOverallStatus();
+    public ResponseEntity<byte[]> getHealthStatus(@RequestHeader HttpHeaders headers) {
+        return getOverallStatus(headers);
     }
 
-    @GetMapping("/api-server")
-    public ResponseEntity<ServiceStatus> getApiServerStatus() {
-        ServiceStatus status = remoteServiceChecker.checkApiServerHealth();
-        return ResponseEntity.ok(status);
+    @GetMapping("/health/db")
+    public ResponseEntity<ComponentView> getDatabaseHealth() {
+        return getComponent("db");
     }
 
-    @GetMapping("/api-server/info")
-    public ResponseEntity<ServiceStatus> getApiServerInfo() {
-        ServiceStatus status = remoteServiceChecker.checkApiServerInfo();
-        return ResponseEntity.ok(status);
+    @GetMapping("/components")
+    public ResponseEntity<ComponentView> getComponentPath(@RequestParam String path) {
+        return ResponseEntity.ok(new ComponentView(null, path, componentIndex.query(path)));
     }
 
-    @GetMapping("/api-server/metrics")
-    public ResponseEntity<ServiceStatus> getApiServerMetrics() {
-        ServiceStatus status = remoteServiceChecker.checkApiServerMetrics();
-        return ResponseEntity.ok(status);
+    @GetMapping("/components/{name}")
+    public ResponseEntity<ComponentView> getComponent(@PathVariable String name) {
+        return ResponseEntity.ok(new ComponentView(name, null, componentIndex.component(name)));
     }
 
-    @GetMapping("/log-service")
-    public ResponseEntity<ServiceStatus> getLogServiceStatus() {
-        ServiceStatus status = remoteServiceChecker.checkLogServiceHealth();
-        return ResponseEntity.ok(status);
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ServiceStatus>> streamStatus() {
+        return statusStreamService.stream();
     }
 
-    @GetMapping("/log-service/info")
-    public ResponseEntity<ServiceStatus> getLogServiceInfo() {
-        ServiceStatus status = remoteServiceChecker.checkLogServiceInfo();
-        return ResponseEntity.ok(status);
+    @GetMapping("/{service}")
+    public Mono<? extends ResponseEntity<?>> getServiceStatus(@PathVariable String service,
+                                                             @RequestHeader HttpHeaders headers) {
+        EncodedBody status = statusSnapshotService.getEncodedServiceStatus(service);
+        if (status != null) {
+            return Mono.just(snapshotResponse(status, headers));
+        }
+        return check(service, remoteServiceChecker::checkHealthAsync);
     }
 
-    @GetMapping("/log-service/metrics")
-    public ResponseEntity<ServiceStatus> getLogServiceMetrics() {
-        ServiceStatus status = remoteServiceChecker.checkLogServiceMetrics();
-        return ResponseEntity.ok(status);
+    @GetMapping("/{service}/info")
+    public Mono<ResponseEntity<ServiceStatus>> getServiceInfo(@PathVariable String service) {
+        return check(service, remoteServiceChecker::checkInfoAsync);
     }
 
-    @GetMapping("/log-service/metrics/details")
-    public ResponseEntity<ServiceStatus> getLogServiceDetailedMetrics() {
-        ServiceStatus status = remoteServiceChecker.checkLogServiceSpecificMetrics();
-        return ResponseEntity.ok(status);
+    @GetMapping("/{service}/metrics")
+    public Mono<ResponseEntity<ServiceStatus>> getServiceMetrics(@PathVariable String service) {
+        return check(service, remoteServiceChecker::checkMetricsAsync);
     }
 
-    @GetMapping("/health/db")
-    public ResponseEntity<AggregatedStatus> getDatabaseHealth() {
-        AggregatedStatus aggregatedStatus = new AggregatedStatus();
-        
-        // Check database health for both services
-        ServiceStatus apiServerStatus = remoteServiceChecker.checkApiServerHealth();
-        ServiceStatus logServiceStatus = remoteServiceChecker.checkLogServiceHealth();
-        
-        // Extract database health from details if available
-        List<ServiceStatus> services = Arrays.asList(apiServerStatus, logServiceStatus);
-        aggregatedStatus.setServices(services);
-        
-        return ResponseEntity.ok(aggregatedStatus);
+    @GetMapping("/{service}/metrics/details")
+    public Mono<ResponseEntity<ServiceStatus>> getServiceDetailedMetrics(@PathVariable String service) {
+        return check(service, remoteServiceChecker::checkMetricDetailsAsync);
+    }
+
+    @GetMapping("/{service}/metrics/rates")
+    public ResponseEntity<MetricRates> getServiceMetricRates(@PathVariable String service) {
+        MetricRates rates = metricRateService.getRates(service);
+        return rates != null ? ResponseEntity.ok(rates) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{service}/history")
+    public ResponseEntity<ServiceHistory> getServiceHistory(@PathVariable String service,
+                                                            @RequestParam(defaultValue = "health") String type,
+                                                            @RequestParam(defaultValue = "raw") String resolution,
+                                                            @RequestParam(required = false) Instant from,
+                                                            @RequestParam(required = false) Instant to) {
+        if (serviceRegistry.getTarget(service) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        CheckType checkType = CheckType.fromPath(type);
+        Resolution historyResolution = Resolution.fromLabel(resolution);
+        if (checkType == null || historyResolution == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_HISTORY_WINDOW);
+        ServiceHistory history = new ServiceHistory(service, checkType.getPath(), historyResolution.getLabel(), start, end);
+        history.setPoints(statusHistoryService.query(service, checkType, historyResolution,
+                start.toEpochMilli(), end.toEpochMilli()));
+        return ResponseEntity.ok(history);
     }
-}
 
+    private Mono<ResponseEntity<ServiceStatus>> check(String service,
+                                                      Function<Target, Mono<ServiceStatus>> checker) {
+        Target target = serviceRegistry.getTarget(service);
+        if (target == null) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return checker.apply(target).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Serves a pre-encoded snapshot body: 304 when the client already has it, gzip when the
+     * client accepts it, and the snapshot age in headers either way.
+     */
+    private ResponseEntity<byte[]> snapshotResponse(EncodedBody body, HttpHeaders requestHeaders) {
+        boolean gzip = acceptsGzip(requestHeaders.get(HttpHeaders.ACCEPT_ENCODING));
+        boolean notModified = body.matches(requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(body.getEtag(gzip))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        long ageMillis = statusSnapshotService.getAgeMillis();
+        if (ageMillis >= 0) {
+            response.header(HttpHeaders.AGE, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(ageMillis)))
+                    .header(SNAPSHOT_AGE_HEADER, String.valueOf(ageMillis));
+        }
+        if (notModified) {
+            return response.build();
+        }
+        response.contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.getGzip());
+        }
+        return response.body(body.getJson());
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip: {@code gzip} or {@code x-gzip} with a q-value
+     * above zero or, when neither is listed, {@code *} with one.
+     */
+    static boolean acceptsGzip(List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String header : acceptEncoding) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                if (name.equals("gzip") || name.equals("x-gzip")) {
+                    gzip = Math.max(gzip, quality(parts));
+                } else if (name.equals("*")) {
+                    any = Math.max(any, quality(parts));
+                }
+            }
+        }
+        return (gzip >= 0 ? gzip : any) > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
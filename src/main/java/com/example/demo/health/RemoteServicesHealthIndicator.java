@@ -1,45 +1,45 @@
 package com.example.demo.health;
 
-import com.example.demo.service.RemoteServiceChecker;
+import com.example.demo.model.AggregatedStatus;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.StatusSnapshotService;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.stereotype.Component;
 
 @Component
 public class RemoteServicesHealthIndicator implements HealthIndicator {
-    
-    private final RemoteServiceChecker remoteServiceChecker;
 
-    public RemoteServicesHealthIndicator(RemoteServiceChecker remoteServiceChecker) {
-        this.remoteServiceChecker = remoteServiceChecker;
+    private static final Status DEGRADED = new Status("DEGRADED", "Some services are slow or flapping");
+
+    private final StatusSnapshotService statusSnapshotService;
+
+    public RemoteServicesHealthIndicator(StatusSnapshotService statusSnapshotService) {
+        this.statusSnapshotService = statusSnapshotService;
     }
 
     @Override
     public Health health() {
         try {
-            var apiServerStatus = remoteServiceChecker.checkApiServerHealth();
-            var logServiceStatus = remoteServiceChecker.checkLogServiceHealth();
-            
-            boolean apiServerUp = "UP".equals(apiServerStatus.getStatus());
-            boolean logServiceUp = "UP".equals(logServiceStatus.getStatus());
-            
-            int healthyCount = (apiServerUp ? 1 : 0) + (logServiceUp ? 1 : 0);
-            
-            if (apiServerUp && logServiceUp) {
-                return Health.up()
-                        .withDetail("api-server", apiServerStatus.getStatus())
-                        .withDetail("log-service", logServiceStatus.getStatus())
-                        .withDetail("totalServices", 2)
-                        .withDetail("healthyServices", 2)
-                        .build();
-            } else {
-                return Health.down()
-                        .withDetail("api-server", apiServerStatus.getStatus())
-                        .withDetail("log-service", logServiceStatus.getStatus())
-                        .withDetail("totalServices", 2)
-                        .withDetail("healthyServices", healthyCount)
-                        .build();
+            AggregatedStatus snapshot = statusSnapshotService.getSnapshot();
+
+            Health.Builder builder = switch (snapshot.getOverallStatusCode()) {
+                case UNKNOWN -> Health.unknown();
+                case UP -> Health.up();
+                case DEGRADED -> Health.status(DEGRADED);
+                default -> Health.down();
+            };
+
+            for (ServiceStatus service : snapshot.getServices()) {
+                builder.withDetail(service.getServiceName(), service.getStatus());
             }
+
+            return builder
+                    .withDetail("totalServices", snapshot.getTotalServices())
+                    .withDetail("healthyServices", snapshot.getHealthyServices())
+                    .withDetail("snapshotAgeMillis", statusSnapshotService.getAgeMillis())
+                    .build();
         } catch (Exception e) {
             return Health.down()
                     .withDetail("error", e.getMessage())
@@ -47,4 +47,3 @@ public class RemoteServicesHealthIndicator implements HealthIndicator {
         }
     }
 }
-
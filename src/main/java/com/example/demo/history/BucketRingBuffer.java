@@ -0,0 +1,85 @@
+package com.example.demo.history;
+
+import com.example.demo.model.HistoryPoint;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Fixed-capacity ring of downsampled buckets. The newest bucket is updated in place until a
+ * sample for a later bucket arrives, so each sample costs O(1) and no allocation.
+ */
+final class BucketRingBuffer {
+
+    private final long bucketMillis;
+    private final long[] starts;
+    private final int[] counts;
+    private final int[] upCounts;
+    private final long[] latencySums;
+    private final int[] latencyCounts;
+    private final int[] latencyMax;
+    private int last = -1;
+    private int size;
+
+    BucketRingBuffer(long bucketMillis, int capacity) {
+        this.bucketMillis = bucketMillis;
+        this.starts = new long[capacity];
+        this.counts = new int[capacity];
+        this.upCounts = new int[capacity];
+        this.latencySums = new long[capacity];
+        this.latencyCounts = new int[capacity];
+        this.latencyMax = new int[capacity];
+    }
+
+    synchronized void add(long timestamp, int latencyMillis, byte status) {
+        long start = timestamp - Math.floorMod(timestamp, bucketMillis);
+        if (last < 0 || start > starts[last]) {
+            last = (last + 1) % starts.length;
+            starts[last] = start;
+            counts[last] = 0;
+            upCounts[last] = 0;
+            latencySums[last] = 0;
+            latencyCounts[last] = 0;
+            latencyMax[last] = 0;
+            if (size < starts.length) {
+                size++;
+            }
+        } else if (start < starts[last]) {
+            // Late sample for a bucket that is already closed
+            return;
+        }
+
+        counts[last]++;
+        if (status == HistoryStatus.UP) {
+            upCounts[last]++;
+        }
+        if (latencyMillis >= 0) {
+            latencySums[last] += latencyMillis;
+            latencyCounts[last]++;
+            latencyMax[last] = Math.max(latencyMax[last], latencyMillis);
+        }
+    }
+
+    /**
+     * Appends buckets starting in {@code [from, to)} to {@code points}, oldest first.
+     */
+    synchronized void collect(long from, long to, List<HistoryPoint> points) {
+        int capacity = starts.length;
+        int oldest = (last - size + 1 + capacity) % capacity;
+        for (int i = 0; i < size; i++) {
+            int index = (oldest + i) % capacity;
+            long start = starts[index];
+            if (start + bucketMillis > from && start < to) {
+                HistoryPoint point = new HistoryPoint(Instant.ofEpochMilli(start));
+                point.setSamples(counts[index]);
+                point.setUpSamples(upCounts[index]);
+                point.setAvailability(counts[index] == 0 ? null : (double) upCounts[index] / counts[index]);
+                if (latencyCounts[index] > 0) {
+                    point.setLatencyMillis(latencySums[index] / latencyCounts[index]);
+                    point.setMaxLatencyMillis((long) latencyMax[index]);
+                }
+                points.add(point);
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.example.demo.history;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.model.CheckType;
+import com.example.demo.model.HistoryPoint;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.CheckResultListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, memory-mapped log of check results, split into fixed-size segment files so
+ * history survives restarts. Results are queued by the listener and written by a single
+ * background thread, so the polling path never touches the disk.
+ *
+ * <p>Record layout (big-endian): {@code timestamp:long, latencyMillis:int, type:byte,
+ * status:byte, nameLength:short, name:UTF-8}. Segment files are zero-filled, so a zero
+ * timestamp marks the end of the written data.
+ */
+@Component
+public class HistoryLog implements CheckResultListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryLog.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int HEADER_SIZE = 8 + 4 + 1 + 1 + 2;
+    private static final CheckType[] CHECK_TYPES = CheckType.values();
+    private static final long RETENTION_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final ServiceProperties.History.Log properties;
+    private final ServiceProperties.History historyProperties;
+    private final StatusHistoryStore statusHistoryStore;
+    private final BlockingQueue<Entry> queue;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<String, byte[]> encodedNames = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+    private Segment active;
+
+    public HistoryLog(ServiceProperties serviceProperties, StatusHistoryStore statusHistoryStore) {
+        this.historyProperties = serviceProperties.getHistory();
+        this.properties = historyProperties.getLog();
+        this.statusHistoryStore = statusHistoryStore;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        Path directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+        loadSegments(directory);
+        enforceRetention();
+
+        running = true;
+        writer = new Thread(this::drain, "history-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("History log enabled in {} ({} segments)", directory.toAbsolutePath(), segments.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public void onCheckResult(CheckType type, ServiceStatus status) {
+        if (!running) {
+            return;
+        }
+        Long latency = status.getLatencyMillis();
+        Entry entry = new Entry(StatusHistoryStore.timestampOf(status), status.getServiceName(), type,
+                latency != null ? (int) Math.min(latency, Integer.MAX_VALUE) : -1,
+                HistoryStatus.encode(status.getStatusCode()));
+        if (!queue.offer(entry)) {
+            long count = dropped.incrementAndGet();
+            if (count % 1000 == 1) {
+                logger.warn("History log queue is full, {} results dropped so far", count);
+            }
+        }
+    }
+
+    /**
+     * Returns raw samples of one series with {@code from <= timestamp < to}, oldest first.
+     * Only segments whose time range overlaps the query are read.
+     */
+    public List<HistoryPoint> query(String serviceName, CheckType type, long from, long to) {
+        List<HistoryPoint> points = new ArrayList<>();
+        byte[] name = serviceName.getBytes(StandardCharsets.UTF_8);
+        for (Segment segment : segments) {
+            if (segment.lastTimestamp < from || segment.firstTimestamp >= to) {
+                continue;
+            }
+            ByteBuffer buffer = segment.read();
+            while (buffer.remaining() >= HEADER_SIZE) {
+                long timestamp = buffer.getLong();
+                int latency = buffer.getInt();
+                byte typeOrdinal = buffer.get();
+                byte status = buffer.get();
+                int nameLength = buffer.getShort();
+                if (timestamp >= from && timestamp < to && typeOrdinal == type.ordinal()
+                        && nameMatches(buffer, name, nameLength)) {
+                    HistoryPoint point = new HistoryPoint(Instant.ofEpochMilli(timestamp));
+                    point.setStatus(HistoryStatus.decode(status));
+                    if (latency >= 0) {
+                        point.setLatencyMillis((long) latency);
+                    }
+                    points.add(point);
+                }
+                buffer.position(buffer.position() + nameLength);
+            }
+        }
+        return points;
+    }
+
+    private void loadSegments(Path directory) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        // Only replay what still fits into the in-memory tiers
+        long replayFrom = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(historyProperties.getHourCapacity());
+        long replayed = 0;
+        for (Path path : paths) {
+            Segment segment = Segment.open(path, false);
+            ByteBuffer buffer = segment.read();
+            while (buffer.remaining() >= HEADER_SIZE) {
+                int start = buffer.position();
+                long timestamp = buffer.getLong();
+                if (timestamp == 0L) {
+                    buffer.position(start);
+                    break;
+                }
+                int latency = buffer.getInt();
+                int typeOrdinal = buffer.get();
+                byte status = buffer.get();
+                int nameLength = buffer.getShort();
+                if (nameLength < 0 || nameLength > buffer.remaining() || typeOrdinal < 0
+                        || typeOrdinal >= CHECK_TYPES.length) {
+                    // Torn write at the tail of the segment
+                    buffer.position(start);
+                    break;
+                }
+                String serviceName = StandardCharsets.UTF_8.decode(buffer.slice(buffer.position(), nameLength)).toString();
+                buffer.position(buffer.position() + nameLength);
+
+                segment.observe(timestamp);
+                if (timestamp >= replayFrom) {
+                    statusHistoryStore.record(serviceName, CHECK_TYPES[typeOrdinal], timestamp, latency, status);
+                    replayed++;
+                }
+            }
+            segment.limit = buffer.position();
+            segments.add(segment);
+        }
+        logger.info("Replayed {} history records from {} segments", replayed, paths.size());
+    }
+
+    private void drain() {
+        long nextRetentionAt = System.nanoTime() + RETENTION_INTERVAL_NANOS;
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry entry = queue.poll(1, TimeUnit.SECONDS);
+                if (entry != null) {
+                    append(entry);
+                }
+                // Segments also expire by age, which a quiet log would otherwise only notice on the next roll
+                long now = System.nanoTime();
+                if (now - nextRetentionAt >= 0) {
+                    nextRetentionAt = now + RETENTION_INTERVAL_NANOS;
+                    enforceRetention();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Failed to append to history log: {}", e.getMessage());
+            }
+        }
+        if (active != null) {
+            active.buffer.force();
+        }
+    }
+
+    private void append(Entry entry) throws IOException {
+        byte[] name = encodedNames.computeIfAbsent(entry.serviceName(), n -> n.getBytes(StandardCharsets.UTF_8));
+        int length = HEADER_SIZE + name.length;
+        if (active == null || active.buffer.remaining() < length) {
+            roll();
+        }
+
+        MappedByteBuffer buffer = active.buffer;
+        buffer.putLong(entry.timestamp())
+                .putInt(entry.latencyMillis())
+                .put((byte) entry.type().ordinal())
+                .put(entry.status())
+                .putShort((short) name.length)
+                .put(name);
+        active.observe(entry.timestamp());
+        // Publish the new end only after the record is complete, for concurrent readers
+        active.limit = buffer.position();
+    }
+
+    private void roll() throws IOException {
+        if (active == null && !segments.isEmpty()) {
+            // Continue the newest segment left by a previous run if it still has room
+            Segment last = segments.get(segments.size() - 1);
+            if (last.size - last.limit > HEADER_SIZE + 256) {
+                active = Segment.open(last.path, true);
+                active.firstTimestamp = last.firstTimestamp;
+                active.lastTimestamp = last.lastTimestamp;
+                active.limit = last.limit;
+                active.buffer.position(last.limit);
+                segments.set(segments.size() - 1, active);
+                return;
+            }
+        }
+
+        if (active != null) {
+            active.buffer.force();
+        }
+        long sequence = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).sequence + 1;
+        Path path = Paths.get(properties.getDirectory(), String.format("%020d%s", sequence, SEGMENT_SUFFIX));
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(properties.getSegmentSize());
+        }
+        active = Segment.open(path, true);
+        segments.add(active);
+        enforceRetention();
+    }
+
+    private void enforceRetention() {
+        long expiredBefore = System.currentTimeMillis() - properties.getMaxAge();
+        long totalSize = segments.stream().mapToLong(segment -> segment.size).sum();
+        while (segments.size() > 1) {
+            Segment oldest = segments.get(0);
+            if (oldest == active || (totalSize <= properties.getMaxTotalSize() && oldest.lastTimestamp >= expiredBefore)) {
+                break;
+            }
+            segments.remove(0);
+            totalSize -= oldest.size;
+            try {
+                Files.deleteIfExists(oldest.path);
+                logger.info("Deleted history segment {}", oldest.path.getFileName());
+            } catch (IOException e) {
+                logger.warn("Failed to delete history segment {}: {}", oldest.path, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean nameMatches(ByteBuffer buffer, byte[] name, int nameLength) {
+        if (nameLength != name.length) {
+            return false;
+        }
+        int position = buffer.position();
+        for (int i = 0; i < nameLength; i++) {
+            if (buffer.get(position + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Entry(long timestamp, String serviceName, CheckType type, int latencyMillis, byte status) {
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final long sequence;
+        private final long size;
+        private final MappedByteBuffer buffer;
+        private volatile int limit;
+        private volatile long firstTimestamp = Long.MAX_VALUE;
+        private volatile long lastTimestamp = Long.MIN_VALUE;
+
+        private Segment(Path path, long size, MappedByteBuffer buffer, int limit) {
+            this.path = path;
+            String fileName = path.getFileName().toString();
+            this.sequence = Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+            this.size = size;
+            this.buffer = buffer;
+            this.limit = limit;
+        }
+
+        static Segment open(Path path, boolean writable) throws IOException {
+            try (FileChannel channel = writable
+                    ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                MappedByteBuffer buffer = channel.map(
+                        writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+                // Writable segments start empty; read-only ones are scanned up to their end marker
+                return new Segment(path, size, buffer, writable ? 0 : (int) size);
+            }
+        }
+
+        void observe(long timestamp) {
+            if (timestamp < firstTimestamp) {
+                firstTimestamp = timestamp;
+            }
+            if (timestamp > lastTimestamp) {
+                lastTimestamp = timestamp;
+            }
+        }
+
+        /**
+         * An independent view of the records written so far.
+         */
+        ByteBuffer read() {
+            return buffer.duplicate().position(0).limit(limit);
+        }
+    }
+}
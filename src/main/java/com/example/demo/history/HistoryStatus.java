@@ -0,0 +1,38 @@
+package com.example.demo.history;
+
+import com.example.demo.model.HealthStatus;
+
+/**
+ * One-byte encoding of check statuses for the primitive history buffers.
+ */
+public final class HistoryStatus {
+
+    public static final byte UNKNOWN = 0;
+    public static final byte UP = 1;
+    public static final byte DOWN = 2;
+    public static final byte OUT_OF_SERVICE = 3;
+
+    private HistoryStatus() {
+    }
+
+    public static byte encode(HealthStatus status) {
+        if (status == null) {
+            return UNKNOWN;
+        }
+        return switch (status) {
+            case UP -> UP;
+            case DOWN -> DOWN;
+            case OUT_OF_SERVICE -> OUT_OF_SERVICE;
+            default -> UNKNOWN;
+        };
+    }
+
+    public static String decode(byte code) {
+        return switch (code) {
+            case UP -> "UP";
+            case DOWN -> "DOWN";
+            case OUT_OF_SERVICE -> "OUT_OF_SERVICE";
+            default -> "UNKNOWN";
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.history;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * History tiers: every raw sample, or samples downsampled into fixed time buckets.
+ */
+public enum Resolution {
+    RAW("raw", 0L),
+    MINUTE("1m", TimeUnit.MINUTES.toMillis(1)),
+    HOUR("1h", TimeUnit.HOURS.toMillis(1));
+
+    private final String label;
+    private final long bucketMillis;
+
+    Resolution(String label, long bucketMillis) {
+        this.label = label;
+        this.bucketMillis = bucketMillis;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public static Resolution fromLabel(String label) {
+        for (Resolution resolution : values()) {
+            if (resolution.label.equalsIgnoreCase(label)) {
+                return resolution;
+            }
+        }
+        return null;
+    }
+}
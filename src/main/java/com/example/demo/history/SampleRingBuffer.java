@@ -0,0 +1,62 @@
+package com.example.demo.history;
+
+import com.example.demo.model.HistoryPoint;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Fixed-capacity ring of raw check samples held in parallel primitive arrays, so a full
+ * buffer costs the same memory as an empty one and recording never allocates.
+ */
+final class SampleRingBuffer {
+
+    private final long[] timestamps;
+    private final int[] latencies;
+    private final byte[] statuses;
+    private int next;
+    private int size;
+
+    SampleRingBuffer(int capacity) {
+        this.timestamps = new long[capacity];
+        this.latencies = new int[capacity];
+        this.statuses = new byte[capacity];
+    }
+
+    synchronized void add(long timestamp, int latencyMillis, byte status) {
+        timestamps[next] = timestamp;
+        latencies[next] = latencyMillis;
+        statuses[next] = status;
+        next = (next + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    synchronized long oldestTimestamp() {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+        return timestamps[(next - size + timestamps.length) % timestamps.length];
+    }
+
+    /**
+     * Appends samples with {@code from <= timestamp < to} to {@code points}, oldest first.
+     */
+    synchronized void collect(long from, long to, List<HistoryPoint> points) {
+        int capacity = timestamps.length;
+        int oldest = (next - size + capacity) % capacity;
+        for (int i = 0; i < size; i++) {
+            int index = (oldest + i) % capacity;
+            long timestamp = timestamps[index];
+            if (timestamp >= from && timestamp < to) {
+                HistoryPoint point = new HistoryPoint(Instant.ofEpochMilli(timestamp));
+                point.setStatus(HistoryStatus.decode(statuses[index]));
+                if (latencies[index] >= 0) {
+                    point.setLatencyMillis((long) latencies[index]);
+                }
+                points.add(point);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.history;
+
+import com.example.demo.model.HistoryPoint;
+
+import java.util.List;
+
+/**
+ * History of one service and check type: raw samples plus the 1m and 1h downsampled tiers.
+ */
+final class SeriesHistory {
+
+    private final SampleRingBuffer raw;
+    private final BucketRingBuffer minutes;
+    private final BucketRingBuffer hours;
+
+    SeriesHistory(int rawCapacity, int minuteCapacity, int hourCapacity) {
+        this.raw = new SampleRingBuffer(rawCapacity);
+        this.minutes = new BucketRingBuffer(Resolution.MINUTE.getBucketMillis(), minuteCapacity);
+        this.hours = new BucketRingBuffer(Resolution.HOUR.getBucketMillis(), hourCapacity);
+    }
+
+    void add(long timestamp, int latencyMillis, byte status) {
+        raw.add(timestamp, latencyMillis, status);
+        minutes.add(timestamp, latencyMillis, status);
+        hours.add(timestamp, latencyMillis, status);
+    }
+
+    long oldestRawTimestamp() {
+        return raw.oldestTimestamp();
+    }
+
+    void collect(Resolution resolution, long from, long to, List<HistoryPoint> points) {
+        switch (resolution) {
+            case RAW -> raw.collect(from, to, points);
+            case MINUTE -> minutes.collect(from, to, points);
+            case HOUR -> hours.collect(from, to, points);
+        }
+    }
+}
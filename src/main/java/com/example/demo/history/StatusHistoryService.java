@@ -0,0 +1,39 @@
+package com.example.demo.history;
+
+import com.example.demo.model.CheckType;
+import com.example.demo.model.HistoryPoint;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Answers history queries from memory, falling back to the on-disk log for raw samples that
+ * are older than what the in-memory ring buffers still hold.
+ */
+@Service
+public class StatusHistoryService {
+
+    private final StatusHistoryStore statusHistoryStore;
+    private final HistoryLog historyLog;
+
+    public StatusHistoryService(StatusHistoryStore statusHistoryStore, HistoryLog historyLog) {
+        this.statusHistoryStore = statusHistoryStore;
+        this.historyLog = historyLog;
+    }
+
+    public List<HistoryPoint> query(String serviceName, CheckType type, Resolution resolution, long from, long to) {
+        if (resolution != Resolution.RAW || !historyLog.isEnabled()) {
+            return statusHistoryStore.query(serviceName, type, resolution, from, to);
+        }
+
+        long oldestInMemory = statusHistoryStore.oldestRawTimestamp(serviceName, type);
+        if (from >= oldestInMemory) {
+            return statusHistoryStore.query(serviceName, type, resolution, from, to);
+        }
+        List<HistoryPoint> points = historyLog.query(serviceName, type, from, Math.min(to, oldestInMemory));
+        if (to > oldestInMemory) {
+            points.addAll(statusHistoryStore.query(serviceName, type, resolution, oldestInMemory, to));
+        }
+        return points;
+    }
+}
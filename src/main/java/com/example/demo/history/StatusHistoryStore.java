@@ -0,0 +1,89 @@
+package com.example.demo.history;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.model.CheckType;
+import com.example.demo.model.EpochNanos;
+import com.example.demo.model.HistoryPoint;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.CheckResultListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory history of check results per service and check type. Each series is a set of
+ * fixed-size primitive ring buffers, so memory is bounded by
+ * {@code series x (raw + minute + hour capacity)} regardless of the poll rate.
+ */
+@Component
+public class StatusHistoryStore implements CheckResultListener {
+
+    private static final int TYPES = CheckType.values().length;
+
+    // Per service, one series per check type by ordinal, so recording a result allocates no key
+    private final ConcurrentMap<String, AtomicReferenceArray<SeriesHistory>> series = new ConcurrentHashMap<>();
+    private final ServiceProperties.History properties;
+
+    public StatusHistoryStore(ServiceProperties serviceProperties) {
+        this.properties = serviceProperties.getHistory();
+    }
+
+    @Override
+    public void onCheckResult(CheckType type, ServiceStatus status) {
+        Long latency = status.getLatencyMillis();
+        record(status.getServiceName(), type, timestampOf(status),
+                latency != null ? (int) Math.min(latency, Integer.MAX_VALUE) : -1,
+                HistoryStatus.encode(status.getStatusCode()));
+    }
+
+    /**
+     * The time a result is recorded under. Derived from the result itself so that every listener
+     * files the same check under the same timestamp.
+     */
+    static long timestampOf(ServiceStatus status) {
+        return EpochNanos.toMillis(status.getTimestampNanos());
+    }
+
+    public void record(String serviceName, CheckType type, long timestamp, int latencyMillis, byte status) {
+        AtomicReferenceArray<SeriesHistory> byType = series.get(serviceName);
+        if (byType == null) {
+            byType = series.computeIfAbsent(serviceName, key -> new AtomicReferenceArray<>(TYPES));
+        }
+        SeriesHistory history = byType.get(type.ordinal());
+        if (history == null) {
+            byType.compareAndSet(type.ordinal(), null, new SeriesHistory(
+                    properties.getRawCapacity(), properties.getMinuteCapacity(), properties.getHourCapacity()));
+            history = byType.get(type.ordinal());
+        }
+        history.add(timestamp, latencyMillis, status);
+    }
+
+    /**
+     * Returns the points of one series within {@code [from, to)} (epoch millis), oldest first.
+     */
+    public List<HistoryPoint> query(String serviceName, CheckType type, Resolution resolution, long from, long to) {
+        List<HistoryPoint> points = new ArrayList<>();
+        SeriesHistory history = get(serviceName, type);
+        if (history != null) {
+            history.collect(resolution, from, to, points);
+        }
+        return points;
+    }
+
+    /**
+     * Timestamp of the oldest raw sample still held in memory, or {@code Long.MAX_VALUE} if none.
+     */
+    public long oldestRawTimestamp(String serviceName, CheckType type) {
+        SeriesHistory history = get(serviceName, type);
+        return history != null ? history.oldestRawTimestamp() : Long.MAX_VALUE;
+    }
+
+    private SeriesHistory get(String serviceName, CheckType type) {
+        AtomicReferenceArray<SeriesHistory> byType = series.get(serviceName);
+        return byType != null ? byType.get(type.ordinal()) : null;
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.demo.metrics;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.model.CheckType;
+import com.example.demo.model.EpochNanos;
+import com.example.demo.model.MetricRates;
+import com.example.demo.model.MetricRates.Series;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.CheckResultListener;
+import com.example.demo.service.ServiceRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Turns the cumulative values of every metric-detail check into rates. Each measurement of
+ * each metric keeps a {@link RateSeries} with the previous sample, so a poll only updates a
+ * few primitives, and the JSON view is only built when it is requested. {@code COUNT},
+ * {@code TOTAL} and {@code TOTAL_TIME} measurements are counters; other measurements are gauges,
+ * except for the {@code VALUE} of a pipeline's consumed, saved and errors metrics, which are
+ * cumulative however the target exposes them.
+ *
+ * <p>When the target configures a {@code pipeline}, its metrics are combined into consumed and
+ * saved throughput, lag (consumed minus saved), error ratio and mean processing time. Moving
+ * averages use the windows in {@code services.rates.windows}.
+ */
+@Component
+public class MetricRateService implements CheckResultListener {
+
+    private static final Set<String> CUMULATIVE = Set.of("COUNT", "TOTAL", "TOTAL_TIME");
+    private static final String VALUE = "VALUE";
+
+    private final ServiceRegistry serviceRegistry;
+    private final long[] windows;
+    private final String[] labels;
+    private final ConcurrentMap<String, ServiceRates> services = new ConcurrentHashMap<>();
+
+    public MetricRateService(ServiceProperties serviceProperties, ServiceRegistry serviceRegistry) {
+        this.serviceRegistry = serviceRegistry;
+        List<Long> configured = serviceProperties.getRates().getWindows();
+        this.windows = new long[configured.size()];
+        this.labels = new String[configured.size()];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = configured.get(i);
+            if (windows[i] <= 0) {
+                throw new IllegalStateException("services.rates.windows must be positive: " + windows[i]);
+            }
+            labels[i] = label(windows[i]);
+        }
+    }
+
+    @Override
+    public void onCheckResult(CheckType type, ServiceStatus status) {
+        if (type == CheckType.METRIC_DETAILS && status.getError() == null && status.getDetails() != null) {
+            // The time the values were sampled, e.g. scraped, rather than when the result arrived
+            update(status.getServiceName(), status.getDetails(), EpochNanos.toMillis(status.getTimestampNanos()));
+        }
+    }
+
+    /**
+     * The rates derived so far for {@code serviceName}, or {@code null} if it is not a target.
+     */
+    public MetricRates getRates(String serviceName) {
+        Target target = serviceRegistry.getTarget(serviceName);
+        if (target == null) {
+            return null;
+        }
+        MetricRates view = new MetricRates(serviceName);
+        ServiceRates rates = services.get(serviceName);
+        if (rates == null) {
+            view.setMetrics(Map.of());
+            return view;
+        }
+
+        synchronized (rates) {
+            view.setUpdatedAt(Instant.ofEpochMilli(rates.updatedAt));
+            Map<String, Map<String, Series>> metrics = new TreeMap<>();
+            rates.metrics.forEach((metric, statistics) -> {
+                Map<String, Series> byStatistic = new LinkedHashMap<>();
+                statistics.forEach((statistic, series) -> byStatistic.put(statistic, series(series)));
+                metrics.put(metric, byStatistic);
+            });
+            view.setMetrics(metrics);
+            view.setPipeline(pipeline(target.getPipeline(), rates));
+        }
+        return view;
+    }
+
+    /**
+     * Records the values of one metric-detail result sampled at {@code now} (epoch millis). A
+     * result that is not newer than the previous one, such as the same scrape seen by a
+     * scheduled and an on-demand check, is ignored.
+     */
+    void update(String serviceName, Map<String, Object> details, long now) {
+        Target target = serviceRegistry.getTarget(serviceName);
+        if (target == null) {
+            return;
+        }
+        ServiceRates rates = services.computeIfAbsent(serviceName, key -> new ServiceRates(windows));
+        Target.Pipeline pipeline = target.getPipeline();
+
+        // Scheduled polls and API calls of one service may complete at the same time
+        synchronized (rates) {
+            if (now <= rates.updatedAt) {
+                return;
+            }
+            for (Map.Entry<String, Object> entry : details.entrySet()) {
+                String metric = entry.getKey();
+                if (entry.getValue() instanceof Number number) {
+                    record(rates, pipeline, metric, VALUE, number.doubleValue(), now);
+                    continue;
+                }
+                // Anything else but a metric description, e.g. "unavailable", keeps the previous sample
+                if (!(entry.getValue() instanceof Map<?, ?> description)
+                        || !(description.get("measurements") instanceof List<?> measurements)) {
+                    continue;
+                }
+                for (Object measurement : measurements) {
+                    if (measurement instanceof Map<?, ?> sample && sample.get("value") instanceof Number value) {
+                        record(rates, pipeline, metric, String.valueOf(sample.get("statistic")), value.doubleValue(), now);
+                    }
+                }
+            }
+
+            RateSeries consumed = primary(rates, pipeline.getConsumed());
+            RateSeries saved = primary(rates, pipeline.getSaved());
+            if (consumed != null && saved != null && consumed.getUpdatedAt() == now && saved.getUpdatedAt() == now) {
+                rates.lag.update(now, consumed.getValue() - saved.getValue());
+            }
+            rates.updatedAt = now;
+        }
+    }
+
+    private void record(ServiceRates rates, Target.Pipeline pipeline, String metric, String statistic,
+                        double value, long now) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        rates.metrics.computeIfAbsent(metric, key -> new LinkedHashMap<>())
+                .computeIfAbsent(statistic, key -> new RateSeries(CUMULATIVE.contains(statistic)
+                        || VALUE.equals(statistic) && isPipelineCounter(pipeline, metric), windows))
+                .update(now, value);
+    }
+
+    private MetricRates.Pipeline pipeline(Target.Pipeline configured, ServiceRates rates) {
+        if (configured.getConsumed() == null && configured.getSaved() == null && configured.getErrors() == null
+                && configured.getProcessingTime() == null) {
+            return null;
+        }
+        RateSeries consumed = primary(rates, configured.getConsumed());
+        RateSeries saved = primary(rates, configured.getSaved());
+        RateSeries errors = primary(rates, configured.getErrors());
+
+        MetricRates.Pipeline pipeline = new MetricRates.Pipeline();
+        pipeline.setConsumedRate(consumed != null ? finite(consumed.getRate()) : null);
+        pipeline.setSavedRate(saved != null ? finite(saved.getRate()) : null);
+        pipeline.setErrorRate(errors != null ? finite(errors.getRate()) : null);
+        if (!Double.isNaN(rates.lag.getValue())) {
+            pipeline.setLag(series(rates.lag));
+        }
+        pipeline.setErrorRatio(ratio(errors, consumed));
+
+        Map<String, RateSeries> timer = configured.getProcessingTime() != null
+                ? rates.metrics.get(configured.getProcessingTime()) : null;
+        if (timer != null) {
+            RateSeries total = timer.containsKey("TOTAL_TIME") ? timer.get("TOTAL_TIME") : timer.get("TOTAL");
+            pipeline.setProcessingTime(ratio(total, timer.get("COUNT")));
+        }
+        return pipeline;
+    }
+
+    private Series series(RateSeries rateSeries) {
+        Series series = new Series();
+        series.setValue(finite(rateSeries.getValue()));
+        series.setRate(finite(rateSeries.getRate()));
+        series.setAverages(averages(rateSeries, null));
+        if (rateSeries.isCounter()) {
+            series.setResets(rateSeries.getResets());
+        }
+        return series;
+    }
+
+    /**
+     * Increase of one counter per increase of another, over the last poll and per averaging window.
+     */
+    private Series ratio(RateSeries numerator, RateSeries denominator) {
+        if (numerator == null || denominator == null || !(denominator.getDelta() > 0)) {
+            return null;
+        }
+        Series series = new Series();
+        series.setValue(finite(numerator.getDelta() / denominator.getDelta()));
+        series.setAverages(averages(numerator, denominator));
+        return series;
+    }
+
+    private Map<String, Double> averages(RateSeries series, RateSeries divisor) {
+        Map<String, Double> averages = new LinkedHashMap<>();
+        for (int i = 0; i < labels.length; i++) {
+            double average = series.getAverage(i);
+            if (divisor != null) {
+                double denominator = divisor.getAverage(i);
+                average = denominator > 0 ? average / denominator : Double.NaN;
+            }
+            Double value = finite(average);
+            if (value != null) {
+                averages.put(labels[i], value);
+            }
+        }
+        return averages.isEmpty() ? null : averages;
+    }
+
+    /**
+     * The series a pipeline metric is read from: its {@code COUNT}, else its {@code VALUE}.
+     */
+    private static RateSeries primary(ServiceRates rates, String metric) {
+        Map<String, RateSeries> statistics = metric != null ? rates.metrics.get(metric) : null;
+        if (statistics == null) {
+            return null;
+        }
+        RateSeries count = statistics.get("COUNT");
+        return count != null ? count : statistics.get(VALUE);
+    }
+
+    private static boolean isPipelineCounter(Target.Pipeline pipeline, String metric) {
+        return metric.equals(pipeline.getConsumed()) || metric.equals(pipeline.getSaved())
+                || metric.equals(pipeline.getErrors());
+    }
+
+    private static Double finite(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? null : value;
+    }
+
+    static String label(long windowMillis) {
+        if (windowMillis % 3_600_000 == 0) {
+            return windowMillis / 3_600_000 + "h";
+        }
+        if (windowMillis % 60_000 == 0) {
+            return windowMillis / 60_000 + "m";
+        }
+        if (windowMillis % 1000 == 0) {
+            return windowMillis / 1000 + "s";
+        }
+        return windowMillis + "ms";
+    }
+
+    private static final class ServiceRates {
+        private final Map<String, Map<String, RateSeries>> metrics = new HashMap<>();
+        private final RateSeries lag;
+        private long updatedAt = Long.MIN_VALUE;
+
+        ServiceRates(long[] windows) {
+            this.lag = new RateSeries(false, windows);
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.example.demo.metrics;
+
+import com.example.demo.metrics.ScrapedMetrics.Family;
+import com.example.demo.metrics.ScrapedMetrics.Sample;
+import com.example.demo.metrics.ScrapedMetrics.Type;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming parser for the Prometheus text exposition format (and the compatible subset of
+ * OpenMetrics). It works directly on the response bytes: metric names, label names and label
+ * values are looked up in a cache keyed by their bytes, so repeated scrapes of the same target
+ * allocate no new strings for them, and plain decimal values are parsed without a string.
+ *
+ * <p>Instances keep that state between scrapes and are not thread-safe; use one per target.
+ */
+public class PrometheusTextParser {
+
+    private static final String[] NO_LABELS = new String[0];
+    private static final String[] COUNTER_SUFFIXES = {"_total", "_created"};
+    private static final String[] SUMMARY_SUFFIXES = {"_count", "_sum", "_created"};
+    private static final String[] HISTOGRAM_SUFFIXES = {"_bucket", "_count", "_sum", "_created"};
+    private static final String[] NO_SUFFIXES = new String[0];
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final StringCache strings = new StringCache(8192);
+    private String[] labelScratch = new String[32];
+    private byte[] data = new byte[64 * 1024];
+    private int limit;
+    private int pos;
+
+    /**
+     * Parses and releases {@code buffer}.
+     */
+    public ScrapedMetrics parse(DataBuffer buffer) {
+        try {
+            int length = buffer.readableByteCount();
+            if (data.length < length) {
+                data = new byte[Math.max(length, data.length * 2)];
+            }
+            buffer.read(data, 0, length);
+            return parse(data, length);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    ScrapedMetrics parse(byte[] input, int length) {
+        this.data = input;
+        this.limit = length;
+        this.pos = 0;
+
+        List<Family> families = new ArrayList<>();
+        FamilyBuilder current = null;
+        while (pos < limit) {
+            skipBlanks();
+            if (pos >= limit) {
+                break;
+            }
+            byte b = data[pos];
+            if (b == '\n' || b == '\r') {
+                pos++;
+            } else if (b == '#') {
+                current = comment(current, families);
+            } else {
+                current = sample(current, families);
+            }
+        }
+        if (current != null) {
+            families.add(current.build());
+        }
+        return new ScrapedMetrics(System.currentTimeMillis(), families);
+    }
+
+    private FamilyBuilder comment(FamilyBuilder current, List<Family> families) {
+        pos++;
+        skipBlanks();
+        boolean help = matches("HELP ");
+        boolean type = !help && matches("TYPE ");
+        if (!help && !type) {
+            skipLine();
+            return current;
+        }
+        pos += 5;
+        skipBlanks();
+        int nameStart = pos;
+        String name = readName();
+        int nameEnd = pos;
+        skipBlanks();
+
+        if (current == null || !name.equals(current.declaredName)) {
+            if (current != null) {
+                families.add(current.build());
+            }
+            current = new FamilyBuilder(name);
+        }
+        if (help) {
+            current.help = readHelp();
+        } else {
+            Type familyType = typeOf(readName());
+            if (familyType == Type.COUNTER && name.endsWith("_total")) {
+                // The 0.0.4 format declares counters with their _total suffix, OpenMetrics without
+                current.name = strings.get(data, nameStart, nameEnd - "_total".length());
+            }
+            current.setType(familyType);
+            skipLine();
+        }
+        return current;
+    }
+
+    private FamilyBuilder sample(FamilyBuilder current, List<Family> families) {
+        String name = readName();
+        if (name.isEmpty()) {
+            // Not a sample line we understand
+            skipLine();
+            return current;
+        }
+        String suffix = current != null ? current.suffixOf(name) : null;
+        if (suffix == null) {
+            if (current != null) {
+                families.add(current.build());
+            }
+            current = new FamilyBuilder(name);
+            suffix = "";
+        }
+
+        skipBlanks();
+        String[] labels = NO_LABELS;
+        if (pos < limit && data[pos] == '{') {
+            labels = readLabels();
+        }
+        skipBlanks();
+        double value = readValue();
+        skipLine();
+        current.samples.add(new Sample(suffix, labels, value));
+        return current;
+    }
+
+    private String[] readLabels() {
+        pos++;
+        int count = 0;
+        while (pos < limit) {
+            skipBlanks();
+            if (data[pos] == '}') {
+                pos++;
+                break;
+            }
+            String labelName = readName();
+            skipBlanks();
+            if (labelName.isEmpty() || pos >= limit || data[pos] != '=') {
+                throw new IllegalStateException("Malformed label set at byte " + pos);
+            }
+            pos++;
+            skipBlanks();
+            if (pos >= limit || data[pos] != '"') {
+                throw new IllegalStateException("Malformed label value at byte " + pos);
+            }
+            pos++;
+            String labelValue = readQuoted();
+
+            if (count + 2 > labelScratch.length) {
+                labelScratch = Arrays.copyOf(labelScratch, labelScratch.length * 2);
+            }
+            labelScratch[count++] = labelName;
+            labelScratch[count++] = labelValue;
+
+            skipBlanks();
+            if (pos < limit && data[pos] == ',') {
+                pos++;
+            }
+        }
+        return count == 0 ? NO_LABELS : Arrays.copyOf(labelScratch, count);
+    }
+
+    private String readName() {
+        int start = pos;
+        while (pos < limit && isNameChar(data[pos])) {
+            pos++;
+        }
+        return strings.get(data, start, pos);
+    }
+
+    private String readQuoted() {
+        int start = pos;
+        boolean escaped = false;
+        while (pos < limit && data[pos] != '"') {
+            if (data[pos] == '\\') {
+                escaped = true;
+                pos++;
+            }
+            pos++;
+        }
+        int end = Math.min(pos, limit);
+        pos = end + 1;
+        return escaped ? unescape(start, end) : strings.get(data, start, end);
+    }
+
+    private String readHelp() {
+        int start = pos;
+        boolean escaped = false;
+        while (pos < limit && data[pos] != '\n') {
+            if (data[pos] == '\\') {
+                escaped = true;
+            }
+            pos++;
+        }
+        int end = pos > start && data[pos - 1] == '\r' ? pos - 1 : pos;
+        return escaped ? unescape(start, end) : strings.get(data, start, end);
+    }
+
+    private String unescape(int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        String raw = new String(data, start, end - start, StandardCharsets.UTF_8);
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == '\\' && i + 1 < raw.length()) {
+                char next = raw.charAt(++i);
+                builder.append(next == 'n' ? '\n' : next);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private double readValue() {
+        int start = pos;
+        while (pos < limit && data[pos] != ' ' && data[pos] != '\t' && data[pos] != '\n' && data[pos] != '\r') {
+            pos++;
+        }
+        return parseDouble(start, pos);
+    }
+
+    /**
+     * Parses plain decimals exactly without allocating (the mantissa fits in 53 bits and the
+     * power of ten is exactly representable); anything else goes through {@link Double#parseDouble}.
+     */
+    private double parseDouble(int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (data[i] == '-' || data[i] == '+')) {
+            negative = data[i] == '-';
+            i++;
+        }
+        if (end - i == 3 && (data[i] | 0x20) == 'i' && (data[i + 1] | 0x20) == 'n' && (data[i + 2] | 0x20) == 'f') {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean fraction = false;
+        boolean fast = i < end;
+        for (; i < end && fast; i++) {
+            byte b = data[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa > 1L << 53) {
+                    fast = false;
+                    break;
+                }
+                digits++;
+                if (fraction) {
+                    exponent--;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else if ((b == 'e' || b == 'E') && digits > 0) {
+                int exponentStart = ++i;
+                boolean negativeExponent = false;
+                if (i < end && (data[i] == '-' || data[i] == '+')) {
+                    negativeExponent = data[i] == '-';
+                    i++;
+                }
+                int value = 0;
+                if (i == end || end - i > 3) {
+                    fast = false;
+                    break;
+                }
+                for (; i < end; i++) {
+                    if (data[i] < '0' || data[i] > '9') {
+                        fast = false;
+                        break;
+                    }
+                    value = value * 10 + (data[i] - '0');
+                }
+                exponent += negativeExponent ? -value : value;
+                fast = fast && i > exponentStart;
+                break;
+            } else {
+                fast = false;
+            }
+        }
+        if (fast && digits > 0 && Math.abs(exponent) < POWERS_OF_TEN.length) {
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(new String(data, start, end - start, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid sample value at byte " + start, e);
+        }
+    }
+
+    private boolean matches(String token) {
+        if (limit - pos < token.length()) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (data[pos + i] != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipBlanks() {
+        while (pos < limit && (data[pos] == ' ' || data[pos] == '\t')) {
+            pos++;
+        }
+    }
+
+    private void skipLine() {
+        while (pos < limit && data[pos] != '\n') {
+            pos++;
+        }
+        pos++;
+    }
+
+    private static boolean isNameChar(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '_' || b == ':';
+    }
+
+    private static Type typeOf(String type) {
+        return switch (type) {
+            case "counter" -> Type.COUNTER;
+            case "gauge" -> Type.GAUGE;
+            case "summary" -> Type.SUMMARY;
+            case "histogram" -> Type.HISTOGRAM;
+            default -> Type.UNTYPED;
+        };
+    }
+
+    private static final class FamilyBuilder {
+        private final String declaredName;
+        private String name;
+        private Type type = Type.UNTYPED;
+        private String help;
+        private String[] suffixes = NO_SUFFIXES;
+        private final List<Sample> samples = new ArrayList<>();
+
+        FamilyBuilder(String declaredName) {
+            this.declaredName = declaredName;
+            this.name = declaredName;
+        }
+
+        void setType(Type type) {
+            this.type = type;
+            this.suffixes = switch (type) {
+                case COUNTER -> COUNTER_SUFFIXES;
+                case SUMMARY -> SUMMARY_SUFFIXES;
+                case HISTOGRAM -> HISTOGRAM_SUFFIXES;
+                default -> NO_SUFFIXES;
+            };
+        }
+
+        /**
+         * The suffix of a sample name within this family, or {@code null} if it is not part of it.
+         */
+        String suffixOf(String sampleName) {
+            if (sampleName.equals(name)) {
+                return "";
+            }
+            if (sampleName.length() <= name.length() || !sampleName.startsWith(name)) {
+                return null;
+            }
+            for (String suffix : suffixes) {
+                if (sampleName.length() == name.length() + suffix.length() && sampleName.endsWith(suffix)) {
+                    return suffix;
+                }
+            }
+            return null;
+        }
+
+        Family build() {
+            return new Family(name, type, help, List.copyOf(samples));
+        }
+    }
+
+    /**
+     * Fixed-size, open-addressing cache from byte ranges to strings. When full, strings are
+     * created without being cached, so memory stays bounded for targets with churning labels.
+     */
+    private static final class StringCache {
+        private static final int MAX_PROBES = 8;
+
+        private final String[] values;
+        private final int[] hashes;
+        private final int mask;
+
+        StringCache(int capacity) {
+            this.values = new String[capacity];
+            this.hashes = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        String get(byte[] bytes, int start, int end) {
+            if (start == end) {
+                return "";
+            }
+            int hash = 1;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + bytes[i];
+            }
+            int index = (hash ^ (hash >>> 16)) & mask;
+            for (int probe = 0; probe < MAX_PROBES; probe++, index = (index + 1) & mask) {
+                String value = values[index];
+                if (value == null) {
+                    value = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+                    values[index] = value;
+                    hashes[index] = hash;
+                    return value;
+                }
+                if (hashes[index] == hash && sameAscii(value, bytes, start, end)) {
+                    return value;
+                }
+            }
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        private static boolean sameAscii(String value, byte[] bytes, int start, int end) {
+            if (value.length() != end - start) {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) != bytes[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Derived state of one measurement of one remote metric, kept in primitives so that a poll
+ * allocates nothing. A counter yields its increase per second since the previous sample; a
+ * counter that goes down was reset, and its new value counts as the increase. A gauge yields
+ * its change per second. Every sample also updates one exponentially weighted moving average
+ * per window, of the rate for counters and of the value for gauges, weighted by the time since
+ * the previous sample so that irregular polls average correctly.
+ */
+final class RateSeries {
+
+    private final boolean counter;
+    private final long[] windows;
+    private final double[] averages;
+    private double value = Double.NaN;
+    private double delta = Double.NaN;
+    private double rate = Double.NaN;
+    private long updatedAt;
+    private long resets;
+
+    RateSeries(boolean counter, long[] windows) {
+        this.counter = counter;
+        this.windows = windows;
+        this.averages = new double[windows.length];
+        Arrays.fill(averages, Double.NaN);
+    }
+
+    /**
+     * Records {@code sample} taken at {@code now} (epoch millis). Samples that are not newer than
+     * the previous one are ignored.
+     */
+    void update(long now, double sample) {
+        if (Double.isNaN(value)) {
+            value = sample;
+            updatedAt = now;
+            if (!counter) {
+                Arrays.fill(averages, sample);
+            }
+            return;
+        }
+        long elapsed = now - updatedAt;
+        if (elapsed <= 0) {
+            return;
+        }
+
+        if (counter && sample < value) {
+            resets++;
+            delta = sample;
+        } else {
+            delta = sample - value;
+        }
+        rate = delta * 1000.0 / elapsed;
+        value = sample;
+        updatedAt = now;
+
+        double averaged = counter ? rate : sample;
+        for (int i = 0; i < windows.length; i++) {
+            if (Double.isNaN(averages[i])) {
+                averages[i] = averaged;
+            } else {
+                double alpha = 1 - Math.exp(-(double) elapsed / windows[i]);
+                averages[i] += alpha * (averaged - averages[i]);
+            }
+        }
+    }
+
+    boolean isCounter() {
+        return counter;
+    }
+
+    double getValue() {
+        return value;
+    }
+
+    /**
+     * Increase (counters) or change (gauges) between the last two samples; NaN until there are two.
+     */
+    double getDelta() {
+        return delta;
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    double getAverage(int window) {
+        return averages[window];
+    }
+
+    long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    long getResets() {
+        return resets;
+    }
+}
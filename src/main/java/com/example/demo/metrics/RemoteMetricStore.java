@@ -0,0 +1,147 @@
+package com.example.demo.metrics;
+
+import com.example.demo.metrics.ScrapedMetrics.Family;
+import com.example.demo.metrics.ScrapedMetrics.Sample;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Latest Prometheus scrape of every remote service. Each scrape replaces the previous one
+ * atomically; readers always see a complete scrape.
+ */
+@Component
+public class RemoteMetricStore {
+
+    private final ConcurrentMap<String, ScrapedMetrics> latest = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, PrometheusTextParser> parsers = new ConcurrentHashMap<>();
+
+    /**
+     * Parses a scrape of {@code serviceName} and makes it the current one.
+     */
+    public ScrapedMetrics update(String serviceName, DataBuffer body) {
+        PrometheusTextParser parser = parsers.computeIfAbsent(serviceName, name -> new PrometheusTextParser());
+        ScrapedMetrics metrics;
+        synchronized (parser) {
+            metrics = parser.parse(body);
+        }
+        latest.put(serviceName, metrics);
+        return metrics;
+    }
+
+    /**
+     * Forgets the scrape of {@code serviceName}, e.g. once another replica scrapes it.
+     */
+    public void remove(String serviceName) {
+        latest.remove(serviceName);
+    }
+
+    public ScrapedMetrics get(String serviceName) {
+        return latest.get(serviceName);
+    }
+
+    public Map<String, ScrapedMetrics> getAll() {
+        return Collections.unmodifiableMap(latest);
+    }
+
+    /**
+     * The scrape of {@code serviceName} if it is at most {@code maxAgeMillis} old, else
+     * {@code null}.
+     */
+    public ScrapedMetrics getRecent(String serviceName, long maxAgeMillis) {
+        ScrapedMetrics metrics = latest.get(serviceName);
+        if (metrics == null || System.currentTimeMillis() - metrics.getScrapedAt() > maxAgeMillis) {
+            return null;
+        }
+        return metrics;
+    }
+
+    /**
+     * Describes a Micrometer meter the way {@code /actuator/metrics/{name}} would, from one
+     * scrape. Returns {@code null} when the meter is not in it.
+     */
+    public Map<String, Object> describe(ScrapedMetrics metrics, String metricName) {
+
+        // Micrometer's Prometheus naming: dots become underscores, timers gain a _seconds unit
+        String base = metricName.replace('.', '_').replace('-', '_');
+        Family family = metrics.getFamily(base);
+        String maxName = base + "_max";
+        if (family == null) {
+            family = metrics.getFamily(base + "_seconds");
+            maxName = base + "_seconds_max";
+        }
+        if (family == null) {
+            return null;
+        }
+        Family max = metrics.getFamily(maxName);
+
+        List<Map<String, Object>> measurements = new ArrayList<>();
+        Map<String, Set<String>> tags = new LinkedHashMap<>();
+        switch (family.type()) {
+            case COUNTER -> measurements.add(measurement("COUNT", sum(family, "", tags) + sum(family, "_total", tags)));
+            case SUMMARY, HISTOGRAM -> {
+                measurements.add(measurement("COUNT", sum(family, "_count", tags)));
+                measurements.add(measurement(family.name().endsWith("_seconds") ? "TOTAL_TIME" : "TOTAL",
+                        sum(family, "_sum", tags)));
+                if (max != null) {
+                    measurements.add(measurement("MAX", max(max)));
+                }
+            }
+            default -> measurements.add(measurement("VALUE", sum(family, "", tags)));
+        }
+
+        List<Map<String, Object>> availableTags = new ArrayList<>();
+        tags.forEach((tag, values) -> {
+            Map<String, Object> availableTag = new LinkedHashMap<>();
+            availableTag.put("tag", tag);
+            availableTag.put("values", new ArrayList<>(values));
+            availableTags.add(availableTag);
+        });
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("name", metricName);
+        description.put("description", family.help());
+        description.put("measurements", measurements);
+        description.put("availableTags", availableTags);
+        return description;
+    }
+
+    private static double sum(Family family, String suffix, Map<String, Set<String>> tags) {
+        double sum = 0;
+        for (Sample sample : family.samples()) {
+            if (!sample.suffix().equals(suffix)) {
+                continue;
+            }
+            sum += sample.value();
+            String[] labels = sample.labels();
+            for (int i = 0; i < labels.length; i += 2) {
+                tags.computeIfAbsent(labels[i], tag -> new LinkedHashSet<>()).add(labels[i + 1]);
+            }
+        }
+        return sum;
+    }
+
+    private static double max(Family family) {
+        double max = 0;
+        for (Sample sample : family.samples()) {
+            max = Math.max(max, sample.value());
+        }
+        return max;
+    }
+
+    private static Map<String, Object> measurement(String statistic, double value) {
+        Map<String, Object> measurement = new LinkedHashMap<>();
+        measurement.put("statistic", statistic);
+        measurement.put("value", value);
+        return measurement;
+    }
+}
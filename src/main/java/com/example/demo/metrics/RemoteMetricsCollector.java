@@ -0,0 +1,285 @@
+package com.example.demo.metrics;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.metrics.ScrapedMetrics.Family;
+import com.example.demo.metrics.ScrapedMetrics.Sample;
+import com.example.demo.metrics.ScrapedMetrics.Type;
+import io.prometheus.metrics.model.registry.MultiCollector;
+import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import io.prometheus.metrics.model.snapshots.ClassicHistogramBuckets;
+import io.prometheus.metrics.model.snapshots.CounterSnapshot;
+import io.prometheus.metrics.model.snapshots.GaugeSnapshot;
+import io.prometheus.metrics.model.snapshots.HistogramSnapshot;
+import io.prometheus.metrics.model.snapshots.Labels;
+import io.prometheus.metrics.model.snapshots.MetricSnapshot;
+import io.prometheus.metrics.model.snapshots.MetricSnapshots;
+import io.prometheus.metrics.model.snapshots.PrometheusNaming;
+import io.prometheus.metrics.model.snapshots.Quantile;
+import io.prometheus.metrics.model.snapshots.Quantiles;
+import io.prometheus.metrics.model.snapshots.SummarySnapshot;
+import io.prometheus.metrics.model.snapshots.UnknownSnapshot;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Re-exposes the scraped remote metrics through this application's own
+ * {@code /actuator/prometheus} endpoint. Every family is renamed with the configured prefix
+ * and every sample gains a {@code service} label; a remote {@code service} label is kept as
+ * {@code exported_service}, as Prometheus itself does.
+ */
+@Component
+public class RemoteMetricsCollector implements MultiCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteMetricsCollector.class);
+
+    private static final String SERVICE_LABEL = "service";
+    private static final String EXPORTED_SERVICE_LABEL = "exported_service";
+
+    private final RemoteMetricStore remoteMetricStore;
+    private final ServiceProperties.Scrape properties;
+    private final ObjectProvider<PrometheusRegistry> prometheusRegistry;
+
+    public RemoteMetricsCollector(RemoteMetricStore remoteMetricStore, ServiceProperties serviceProperties,
+                                  ObjectProvider<PrometheusRegistry> prometheusRegistry) {
+        this.remoteMetricStore = remoteMetricStore;
+        this.properties = serviceProperties.getScrape();
+        this.prometheusRegistry = prometheusRegistry;
+    }
+
+    @PostConstruct
+    public void register() {
+        if (properties.isEnabled()) {
+            prometheusRegistry.ifAvailable(registry -> registry.register(this));
+        }
+    }
+
+    @Override
+    public MetricSnapshots collect() {
+        // Families of the same name from different services are merged into one snapshot
+        Map<String, Merged> merged = new LinkedHashMap<>();
+        new TreeMap<>(remoteMetricStore.getAll()).forEach((serviceName, metrics) -> {
+            for (Family family : metrics.getFamilies()) {
+                String name = properties.getPrefix() + family.name();
+                if (!PrometheusNaming.isValidMetricName(name)) {
+                    // e.g. a gauge ending in _info or _bucket, which the exposition format reserves
+                    continue;
+                }
+                Merged target = merged.computeIfAbsent(name, n -> new Merged(n, family.type(), family.help()));
+                if (target.type != family.type()) {
+                    continue;
+                }
+                try {
+                    target.add(serviceName, family);
+                } catch (IllegalArgumentException e) {
+                    logger.debug("Skipping remote metric {} of {}: {}", name, serviceName, e.getMessage());
+                }
+            }
+        });
+
+        MetricSnapshots.Builder snapshots = MetricSnapshots.builder();
+        for (Merged family : merged.values()) {
+            try {
+                snapshots.metricSnapshot(family.build());
+            } catch (IllegalArgumentException e) {
+                logger.debug("Skipping remote metric {}: {}", family.name, e.getMessage());
+            }
+        }
+        return snapshots.build();
+    }
+
+    private static Labels labels(String serviceName, String[] remote, String excluded) {
+        List<String> names = new ArrayList<>(remote.length / 2 + 1);
+        List<String> values = new ArrayList<>(remote.length / 2 + 1);
+        for (int i = 0; i < remote.length; i += 2) {
+            if (remote[i].equals(excluded)) {
+                continue;
+            }
+            names.add(remote[i].equals(SERVICE_LABEL) ? EXPORTED_SERVICE_LABEL : remote[i]);
+            values.add(remote[i + 1]);
+        }
+        names.add(SERVICE_LABEL);
+        values.add(serviceName);
+        return Labels.of(names, values);
+    }
+
+    private static final class Merged {
+        private final String name;
+        private final Type type;
+        private final String help;
+        private final List<CounterSnapshot.CounterDataPointSnapshot> counters = new ArrayList<>();
+        private final List<GaugeSnapshot.GaugeDataPointSnapshot> gauges = new ArrayList<>();
+        private final List<UnknownSnapshot.UnknownDataPointSnapshot> unknowns = new ArrayList<>();
+        private final List<SummarySnapshot.SummaryDataPointSnapshot> summaries = new ArrayList<>();
+        private final List<HistogramSnapshot.HistogramDataPointSnapshot> histograms = new ArrayList<>();
+
+        Merged(String name, Type type, String help) {
+            this.name = name;
+            this.type = type;
+            this.help = help;
+        }
+
+        void add(String serviceName, Family family) {
+            switch (type) {
+                case COUNTER -> {
+                    for (Sample sample : family.samples()) {
+                        if (!sample.suffix().equals("_created")) {
+                            counters.add(CounterSnapshot.CounterDataPointSnapshot.builder()
+                                    .labels(labels(serviceName, sample.labels(), null))
+                                    .value(sample.value())
+                                    .build());
+                        }
+                    }
+                }
+                case GAUGE -> {
+                    for (Sample sample : family.samples()) {
+                        gauges.add(GaugeSnapshot.GaugeDataPointSnapshot.builder()
+                                .labels(labels(serviceName, sample.labels(), null))
+                                .value(sample.value())
+                                .build());
+                    }
+                }
+                case SUMMARY -> addSummaries(serviceName, family);
+                case HISTOGRAM -> addHistograms(serviceName, family);
+                default -> {
+                    for (Sample sample : family.samples()) {
+                        unknowns.add(UnknownSnapshot.UnknownDataPointSnapshot.builder()
+                                .labels(labels(serviceName, sample.labels(), null))
+                                .value(sample.value())
+                                .build());
+                    }
+                }
+            }
+        }
+
+        private void addSummaries(String serviceName, Family family) {
+            Map<Labels, Distribution> series = new LinkedHashMap<>();
+            for (Sample sample : family.samples()) {
+                Distribution distribution = series.computeIfAbsent(
+                        labels(serviceName, sample.labels(), "quantile"), labels -> new Distribution());
+                switch (sample.suffix()) {
+                    case "_count" -> distribution.count = sample.value();
+                    case "_sum" -> distribution.sum = sample.value();
+                    case "" -> {
+                        String quantile = sample.label("quantile");
+                        if (quantile != null) {
+                            distribution.bounds.add(Double.parseDouble(quantile));
+                            distribution.values.add(sample.value());
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+            series.forEach((labels, distribution) -> {
+                List<Quantile> quantiles = new ArrayList<>(distribution.bounds.size());
+                for (int i = 0; i < distribution.bounds.size(); i++) {
+                    quantiles.add(new Quantile(distribution.bounds.get(i), distribution.values.get(i)));
+                }
+                summaries.add(SummarySnapshot.SummaryDataPointSnapshot.builder()
+                        .labels(labels)
+                        .count((long) distribution.count)
+                        .sum(distribution.sum)
+                        .quantiles(Quantiles.of(quantiles))
+                        .build());
+            });
+        }
+
+        private void addHistograms(String serviceName, Family family) {
+            Map<Labels, Distribution> series = new LinkedHashMap<>();
+            for (Sample sample : family.samples()) {
+                Distribution distribution = series.computeIfAbsent(
+                        labels(serviceName, sample.labels(), "le"), labels -> new Distribution());
+                switch (sample.suffix()) {
+                    case "_count" -> distribution.count = sample.value();
+                    case "_sum" -> distribution.sum = sample.value();
+                    case "_bucket" -> {
+                        String le = sample.label("le");
+                        if (le != null) {
+                            distribution.bounds.add(parseBound(le));
+                            distribution.values.add(sample.value());
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+            series.forEach((labels, distribution) -> {
+                // The text format has cumulative bucket counts, the snapshot model per-bucket ones
+                int size = distribution.bounds.size();
+                boolean hasInf = size > 0 && distribution.bounds.get(size - 1) == Double.POSITIVE_INFINITY;
+                double[] bounds = new double[hasInf ? size : size + 1];
+                long[] counts = new long[bounds.length];
+                long previous = 0;
+                for (int i = 0; i < size; i++) {
+                    long cumulative = distribution.values.get(i).longValue();
+                    bounds[i] = distribution.bounds.get(i);
+                    counts[i] = Math.max(0, cumulative - previous);
+                    previous = Math.max(previous, cumulative);
+                }
+                if (!hasInf) {
+                    bounds[size] = Double.POSITIVE_INFINITY;
+                    counts[size] = Math.max(0, (long) distribution.count - previous);
+                }
+                histograms.add(HistogramSnapshot.HistogramDataPointSnapshot.builder()
+                        .labels(labels)
+                        .sum(distribution.sum)
+                        .classicHistogramBuckets(ClassicHistogramBuckets.of(bounds, counts))
+                        .build());
+            });
+        }
+
+        MetricSnapshot build() {
+            return switch (type) {
+                case COUNTER -> {
+                    CounterSnapshot.Builder builder = CounterSnapshot.builder().name(name).help(help);
+                    counters.forEach(builder::dataPoint);
+                    yield builder.build();
+                }
+                case GAUGE -> {
+                    GaugeSnapshot.Builder builder = GaugeSnapshot.builder().name(name).help(help);
+                    gauges.forEach(builder::dataPoint);
+                    yield builder.build();
+                }
+                case SUMMARY -> {
+                    SummarySnapshot.Builder builder = SummarySnapshot.builder().name(name).help(help);
+                    summaries.forEach(builder::dataPoint);
+                    yield builder.build();
+                }
+                case HISTOGRAM -> {
+                    HistogramSnapshot.Builder builder = HistogramSnapshot.builder().name(name).help(help);
+                    histograms.forEach(builder::dataPoint);
+                    yield builder.build();
+                }
+                default -> {
+                    UnknownSnapshot.Builder builder = UnknownSnapshot.builder().name(name).help(help);
+                    unknowns.forEach(builder::dataPoint);
+                    yield builder.build();
+                }
+            };
+        }
+
+        private static double parseBound(String le) {
+            return switch (le) {
+                case "+Inf", "Inf" -> Double.POSITIVE_INFINITY;
+                case "-Inf" -> Double.NEGATIVE_INFINITY;
+                default -> Double.parseDouble(le);
+            };
+        }
+    }
+
+    private static final class Distribution {
+        private double count;
+        private double sum;
+        private final List<Double> bounds = new ArrayList<>();
+        private final List<Double> values = new ArrayList<>();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.metrics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One parsed Prometheus scrape of a remote service. Immutable once built, so readers can use it
+ * while the next scrape is being parsed.
+ */
+public final class ScrapedMetrics {
+
+    private final long scrapedAt;
+    private final List<Family> families;
+    private final Map<String, Family> familiesByName;
+    private final int sampleCount;
+
+    ScrapedMetrics(long scrapedAt, List<Family> families) {
+        this.scrapedAt = scrapedAt;
+        this.families = families;
+        this.familiesByName = new HashMap<>(families.size() * 2);
+        int samples = 0;
+        for (Family family : families) {
+            familiesByName.putIfAbsent(family.name(), family);
+            samples += family.samples().size();
+        }
+        this.sampleCount = samples;
+    }
+
+    public long getScrapedAt() {
+        return scrapedAt;
+    }
+
+    public List<Family> getFamilies() {
+        return families;
+    }
+
+    public Family getFamily(String name) {
+        return familiesByName.get(name);
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public enum Type {
+        COUNTER, GAUGE, SUMMARY, HISTOGRAM, UNTYPED
+    }
+
+    /**
+     * A metric family. Counter names are stored without their {@code _total} suffix, matching
+     * how the Prometheus client library names them.
+     */
+    public record Family(String name, Type type, String help, List<Sample> samples) {
+    }
+
+    /**
+     * A single sample. {@code suffix} is the part of the sample name after the family name
+     * (e.g. {@code _bucket}, or empty) and {@code labels} holds alternating names and values.
+     */
+    public record Sample(String suffix, String[] labels, double value) {
+
+        public String label(String name) {
+            for (int i = 0; i < labels.length; i += 2) {
+                if (labels[i].equals(name)) {
+                    return labels[i + 1];
+                }
+            }
+            return null;
+        }
+    }
+}
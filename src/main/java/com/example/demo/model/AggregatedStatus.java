@@ -1,37 +1,67 @@
 package com.example.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Status of all services. The counts and {@code overallStatus} are kept up to date as services
+ * are added, from their {@link HealthStatus}, so assembling a snapshot is one pass over the
+ * services; {@code overallStatus} can still be overridden once they are all added.
+ */
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"overallStatus", "timestamp", "services", "totalServices", "healthyServices",
+        "unhealthyServices"})
 public class AggregatedStatus {
-    private String overallStatus;
-    private LocalDateTime timestamp;
+    private HealthStatus overallStatus;
+    private long timestamp;
     private List<ServiceStatus> services;
     private int totalServices;
     private int healthyServices;
     private int unhealthyServices;
+    private int degradedServices;
 
     public AggregatedStatus() {
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = EpochNanos.now();
+    }
+
+    /**
+     * An empty aggregate with room for {@code expectedServices}, to be filled with
+     * {@link #addService}.
+     */
+    public AggregatedStatus(int expectedServices) {
+        this();
+        this.services = new ArrayList<>(expectedServices);
+        updateOverallStatus();
     }
 
     public String getOverallStatus() {
-        return overallStatus;
+        return overallStatus != null ? overallStatus.name() : null;
     }
 
     public void setOverallStatus(String overallStatus) {
+        this.overallStatus = overallStatus != null ? HealthStatus.of(overallStatus) : null;
+    }
+
+    @JsonIgnore
+    public HealthStatus getOverallStatusCode() {
+        return overallStatus;
+    }
+
+    public void setOverallStatusCode(HealthStatus overallStatus) {
         this.overallStatus = overallStatus;
     }
 
     public LocalDateTime getTimestamp() {
-        return timestamp;
+        return EpochNanos.toLocalDateTime(timestamp);
     }
 
     public void setTimestamp(LocalDateTime timestamp) {
-        this.timestamp = timestamp;
+        this.timestamp = timestamp != null ? EpochNanos.of(timestamp) : EpochNanos.now();
     }
 
     public List<ServiceStatus> getServices() {
@@ -40,16 +70,27 @@ public class AggregatedStatus {
 
     public void setServices(List<ServiceStatus> services) {
         this.services = services;
+        totalServices = 0;
+        healthyServices = 0;
+        unhealthyServices = 0;
+        degradedServices = 0;
         if (services != null) {
-            this.totalServices = services.size();
-            this.healthyServices = (int) services.stream()
-                    .filter(s -> "UP".equals(s.getStatus()))
-                    .count();
-            this.unhealthyServices = totalServices - healthyServices;
-            this.overallStatus = unhealthyServices == 0 ? "UP" : "DOWN";
+            for (ServiceStatus service : services) {
+                count(service);
+            }
+            updateOverallStatus();
         }
     }
 
+    /**
+     * Appends one service to an aggregate created with {@link #AggregatedStatus(int)}.
+     */
+    public void addService(ServiceStatus service) {
+        services.add(service);
+        count(service);
+        updateOverallStatus();
+    }
+
     public int getTotalServices() {
         return totalServices;
     }
@@ -73,5 +114,28 @@ public class AggregatedStatus {
     public void setUnhealthyServices(int unhealthyServices) {
         this.unhealthyServices = unhealthyServices;
     }
-}
 
+    private void count(ServiceStatus service) {
+        HealthStatus status = service.getStatusCode();
+        totalServices++;
+        // DEGRADED services still serve traffic, so they count as healthy
+        if (status != null && status.isHealthy()) {
+            healthyServices++;
+            if (status == HealthStatus.DEGRADED) {
+                degradedServices++;
+            }
+        } else {
+            unhealthyServices++;
+        }
+    }
+
+    private void updateOverallStatus() {
+        if (unhealthyServices > 0) {
+            overallStatus = HealthStatus.DOWN;
+        } else if (degradedServices > 0) {
+            overallStatus = HealthStatus.DEGRADED;
+        } else {
+            overallStatus = HealthStatus.UP;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.model;
+
+/**
+ * Kind of remote actuator check, as used in history and per-type routes
+ * (e.g. {@code ?type=health}).
+ */
+public enum CheckType {
+    HEALTH("health"),
+    INFO("info"),
+    METRICS("metrics"),
+    METRIC_DETAILS("metric-details"),
+    PROMETHEUS("prometheus");
+
+    private final String path;
+
+    CheckType(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public static CheckType fromPath(String path) {
+        for (CheckType type : values()) {
+            if (type.path.equalsIgnoreCase(path)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
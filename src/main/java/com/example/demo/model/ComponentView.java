@@ -0,0 +1,48 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * One component or one health path across all services, as answered by the component index.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ComponentView {
+    private String component;
+    private String path;
+    private Map<String, Object> services;
+
+    public ComponentView() {
+    }
+
+    public ComponentView(String component, String path, Map<String, Object> services) {
+        this.component = component;
+        this.path = path;
+        this.services = services;
+    }
+
+    public String getComponent() {
+        return component;
+    }
+
+    public void setComponent(String component) {
+        this.component = component;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Map<String, Object> getServices() {
+        return services;
+    }
+
+    public void setServices(Map<String, Object> services) {
+        this.services = services;
+    }
+}
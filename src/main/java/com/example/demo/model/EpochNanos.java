@@ -0,0 +1,40 @@
+package com.example.demo.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timestamps of the status model, as nanoseconds since the epoch in a {@code long}. Taking one
+ * allocates nothing; the {@link LocalDateTime} the JSON shows is only built when it is read.
+ */
+public final class EpochNanos {
+
+    private EpochNanos() {
+    }
+
+    /**
+     * The current time, at the millisecond precision of the system clock.
+     */
+    public static long now() {
+        return TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    }
+
+    public static long toMillis(long epochNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(epochNanos);
+    }
+
+    public static long ofMillis(long epochMillis) {
+        return TimeUnit.MILLISECONDS.toNanos(epochMillis);
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochNanos) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(0, epochNanos), ZoneId.systemDefault());
+    }
+
+    public static long of(LocalDateTime timestamp) {
+        Instant instant = timestamp.atZone(ZoneId.systemDefault()).toInstant();
+        return TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.model;
+
+/**
+ * The status of a check result. The standard actuator statuses and {@code DEGRADED} are
+ * constants so that results can be compared and counted without string handling; a status a
+ * target made up itself is {@link #CUSTOM}, and its name is kept next to it.
+ */
+public enum HealthStatus {
+
+    UP, DOWN, DEGRADED, OUT_OF_SERVICE, UNKNOWN, CUSTOM;
+
+    private static final HealthStatus[] STANDARD = {UP, DOWN, DEGRADED, OUT_OF_SERVICE, UNKNOWN};
+
+    /**
+     * The constant for {@code status}, ignoring case, or {@link #CUSTOM} when there is none.
+     * {@code null} is {@link #UNKNOWN}.
+     */
+    public static HealthStatus of(String status) {
+        if (status == null) {
+            return UNKNOWN;
+        }
+        for (HealthStatus candidate : STANDARD) {
+            if (candidate.name().equalsIgnoreCase(status)) {
+                return candidate;
+            }
+        }
+        return CUSTOM;
+    }
+
+    /**
+     * Whether a service in this state still serves traffic. DEGRADED services are slow or
+     * flapping, but up.
+     */
+    public boolean isHealthy() {
+        return this == UP || this == DEGRADED;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * A raw history sample (status and latency) or a downsampled bucket (sample counts,
+ * availability, mean and max latency).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HistoryPoint {
+    private Instant timestamp;
+    private String status;
+    private Long latencyMillis;
+    private Long maxLatencyMillis;
+    private Integer samples;
+    private Integer upSamples;
+    private Double availability;
+
+    public HistoryPoint() {
+    }
+
+    public HistoryPoint(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public void setLatencyMillis(Long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    public Long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    public void setMaxLatencyMillis(Long maxLatencyMillis) {
+        this.maxLatencyMillis = maxLatencyMillis;
+    }
+
+    public Integer getSamples() {
+        return samples;
+    }
+
+    public void setSamples(Integer samples) {
+        this.samples = samples;
+    }
+
+    public Integer getUpSamples() {
+        return upSamples;
+    }
+
+    public void setUpSamples(Integer upSamples) {
+        this.upSamples = upSamples;
+    }
+
+    public Double getAvailability() {
+        return availability;
+    }
+
+    public void setAvailability(Double availability) {
+        this.availability = availability;
+    }
+}
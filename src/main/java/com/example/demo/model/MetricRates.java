@@ -0,0 +1,166 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Rates and moving averages derived from a service's metric-detail checks. {@code metrics} is
+ * keyed by metric name and then by measurement statistic, e.g. {@code logs.consumed} and
+ * {@code COUNT}; {@code pipeline} is present when the target configures one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MetricRates {
+    private String serviceName;
+    private Instant updatedAt;
+    private Map<String, Map<String, Series>> metrics;
+    private Pipeline pipeline;
+
+    public MetricRates() {
+    }
+
+    public MetricRates(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Map<String, Map<String, Series>> getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(Map<String, Map<String, Series>> metrics) {
+        this.metrics = metrics;
+    }
+
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
+    public void setPipeline(Pipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * One derived value: the latest {@code value}, its change per second since the previous
+     * sample ({@code rate}), moving averages by window (of the rate for counters, of the value
+     * otherwise) and, for counters, how often the counter was seen to reset.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Series {
+        private Double value;
+        private Double rate;
+        private Map<String, Double> averages;
+        private Long resets;
+
+        public Double getValue() {
+            return value;
+        }
+
+        public void setValue(Double value) {
+            this.value = value;
+        }
+
+        public Double getRate() {
+            return rate;
+        }
+
+        public void setRate(Double rate) {
+            this.rate = rate;
+        }
+
+        public Map<String, Double> getAverages() {
+            return averages;
+        }
+
+        public void setAverages(Map<String, Double> averages) {
+            this.averages = averages;
+        }
+
+        public Long getResets() {
+            return resets;
+        }
+
+        public void setResets(Long resets) {
+            this.resets = resets;
+        }
+    }
+
+    /**
+     * Throughput of a consume-and-save pipeline. {@code lag} is consumed minus saved, with its
+     * growth per second as {@code rate}; {@code errorRatio} is errors per consumed record and
+     * {@code processingTime} the mean time per processed record, in the timer's base unit.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Pipeline {
+        private Double consumedRate;
+        private Double savedRate;
+        private Double errorRate;
+        private Series lag;
+        private Series errorRatio;
+        private Series processingTime;
+
+        public Double getConsumedRate() {
+            return consumedRate;
+        }
+
+        public void setConsumedRate(Double consumedRate) {
+            this.consumedRate = consumedRate;
+        }
+
+        public Double getSavedRate() {
+            return savedRate;
+        }
+
+        public void setSavedRate(Double savedRate) {
+            this.savedRate = savedRate;
+        }
+
+        public Double getErrorRate() {
+            return errorRate;
+        }
+
+        public void setErrorRate(Double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        public Series getLag() {
+            return lag;
+        }
+
+        public void setLag(Series lag) {
+            this.lag = lag;
+        }
+
+        public Series getErrorRatio() {
+            return errorRatio;
+        }
+
+        public void setErrorRatio(Series errorRatio) {
+            this.errorRatio = errorRatio;
+        }
+
+        public Series getProcessingTime() {
+            return processingTime;
+        }
+
+        public void setProcessingTime(Series processingTime) {
+            this.processingTime = processingTime;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ServiceHistory {
+    private String serviceName;
+    private String type;
+    private String resolution;
+    private Instant from;
+    private Instant to;
+    private List<HistoryPoint> points;
+
+    public ServiceHistory() {
+    }
+
+    public ServiceHistory(String serviceName, String type, String resolution, Instant from, Instant to) {
+        this.serviceName = serviceName;
+        this.type = type;
+        this.resolution = resolution;
+        this.from = from;
+        this.to = to;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(String resolution) {
+        this.resolution = resolution;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public List<HistoryPoint> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<HistoryPoint> points) {
+        this.points = points;
+    }
+}
@@ -1,26 +1,47 @@
 package com.example.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import java.time.LocalDateTime;
 import java.util.Map;
 
+/**
+ * One check result. Internally the status is a {@link HealthStatus} and the timestamp epoch
+ * nanoseconds, so creating, copying and comparing results allocates nothing beyond the object
+ * itself; the JSON shows the status name and a {@link LocalDateTime} as before. {@code details}
+ * may be shared between successive results of a target whose response did not change, so it
+ * must not be modified once set.
+ */
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"serviceName", "status", "timestamp", "details", "error", "latencyMillis", "observedStatus",
+        "flapping"})
 public class ServiceStatus {
     private String serviceName;
-    private String status;
-    private LocalDateTime timestamp;
+    private HealthStatus statusCode;
+    private String customStatus;
+    private long timestamp;
     private Map<String, Object> details;
     private String error;
+    private Long latencyMillis;
+    private String observedStatus;
+    private Boolean flapping;
 
     public ServiceStatus() {
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = EpochNanos.now();
+    }
+
+    public ServiceStatus(String serviceName, HealthStatus status) {
+        this.serviceName = serviceName;
+        this.statusCode = status;
+        this.timestamp = EpochNanos.now();
     }
 
     public ServiceStatus(String serviceName, String status) {
         this.serviceName = serviceName;
-        this.status = status;
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = EpochNanos.now();
+        setStatus(status);
     }
 
     public String getServiceName() {
@@ -32,18 +53,53 @@ public class ServiceStatus {
     }
 
     public String getStatus() {
-        return status;
+        if (statusCode == null) {
+            return null;
+        }
+        return statusCode == HealthStatus.CUSTOM ? customStatus : statusCode.name();
     }
 
+    /**
+     * Sets the status by name. Standard statuses are matched ignoring case; any other name is
+     * kept as a {@link HealthStatus#CUSTOM} status.
+     */
     public void setStatus(String status) {
-        this.status = status;
+        if (status == null) {
+            this.statusCode = null;
+            this.customStatus = null;
+            return;
+        }
+        this.statusCode = HealthStatus.of(status);
+        this.customStatus = statusCode == HealthStatus.CUSTOM ? status : null;
+    }
+
+    @JsonIgnore
+    public HealthStatus getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(HealthStatus statusCode) {
+        this.statusCode = statusCode;
+        this.customStatus = null;
     }
 
     public LocalDateTime getTimestamp() {
-        return timestamp;
+        return EpochNanos.toLocalDateTime(timestamp);
     }
 
     public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp != null ? EpochNanos.of(timestamp) : EpochNanos.now();
+    }
+
+    /**
+     * When the result was taken, in nanoseconds since the epoch.
+     */
+    @JsonIgnore
+    public long getTimestampNanos() {
+        return timestamp;
+    }
+
+    public void setTimestampNanos(long timestamp) {
         this.timestamp = timestamp;
     }
 
@@ -62,5 +118,28 @@ public class ServiceStatus {
     public void setError(String error) {
         this.error = error;
     }
-}
 
+    public Long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public void setLatencyMillis(Long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    public String getObservedStatus() {
+        return observedStatus;
+    }
+
+    public void setObservedStatus(String observedStatus) {
+        this.observedStatus = observedStatus;
+    }
+
+    public Boolean getFlapping() {
+        return flapping;
+    }
+
+    public void setFlapping(Boolean flapping) {
+        this.flapping = flapping;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass parsers for remote actuator responses. Each method reads straight from the
+ * response buffer with a streaming Jackson parser, materialises only the fields the checks use
+ * and releases the buffer when done.
+ */
+@Component
+public class ActuatorResponseParser {
+
+    private final ObjectMapper objectMapper;
+
+    public ActuatorResponseParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Parses an {@code /actuator/health} response. Only {@code status} is read unless
+     * {@code includeDetails} is set, in which case {@code components} (or the legacy
+     * {@code details}) is decoded as well; everything else is skipped without being materialised.
+     */
+    public HealthResponse parseHealth(DataBuffer buffer, boolean includeDetails) {
+        try (InputStream in = buffer.asInputStream(true);
+             JsonParser parser = objectMapper.createParser(in)) {
+            expectObject(parser);
+
+            String status = "UNKNOWN";
+            Map<String, Object> components = null;
+            Map<String, Object> details = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("status".equals(field) && value.isScalarValue()) {
+                    status = parser.getText();
+                } else if (includeDetails && "components".equals(field) && value == JsonToken.START_OBJECT) {
+                    components = readMap(parser);
+                } else if (includeDetails && "details".equals(field) && value == JsonToken.START_OBJECT) {
+                    details = readMap(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new HealthResponse(status, components != null ? components : details);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid JSON response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodes a JSON object response (e.g. {@code /actuator/info}) directly into a map.
+     */
+    public Map<String, Object> parseObject(DataBuffer buffer) {
+        try (InputStream in = buffer.asInputStream(true);
+             JsonParser parser = objectMapper.createParser(in)) {
+            expectObject(parser);
+            return readMap(parser);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid JSON response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Extracts the {@code names} array of an {@code /actuator/metrics} response, or {@code null}
+     * when the response has none.
+     */
+    public List<String> parseMetricNames(DataBuffer buffer) {
+        try (InputStream in = buffer.asInputStream(true);
+             JsonParser parser = objectMapper.createParser(in)) {
+            expectObject(parser);
+
+            List<String> names = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("names".equals(field) && value == JsonToken.START_ARRAY) {
+                    names = new ArrayList<>();
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        names.add(parser.getText());
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return names;
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid JSON response: " + e.getMessage(), e);
+        }
+    }
+
+    private void expectObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readMap(JsonParser parser) throws IOException {
+        return parser.readValueAs(Map.class);
+    }
+
+    public record HealthResponse(String status, Map<String, Object> details) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.service;
+
+import com.example.demo.model.CheckType;
+import com.example.demo.model.ServiceStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent identical checks: all callers asking for the same target and check
+ * type while a call is in flight share that call and its result. Successful results can
+ * additionally be served from cache for a short TTL; failures are never cached.
+ */
+@Component
+public class CheckCoalescer {
+
+    private final ConcurrentMap<Key, Mono<ServiceStatus>> checks = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the shared check for {@code serviceName} and {@code type}, creating it from
+     * {@code check} on first use. The supplied Mono is re-subscribed whenever the cached result
+     * has expired, so it must be lazy.
+     */
+    public Mono<ServiceStatus> share(String serviceName, CheckType type, Duration ttl,
+                                     Supplier<Mono<ServiceStatus>> check) {
+        return checks.computeIfAbsent(new Key(serviceName, type), key -> check.get()
+                .cache(status -> status.getError() == null ? ttl : Duration.ZERO,
+                        error -> Duration.ZERO,
+                        () -> Duration.ZERO));
+    }
+
+    private record Key(String serviceName, CheckType type) {
+    }
+}
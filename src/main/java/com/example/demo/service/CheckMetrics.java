@@ -0,0 +1,167 @@
+package com.example.demo.service;
+
+import com.example.demo.model.CheckType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.handler.timeout.TimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import javax.net.ssl.SSLException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation of remote checks. Every meter is tagged with the configured
+ * service name and a fixed endpoint ({@link CheckType} path, or {@code metric} for a single
+ * metric), so tag cardinality is bounded by the number of targets:
+ *
+ * <ul>
+ *     <li>{@code status.check}: a whole check as seen by callers, including retries and the circuit breaker</li>
+ *     <li>{@code status.remote.requests}: each outbound attempt, tagged with its outcome</li>
+ *     <li>{@code status.remote.first.byte}: time until the response headers arrived</li>
+ *     <li>{@code status.remote.parse}: time spent parsing response bodies</li>
+ *     <li>{@code status.remote.retries} and {@code status.remote.errors} (by {@code cause})</li>
+ * </ul>
+ *
+ * Histogram buckets and SLOs come from the {@code management.metrics.distribution.*} properties.
+ */
+@Component
+public class CheckMetrics {
+
+    static final String SUCCESS = "success";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MeterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    public CheckMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordCheck(String serviceName, CheckType type, boolean success, long nanos) {
+        timer("status.check", "Remote checks as seen by callers, including retries",
+                serviceName, type.getPath(), success ? SUCCESS : "failure")
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFirstByte(String serviceName, String endpoint, long nanos) {
+        timer("status.remote.first.byte", "Time until the response headers of an outbound request arrived",
+                serviceName, endpoint, null)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRetry(String serviceName, String endpoint) {
+        counter("status.remote.retries", serviceName, endpoint, null).increment();
+    }
+
+    /**
+     * Times one outbound attempt from subscription until it completes or fails, and counts
+     * failures by cause.
+     */
+    public <T> Mono<T> timeAttempt(String serviceName, String endpoint, Mono<T> attempt) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt
+                    .doOnSuccess(value -> recordAttempt(serviceName, endpoint, SUCCESS, start))
+                    .doOnError(e -> {
+                        String cause = cause(e);
+                        recordAttempt(serviceName, endpoint, cause, start);
+                        counter("status.remote.errors", serviceName, endpoint, cause).increment();
+                    });
+        });
+    }
+
+    /**
+     * Times a response parser; a parser that throws is counted as a {@code parse} error.
+     */
+    public <T> T timeParse(String serviceName, String endpoint, Supplier<T> parser) {
+        long start = System.nanoTime();
+        try {
+            return parser.get();
+        } catch (RuntimeException e) {
+            counter("status.remote.errors", serviceName, endpoint, "parse").increment();
+            throw e;
+        } finally {
+            timer("status.remote.parse", "Time spent parsing remote responses", serviceName, endpoint, null)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Maps a failure to a small fixed set of causes, looking through wrapping exceptions.
+     */
+    static String cause(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            if (e instanceof WebClientResponseException response) {
+                return response.getStatusCode().is4xxClientError() ? "http_4xx" : "http_5xx";
+            }
+            if (e instanceof java.util.concurrent.TimeoutException || e instanceof TimeoutException) {
+                return "timeout";
+            }
+            if (e instanceof UnknownHostException) {
+                return "dns";
+            }
+            if (e instanceof ConnectException) {
+                return "connect";
+            }
+            if (e instanceof SSLException) {
+                return "tls";
+            }
+            if (e.getClass().getName().startsWith("reactor.netty.internal.shaded.reactor.pool.")) {
+                return "pool";
+            }
+        }
+        return hasCause(error, IOException.class) ? "io" : "other";
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        for (Throwable e = error; e != null; e = e.getCause() == e ? null : e.getCause()) {
+            if (type.isInstance(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordAttempt(String serviceName, String endpoint, String outcome, long start) {
+        timer("status.remote.requests", "Outbound requests to monitored services, one per attempt",
+                serviceName, endpoint, outcome)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String description, String serviceName, String endpoint, String outcome) {
+        return timers.computeIfAbsent(new MeterKey(name, serviceName, endpoint, outcome), key -> {
+            Timer.Builder builder = Timer.builder(name)
+                    .description(description)
+                    .tag("service", serviceName)
+                    .tag("endpoint", endpoint);
+            if (outcome != null) {
+                builder.tag("outcome", outcome);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    private Counter counter(String name, String serviceName, String endpoint, String cause) {
+        return counters.computeIfAbsent(new MeterKey(name, serviceName, endpoint, cause), key -> {
+            Counter.Builder builder = Counter.builder(name)
+                    .tag("service", serviceName)
+                    .tag("endpoint", endpoint);
+            if (cause != null) {
+                builder.tag("cause", cause);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    private record MeterKey(String name, String serviceName, String endpoint, String variant) {
+    }
+}
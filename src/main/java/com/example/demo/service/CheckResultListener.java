@@ -0,0 +1,13 @@
+package com.example.demo.service;
+
+import com.example.demo.model.CheckType;
+import com.example.demo.model.ServiceStatus;
+
+/**
+ * Receives every completed remote check. Called on the thread that completed the check, so
+ * implementations must be fast and must not block.
+ */
+public interface CheckResultListener {
+
+    void onCheckResult(CheckType type, ServiceStatus status);
+}
@@ -0,0 +1,324 @@
+package com.example.demo.service;
+
+import com.example.demo.cluster.ClusterService;
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.model.CheckType;
+import com.example.demo.metrics.RemoteMetricStore;
+import com.example.demo.model.ServiceStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every target's checks on their own interval. Each (target, check type) pair is one entry
+ * in a due-time queue served by a single thread, so hundreds of targets cost one thread and
+ * O(log n) per check. Intervals are measured from the end of the previous run, first runs are
+ * spread uniformly over one interval and later runs are jittered by {@code services.scheduler.jitter}
+ * so that targets do not synchronise.
+ *
+ * <p>At most {@code services.scheduler.max-concurrent} checks are in flight. When that budget is
+ * exhausted, due health checks are started before any other check type.
+ *
+ * <p>Health results, together with those received from cluster peers, feed the
+ * {@link StatusSnapshotService}, which is rebuilt at most once per
+ * {@code services.scheduler.snapshot-interval}. In cluster mode, checks of targets owned by
+ * another replica are skipped when they fall due and stay in the queue, so they run again as
+ * soon as ownership moves here. Publishes {@code status.scheduler.in.flight} and
+ * {@code status.scheduler.waiting} (due checks held back by the budget).
+ */
+@Service
+public class CheckScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckScheduler.class);
+
+    private final RemoteServiceChecker remoteServiceChecker;
+    private final ServiceRegistry serviceRegistry;
+    private final ServiceProperties serviceProperties;
+    private final StatusSnapshotService statusSnapshotService;
+    private final ClusterService clusterService;
+    private final RemoteMetricStore remoteMetricStore;
+
+    private final Object lock = new Object();
+    private final PriorityQueue<ScheduledCheck> schedule = new PriorityQueue<>(Comparator.comparingLong(check -> check.dueAt));
+    private final ArrayDeque<ScheduledCheck> readyHealth = new ArrayDeque<>();
+    private final ArrayDeque<ScheduledCheck> readyOther = new ArrayDeque<>();
+    private final int maxConcurrent;
+    private final long snapshotIntervalNanos;
+    private int inFlight;
+    private boolean snapshotDirty;
+    private long nextSnapshotAt;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public CheckScheduler(RemoteServiceChecker remoteServiceChecker, ServiceRegistry serviceRegistry,
+                          ServiceProperties serviceProperties, StatusSnapshotService statusSnapshotService,
+                          ClusterService clusterService,
+                          RemoteMetricStore remoteMetricStore, MeterRegistry meterRegistry) {
+        this.remoteServiceChecker = remoteServiceChecker;
+        this.serviceRegistry = serviceRegistry;
+        this.serviceProperties = serviceProperties;
+        this.statusSnapshotService = statusSnapshotService;
+        this.clusterService = clusterService;
+        this.remoteMetricStore = remoteMetricStore;
+        this.maxConcurrent = Math.max(1, serviceProperties.getScheduler().getMaxConcurrent());
+        this.snapshotIntervalNanos = TimeUnit.MILLISECONDS.toNanos(serviceProperties.getScheduler().getSnapshotInterval());
+
+        Gauge.builder("status.scheduler.in.flight", this, scheduler -> scheduler.inFlight())
+                .description("Scheduled checks currently running")
+                .register(meterRegistry);
+        Gauge.builder("status.scheduler.waiting", this, scheduler -> scheduler.waiting())
+                .description("Due checks waiting for the concurrency budget")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        schedule(System.nanoTime());
+        logger.info("Scheduling {} checks for {} targets, at most {} at a time",
+                schedule.size(), serviceRegistry.size(), maxConcurrent);
+
+        running = true;
+        thread = new Thread(this::run, "check-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues every scheduled check of every target, with first runs spread over one interval
+     * from {@code now}.
+     */
+    void schedule(long now) {
+        for (Target target : serviceRegistry.getTargets()) {
+            for (CheckType type : CheckType.values()) {
+                long interval = intervalMillis(target, type);
+                if (interval <= 0) {
+                    continue;
+                }
+                long intervalNanos = TimeUnit.MILLISECONDS.toNanos(interval);
+                schedule.add(new ScheduledCheck(target, type, intervalNanos,
+                        now + ThreadLocalRandom.current().nextLong(intervalNanos)));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        if (thread != null) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * The interval of one check type for a target in ms; zero or less means the check is not
+     * scheduled. Target settings override the defaults; health defaults to
+     * {@code services.poll.interval} and prometheus to {@code services.scrape.interval} when
+     * scraping is enabled.
+     */
+    long intervalMillis(Target target, CheckType type) {
+        Long interval = target.getIntervals().get(type.getPath());
+        if (interval != null) {
+            return interval;
+        }
+        return switch (type) {
+            case HEALTH -> serviceProperties.getPoll().getInterval();
+            case PROMETHEUS -> serviceProperties.getScrape().isEnabled() ? serviceProperties.getScrape().getInterval() : 0;
+            case METRIC_DETAILS -> target.getMetricNames().isEmpty()
+                    ? 0 : serviceProperties.getScheduler().getIntervals().getOrDefault(type.getPath(), 0L);
+            default -> serviceProperties.getScheduler().getIntervals().getOrDefault(type.getPath(), 0L);
+        };
+    }
+
+    private void run() {
+        List<ScheduledCheck> starting = new ArrayList<>();
+        while (running) {
+            boolean rebuild;
+            synchronized (lock) {
+                long now = System.nanoTime();
+                dispatch(now, starting);
+
+                rebuild = snapshotDirty && now - nextSnapshotAt >= 0;
+                if (rebuild) {
+                    snapshotDirty = false;
+                    nextSnapshotAt = now + snapshotIntervalNanos;
+                } else if (starting.isEmpty()) {
+                    // Nothing to do until the next check is due, a snapshot rebuild is due or a check completes
+                    long waitNanos = Long.MAX_VALUE;
+                    if (!schedule.isEmpty()) {
+                        waitNanos = schedule.peek().dueAt - now;
+                    }
+                    if (snapshotDirty) {
+                        waitNanos = Math.min(waitNanos, nextSnapshotAt - now);
+                    }
+                    await(waitNanos);
+                    continue;
+                }
+            }
+
+            for (ScheduledCheck check : starting) {
+                start(check);
+            }
+            starting.clear();
+            if (rebuild) {
+                statusSnapshotService.rebuild();
+            }
+        }
+    }
+
+    /**
+     * Moves the checks due at {@code now} to the ready queues, skipping those of targets owned by
+     * another replica, and adds as many ready checks to {@code starting} as the concurrency budget
+     * allows, health checks first. The added checks count as in flight until they
+     * {@link #complete}.
+     */
+    void dispatch(long now, List<ScheduledCheck> starting) {
+        synchronized (lock) {
+            while (!schedule.isEmpty() && schedule.peek().dueAt <= now) {
+                ScheduledCheck check = schedule.poll();
+                if (clusterService.isOwner(check.target.getName())) {
+                    (check.type == CheckType.HEALTH ? readyHealth : readyOther).add(check);
+                } else {
+                    skip(check, now);
+                }
+            }
+            while (inFlight < maxConcurrent) {
+                ScheduledCheck next = readyHealth.isEmpty() ? readyOther.poll() : readyHealth.poll();
+                if (next == null) {
+                    break;
+                }
+                inFlight++;
+                starting.add(next);
+            }
+        }
+    }
+
+    /**
+     * Records health results that cluster peers checked for their own targets.
+     */
+    public void onPeerResults(List<ServiceStatus> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        for (ServiceStatus status : results) {
+            statusSnapshotService.onPeerResult(status);
+        }
+        synchronized (lock) {
+            snapshotDirty = true;
+            lock.notifyAll();
+        }
+    }
+
+    private void skip(ScheduledCheck check, long now) {
+        if (check.type == CheckType.PROMETHEUS) {
+            // The owner re-exposes this target now; drop the last scrape taken here
+            remoteMetricStore.remove(check.target.getName());
+        }
+        check.dueAt = now + check.intervalNanos;
+        schedule.add(check);
+    }
+
+    private void await(long nanos) {
+        try {
+            if (nanos == Long.MAX_VALUE) {
+                lock.wait();
+            } else {
+                TimeUnit.NANOSECONDS.timedWait(lock, Math.max(1L, nanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void start(ScheduledCheck check) {
+        Mono<ServiceStatus> result;
+        try {
+            result = switch (check.type) {
+                case HEALTH -> remoteServiceChecker.checkHealthAsync(check.target);
+                case INFO -> remoteServiceChecker.checkInfoAsync(check.target);
+                case METRICS -> remoteServiceChecker.checkMetricsAsync(check.target);
+                case METRIC_DETAILS -> remoteServiceChecker.checkMetricDetailsAsync(check.target);
+                case PROMETHEUS -> remoteServiceChecker.scrapePrometheusAsync(check.target);
+            };
+        } catch (RuntimeException e) {
+            complete(check, null, e);
+            return;
+        }
+        // Subscribes on the Reactor Netty event loops; no thread waits for the remote call
+        result.toFuture().whenComplete((status, error) -> complete(check, status, error));
+    }
+
+    void complete(ScheduledCheck check, ServiceStatus status, Throwable error) {
+        if (error != null) {
+            logger.warn("Scheduled {} check for {} failed: {}", check.type.getPath(), check.target.getName(),
+                    error.getMessage());
+        } else if (status != null && check.type == CheckType.HEALTH) {
+            clusterService.onLocalResult(statusSnapshotService.onHealthResult(status));
+        }
+
+        long delay = nextDelay(check.intervalNanos);
+        synchronized (lock) {
+            inFlight--;
+            check.dueAt = System.nanoTime() + delay;
+            schedule.add(check);
+            if (check.type == CheckType.HEALTH) {
+                snapshotDirty = true;
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * The time until the next run of a check, {@code intervalNanos} moved by up to
+     * {@code services.scheduler.jitter} of itself in either direction.
+     */
+    long nextDelay(long intervalNanos) {
+        double jitter = serviceProperties.getScheduler().getJitter();
+        long delay = (long) (intervalNanos * (1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1)));
+        return Math.max(0L, delay);
+    }
+
+    int inFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    int waiting() {
+        synchronized (lock) {
+            return readyHealth.size() + readyOther.size();
+        }
+    }
+
+    static final class ScheduledCheck {
+        final Target target;
+        final CheckType type;
+        private final long intervalNanos;
+        private long dueAt;
+
+        ScheduledCheck(Target target, CheckType type, long intervalNanos, long dueAt) {
+            this.target = target;
+            this.type = type;
+            this.intervalNanos = intervalNanos;
+            this.dueAt = dueAt;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-target circuit breaker. After {@code failureThreshold} consecutive failures the circuit
+ * opens and calls are rejected without touching the network. Once the open period elapses a
+ * single half-open probe is let through; if it fails the circuit re-opens for an exponentially
+ * longer, jittered period.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Notified on every state change, under the breaker's lock.
+     */
+    public interface TransitionListener {
+        void onTransition(CircuitBreaker breaker, State from, State to);
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long baseOpenNanos;
+    private final long maxOpenNanos;
+    private final double jitter;
+    private final LongSupplier clock;
+    private final TransitionListener listener;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int consecutiveOpenings;
+    private long openUntil;
+
+    public CircuitBreaker(String name, int failureThreshold, long baseOpenMillis, long maxOpenMillis,
+                          double jitter, LongSupplier clock, TransitionListener listener) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseOpenNanos = TimeUnit.MILLISECONDS.toNanos(baseOpenMillis);
+        this.maxOpenNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(baseOpenMillis, maxOpenMillis));
+        this.jitter = jitter;
+        this.clock = clock;
+        this.listener = listener;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns whether a call may go out now. In the open state this flips to half-open once the
+     * open period has elapsed and admits exactly one probe.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.getAsLong() - openUntil >= 0) {
+                    transition(State.HALF_OPEN);
+                    return true;
+                }
+                return false;
+            default:
+                // A half-open probe is already in flight
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        consecutiveOpenings = 0;
+        if (state != State.CLOSED) {
+            transition(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            open();
+        }
+    }
+
+    /**
+     * Milliseconds until the next probe is allowed, or 0 if calls are currently allowed.
+     */
+    public synchronized long getRetryAfterMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(openUntil - clock.getAsLong()));
+    }
+
+    private void open() {
+        consecutiveOpenings++;
+        // base * 2^(openings - 1), capped, then spread by +/- jitter so targets do not probe in lockstep
+        long backoff = baseOpenNanos << Math.min(consecutiveOpenings - 1, 30);
+        if (backoff <= 0 || backoff > maxOpenNanos) {
+            backoff = maxOpenNanos;
+        }
+        double spread = jitter > 0 ? 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter) : 1;
+        openUntil = clock.getAsLong() + (long) (backoff * spread);
+        transition(State.OPEN);
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        if (listener != null && from != to) {
+            listener.onTransition(this, from, to);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ServiceProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one {@link CircuitBreaker} per monitored target and publishes breaker state
+ * ({@code status.circuit.state}: 0 closed, 1 half-open, 2 open) and transition counts
+ * ({@code status.circuit.transitions}) as metrics.
+ */
+@Component
+public class CircuitBreakerRegistry implements CircuitBreaker.TransitionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerRegistry.class);
+
+    private final ServiceProperties.CircuitBreaker properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(ServiceProperties serviceProperties, MeterRegistry meterRegistry) {
+        this.properties = serviceProperties.getCircuitBreaker();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public CircuitBreaker get(String serviceName) {
+        return breakers.computeIfAbsent(serviceName, this::create);
+    }
+
+    @Override
+    public void onTransition(CircuitBreaker breaker, CircuitBreaker.State from, CircuitBreaker.State to) {
+        if (to == CircuitBreaker.State.OPEN) {
+            logger.warn("Circuit for {} opened, next probe in {}ms", breaker.getName(), breaker.getRetryAfterMillis());
+        } else {
+            logger.info("Circuit for {} changed from {} to {}", breaker.getName(), from, to);
+        }
+        meterRegistry.counter("status.circuit.transitions",
+                "service", breaker.getName(), "from", from.name(), "to", to.name()).increment();
+    }
+
+    private CircuitBreaker create(String serviceName) {
+        CircuitBreaker breaker = new CircuitBreaker(serviceName, properties.getFailureThreshold(),
+                properties.getOpenDuration(), properties.getMaxOpenDuration(), properties.getJitter(),
+                System::nanoTime, this);
+        Gauge.builder("status.circuit.state", breaker, CircuitBreakerRegistry::stateValue)
+                .description("Circuit breaker state per monitored service: 0 closed, 1 half-open, 2 open")
+                .tag("service", serviceName)
+                .register(meterRegistry);
+        return breaker;
+    }
+
+    private static double stateValue(CircuitBreaker breaker) {
+        return switch (breaker.getState()) {
+            case CLOSED -> 0;
+            case HALF_OPEN -> 1;
+            case OPEN -> 2;
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ServiceStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Index over the health component trees of all services, so that one component or one path
+ * can be read across services without walking every tree. Each node of a service's health
+ * response is filed under its dotted path, e.g. {@code components.db.details.database}, and
+ * every component (a child of a {@code components} object, at any depth) under its name.
+ *
+ * <p>Updates replace one service's entries at a time: paths that appear in the new tree are
+ * overwritten, paths that disappeared are removed. Nodes are indexed by reference, so the
+ * trees are not copied. A result whose details are the map last indexed, as the checker reuses
+ * for an unchanged health response, only updates the service's status. Queries cost
+ * O(matches).
+ */
+@Component
+public class ComponentIndex {
+
+    static final String COMPONENTS = "components";
+    static final String STATUS = "status";
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Object>> byPath = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, String>> byName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Tree> trees = new ConcurrentHashMap<>();
+
+    /**
+     * Re-indexes the tree of {@code status.getServiceName()}. The root-level {@code status} is
+     * the service's status; {@code components} holds its health details.
+     */
+    public void update(ServiceStatus status) {
+        String service = status.getServiceName();
+        String serviceStatus = status.getStatus();
+        Map<String, Object> details = status.getDetails();
+
+        // Results of one service may arrive from the scheduler and from a peer at the same time
+        Tree previous = trees.computeIfAbsent(service, key -> new Tree());
+        synchronized (previous) {
+            if (previous.indexed && details == previous.details) {
+                if (!Objects.equals(serviceStatus, previous.status)) {
+                    updateStatus(service, serviceStatus, previous);
+                }
+                return;
+            }
+        }
+
+        Tree tree = new Tree();
+        if (serviceStatus != null) {
+            tree.paths.put(STATUS, serviceStatus);
+        }
+        if (details != null) {
+            tree.paths.put(COMPONENTS, details);
+            flatten(COMPONENTS, details, true, tree);
+        }
+        synchronized (previous) {
+            for (Map.Entry<String, Object> entry : tree.paths.entrySet()) {
+                put(byPath, entry.getKey(), service, entry.getValue());
+            }
+            for (Map.Entry<String, String> entry : tree.names.entrySet()) {
+                put(byName, entry.getKey(), service, entry.getValue());
+            }
+            for (String path : previous.paths.keySet()) {
+                if (!tree.paths.containsKey(path)) {
+                    remove(byPath, path, service);
+                }
+            }
+            for (String name : previous.names.keySet()) {
+                if (!tree.names.containsKey(name)) {
+                    remove(byName, name, service);
+                }
+            }
+            previous.paths = tree.paths;
+            previous.names = tree.names;
+            previous.status = serviceStatus;
+            previous.details = details;
+            previous.indexed = true;
+        }
+    }
+
+    /**
+     * The node at {@code path} of every service that has one, by service name.
+     */
+    public Map<String, Object> query(String path) {
+        Map<String, Object> matches = byPath.get(path);
+        return matches != null ? new TreeMap<>(matches) : Collections.emptyMap();
+    }
+
+    /**
+     * The component called {@code name} of every service that has one, by service name. When a
+     * service has several (nested composites), the shallowest one is returned.
+     */
+    public Map<String, Object> component(String name) {
+        Map<String, String> paths = byName.get(name);
+        if (paths == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> matches = new TreeMap<>();
+        for (Map.Entry<String, String> entry : paths.entrySet()) {
+            Map<String, Object> nodes = byPath.get(entry.getValue());
+            Object node = nodes != null ? nodes.get(entry.getKey()) : null;
+            if (node != null) {
+                matches.put(entry.getKey(), node);
+            }
+        }
+        return matches;
+    }
+
+    private void updateStatus(String service, String serviceStatus, Tree tree) {
+        if (serviceStatus != null) {
+            put(byPath, STATUS, service, serviceStatus);
+            tree.paths.put(STATUS, serviceStatus);
+        } else {
+            remove(byPath, STATUS, service);
+            tree.paths.remove(STATUS);
+        }
+        tree.status = serviceStatus;
+    }
+
+    private static void flatten(String prefix, Map<?, ?> node, boolean components, Tree tree) {
+        for (Map.Entry<?, ?> entry : node.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            String path = prefix + "." + key;
+            Object value = entry.getValue();
+            tree.paths.put(path, value);
+            if (components) {
+                tree.names.merge(key, path, (current, candidate) -> candidate.length() < current.length() ? candidate : current);
+            }
+            if (value instanceof Map<?, ?> child) {
+                flatten(path, child, COMPONENTS.equals(key), tree);
+            }
+        }
+    }
+
+    private static <V> void put(ConcurrentMap<String, ConcurrentMap<String, V>> index, String key, String service,
+                                V value) {
+        // Atomic with remove(), which drops a key's map once it is empty
+        index.compute(key, (k, services) -> {
+            ConcurrentMap<String, V> updated = services != null ? services : new ConcurrentHashMap<>();
+            updated.put(service, value);
+            return updated;
+        });
+    }
+
+    private static <V> void remove(ConcurrentMap<String, ConcurrentMap<String, V>> index, String key, String service) {
+        index.computeIfPresent(key, (k, services) -> {
+            services.remove(service);
+            return services.isEmpty() ? null : services;
+        });
+    }
+
+    private static final class Tree {
+        private Map<String, Object> paths = new HashMap<>();
+        private Map<String, String> names = new HashMap<>();
+        private String status;
+        private Map<String, Object> details;
+        private boolean indexed;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized once and served as-is to every reader, with a strong ETag
+ * derived from its bytes. The gzip variant is compressed on first use.
+ */
+public final class EncodedBody {
+
+    private final byte[] json;
+    private final String tag;
+    private volatile byte[] gzip;
+
+    private EncodedBody(byte[] json) {
+        this.json = json;
+        CRC32C crc = new CRC32C();
+        crc.update(json);
+        this.tag = Long.toHexString(crc.getValue() << 32 | json.length);
+    }
+
+    public static EncodedBody of(ObjectMapper objectMapper, Object value) {
+        try {
+            return new EncodedBody(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        byte[] compressed = gzip;
+        if (compressed == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                gzipOut.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            compressed = out.toByteArray();
+            gzip = compressed;
+        }
+        return compressed;
+    }
+
+    /**
+     * The ETag of one representation; encodings get distinct tags, as strong validators must.
+     */
+    public String getEtag(boolean gzipped) {
+        return gzipped ? "\"" + tag + "-gzip\"" : "\"" + tag + "\"";
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header value matches either representation. The value is
+     * {@code *} or a comma-separated list of entity tags, each compared whole; {@code If-None-Match}
+     * uses the weak comparison, so a {@code W/} prefix is ignored.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        String plain = getEtag(false);
+        String gzipped = getEtag(true);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String etag = candidate.trim();
+            if (etag.startsWith("W/")) {
+                etag = etag.substring(2);
+            }
+            if (etag.equals(plain) || etag.equals(gzipped)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
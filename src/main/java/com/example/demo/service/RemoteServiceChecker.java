@@ -1,225 +1,489 @@
 package com.example.demo.service;
 
 import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.metrics.RemoteMetricStore;
+import com.example.demo.metrics.ScrapedMetrics;
+import com.example.demo.model.CheckType;
+import com.example.demo.model.EpochNanos;
+import com.example.demo.model.HealthStatus;
 import com.example.demo.model.ServiceStatus;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.demo.service.ActuatorResponseParser.HealthResponse;
+import io.netty.channel.ChannelOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
 
 @Service
 public class RemoteServiceChecker {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(RemoteServiceChecker.class);
-    
+
+    /** Endpoint tag for single-metric requests, so metric names do not become tag values. */
+    private static final String METRIC_ENDPOINT = "metric";
+    private static final Consumer<HttpHeaders> NO_HEADERS = headers -> {
+    };
+
     private final WebClient webClient;
+    private final HttpClient httpClient;
     private final ServiceProperties serviceProperties;
-    private final ObjectMapper objectMapper;
+    private final ServiceRegistry serviceRegistry;
+    private final ActuatorResponseParser responseParser;
+    private final List<CheckResultListener> listeners;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final CheckCoalescer checkCoalescer;
+    private final RemoteMetricStore remoteMetricStore;
+    private final CheckMetrics checkMetrics;
+    private final Map<String, WebClient> targetClients = new ConcurrentHashMap<>();
+    private final Map<String, CachedPayload> payloads = new ConcurrentHashMap<>();
+    private final Map<String, CachedHealth> healthBodies = new ConcurrentHashMap<>();
 
-    public RemoteServiceChecker(ServiceProperties serviceProperties, ObjectMapper objectMapper) {
+    public RemoteServiceChecker(WebClient remoteWebClient, HttpClient remoteHttpClient,
+                                ServiceProperties serviceProperties, ServiceRegistry serviceRegistry,
+                                ActuatorResponseParser responseParser,
+                                ObjectProvider<CheckResultListener> listeners,
+                                CircuitBreakerRegistry circuitBreakers,
+                                CheckCoalescer checkCoalescer,
+                                RemoteMetricStore remoteMetricStore,
+                                CheckMetrics checkMetrics) {
+        this.webClient = remoteWebClient;
+        this.httpClient = remoteHttpClient;
         this.serviceProperties = serviceProperties;
-        this.objectMapper = objectMapper;
-        this.webClient = WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024))
-                .build();
-    }
-
-    public ServiceStatus checkApiServerHealth() {
-        return checkServiceHealth(
-                "api-server",
-                serviceProperties.getApiServer().getUrl() + "/actuator/health"
-        );
-    }
-
-    public ServiceStatus checkApiServerInfo() {
-        return checkServiceInfo(
-                "api-server",
-                serviceProperties.getApiServer().getUrl() + "/actuator/info"
-        );
-    }
-
-    public ServiceStatus checkApiServerMetrics() {
-        return checkServiceMetrics(
-                "api-server",
-                serviceProperties.getApiServer().getUrl() + "/actuator/metrics"
-        );
-    }
-
-    public ServiceStatus checkLogServiceHealth() {
-        return checkServiceHealth(
-                "log-service",
-                serviceProperties.getLogService().getUrl() + "/actuator/health"
-        );
-    }
-
-    public ServiceStatus checkLogServiceInfo() {
-        return checkServiceInfo(
-                "log-service",
-                serviceProperties.getLogService().getUrl() + "/actuator/info"
-        );
-    }
-
-    public ServiceStatus checkLogServiceMetrics() {
-        return checkServiceMetrics(
-                "log-service",
-                serviceProperties.getLogService().getUrl() + "/actuator/metrics"
-        );
-    }
-
-    public ServiceStatus checkLogServiceSpecificMetrics() {
-        String baseUrl = serviceProperties.getLogService().getUrl();
-        ServiceStatus status = new ServiceStatus("log-service", "UP");
-        Map<String, Object> metrics = new HashMap<>();
-        
-        // Check specific log-service metrics
-        String[] metricNames = {
-            "logs.consumed",
-            "logs.saved",
-            "logs.errors",
-            "logs.processing.time",
-            "logs.total.count"
-        };
-        
-        for (String metricName : metricNames) {
-            try {
-                String response = webClient.get()
-                        .uri(baseUrl + "/actuator/metrics/" + metricName)
-                        .accept(MediaType.APPLICATION_JSON)
-                        .retrieve()
-                        .bodyToMono(String.class)
-                        .timeout(Duration.ofMillis(serviceProperties.getTimeout().getRead()))
-                        .retryWhen(Retry.fixedDelay(1, Duration.ofMillis(1000)))
-                        .block();
-                
-                if (response != null) {
-                    JsonNode jsonNode = objectMapper.readTree(response);
-                    metrics.put(metricName, jsonNode);
-                }
-            } catch (Exception e) {
-                logger.warn("Failed to fetch metric {} for log-service: {}", metricName, e.getMessage());
-                metrics.put(metricName, "unavailable");
-            }
-        }
-        
-        status.setDetails(metrics);
-        return status;
+        this.serviceRegistry = serviceRegistry;
+        this.responseParser = responseParser;
+        this.listeners = listeners.orderedStream().toList();
+        this.circuitBreakers = circuitBreakers;
+        this.checkCoalescer = checkCoalescer;
+        this.remoteMetricStore = remoteMetricStore;
+        this.checkMetrics = checkMetrics;
     }
 
-    private ServiceStatus checkServiceHealth(String serviceName, String url) {
-        ServiceStatus status = new ServiceStatus(serviceName, "DOWN");
-        
-        try {
-            String response = webClient.get()
-                    .uri(url)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .retrieve()
-                    .onStatus(HttpStatusCode::isError, clientResponse -> {
-                        logger.error("Health check failed for {}: {}", serviceName, clientResponse.statusCode());
-                        return Mono.error(new RuntimeException("Health check failed: " + clientResponse.statusCode()));
-                    })
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofMillis(serviceProperties.getTimeout().getRead()))
-                    .retryWhen(Retry.fixedDelay(1, Duration.ofMillis(1000)))
-                    .block();
-            
-            if (response != null) {
-                JsonNode jsonNode = objectMapper.readTree(response);
-                String healthStatus = jsonNode.has("status") ? 
-                    jsonNode.get("status").asText() : "UNKNOWN";
-                
-                status.setStatus(healthStatus.toUpperCase());
-                
-                // Include details if available
-                if (jsonNode.has("components")) {
-                    Map<String, Object> details = objectMapper.convertValue(
-                        jsonNode.get("components"), 
-                        Map.class
-                    );
+    public Mono<ServiceStatus> checkHealthAsync(Target target) {
+        return share(target, CheckType.HEALTH, Duration.ZERO, () -> fetchHealth(target));
+    }
+
+    public Mono<ServiceStatus> checkInfoAsync(Target target) {
+        return share(target, CheckType.INFO, Duration.ofMillis(serviceProperties.getCache().getInfoTtl()),
+                () -> fetchInfo(target));
+    }
+
+    public Mono<ServiceStatus> checkMetricsAsync(Target target) {
+        return share(target, CheckType.METRICS, Duration.ofMillis(serviceProperties.getCache().getMetricsTtl()),
+                () -> fetchMetrics(target));
+    }
+
+    public Mono<ServiceStatus> checkMetricDetailsAsync(Target target) {
+        return share(target, CheckType.METRIC_DETAILS, Duration.ofMillis(serviceProperties.getCache().getMetricsTtl()),
+                () -> fetchMetricDetails(target));
+    }
+
+    /**
+     * Scrapes the target's {@code /actuator/prometheus} endpoint into the {@link RemoteMetricStore}.
+     * Scrapes bypass the circuit breaker so that a target without the endpoint does not trip it
+     * for health checks, but they are skipped while the circuit is open.
+     */
+    public Mono<ServiceStatus> scrapePrometheusAsync(Target target) {
+        return checkCoalescer.share(target.getName(), CheckType.PROMETHEUS, Duration.ZERO,
+                () -> observe(CheckType.PROMETHEUS, Mono.defer(() -> fetchPrometheus(target))));
+    }
+
+    /**
+     * Concurrent callers of the same check share one outbound call; successful info and metrics
+     * results are additionally reused for their TTL.
+     */
+    private Mono<ServiceStatus> share(Target target, CheckType type, Duration ttl, Supplier<Mono<ServiceStatus>> fetch) {
+        return checkCoalescer.share(target.getName(), type, ttl,
+                () -> observe(type, guarded(target, type, Mono.defer(fetch))));
+    }
+
+    private Mono<ServiceStatus> fetchHealth(Target target) {
+        String serviceName = target.getName();
+        String endpoint = CheckType.HEALTH.getPath();
+        return exchange(target, endpoint, target.getUrl() + "/actuator/health", MediaType.APPLICATION_JSON,
+                NO_HEADERS, response -> {
+                    if (response.statusCode().isError()) {
+                        HttpStatusCode statusCode = response.statusCode();
+                        logger.error("Health check failed for {}: {}", serviceName, statusCode);
+                        return response.createException().flatMap(e ->
+                                Mono.error(new RuntimeException("Health check failed: " + statusCode, e)));
+                    }
+                    return response.bodyToMono(DataBuffer.class);
+                })
+                .map(buffer -> {
+                    // An unchanged body is not parsed again, and its results share the details map
+                    long hash = hash(buffer);
+                    CachedHealth cached = healthBodies.get(serviceName);
+                    HealthResponse health;
+                    if (cached != null && cached.hash() == hash) {
+                        DataBufferUtils.release(buffer);
+                        health = cached.health();
+                    } else {
+                        // Details are only decoded when the target wants them; otherwise just status is read
+                        health = checkMetrics.timeParse(serviceName, endpoint,
+                                () -> responseParser.parseHealth(buffer, target.isHealthDetails()));
+                        healthBodies.put(serviceName, new CachedHealth(hash, health));
+                    }
+
+                    HealthStatus code = HealthStatus.of(health.status());
+                    ServiceStatus status = new ServiceStatus(serviceName, code);
+                    if (code == HealthStatus.CUSTOM) {
+                        status.setStatus(health.status().toUpperCase());
+                    }
+                    status.setDetails(health.details());
+                    return status;
+                })
+                .defaultIfEmpty(new ServiceStatus(serviceName, HealthStatus.DOWN))
+                .onErrorResume(e -> {
+                    logger.error("Failed to check health for {}: {}", serviceName, e.getMessage());
+                    return Mono.just(failedStatus(serviceName, e));
+                });
+    }
+
+    private Mono<ServiceStatus> fetchInfo(Target target) {
+        String serviceName = target.getName();
+        return getDetails(target, CheckType.INFO, target.getUrl() + "/actuator/info", responseParser::parseObject)
+                .map(details -> {
+                    ServiceStatus status = new ServiceStatus(serviceName, HealthStatus.UP);
                     status.setDetails(details);
-                } else if (jsonNode.has("details")) {
-                    Map<String, Object> details = objectMapper.convertValue(
-                        jsonNode.get("details"), 
-                        Map.class
-                    );
+                    return status;
+                })
+                .defaultIfEmpty(new ServiceStatus(serviceName, HealthStatus.UP))
+                .onErrorResume(e -> {
+                    logger.error("Failed to fetch info for {}: {}", serviceName, e.getMessage());
+                    return Mono.just(failedStatus(serviceName, e));
+                });
+    }
+
+    private Mono<ServiceStatus> fetchMetrics(Target target) {
+        String serviceName = target.getName();
+        return getDetails(target, CheckType.METRICS, target.getUrl() + "/actuator/metrics", buffer -> {
+                    List<String> names = responseParser.parseMetricNames(buffer);
+                    Map<String, Object> details = new HashMap<>();
+
+                    if (names != null) {
+                        details.put("availableMetrics", names);
+                    }
+                    return details;
+                })
+                .map(details -> {
+                    ServiceStatus status = new ServiceStatus(serviceName, HealthStatus.UP);
                     status.setDetails(details);
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Failed to check health for {}: {}", serviceName, e.getMessage());
-            status.setError(e.getMessage());
-            status.setStatus("DOWN");
+                    return status;
+                })
+                .defaultIfEmpty(new ServiceStatus(serviceName, HealthStatus.UP))
+                .onErrorResume(e -> {
+                    logger.error("Failed to fetch metrics for {}: {}", serviceName, e.getMessage());
+                    return Mono.just(failedStatus(serviceName, e));
+                });
+    }
+
+    private Mono<ServiceStatus> fetchPrometheus(Target target) {
+        String serviceName = target.getName();
+        if (circuitBreakers.isEnabled() && circuitBreakers.get(serviceName).getState() == CircuitBreaker.State.OPEN) {
+            return Mono.just(failedStatus(serviceName, new IllegalStateException("Circuit open, scrape skipped")));
+        }
+        String endpoint = CheckType.PROMETHEUS.getPath();
+        return get(target, endpoint, target.getUrl() + "/actuator/prometheus", MediaType.TEXT_PLAIN)
+                .map(buffer -> {
+                    ScrapedMetrics metrics = checkMetrics.timeParse(serviceName, endpoint,
+                            () -> remoteMetricStore.update(serviceName, buffer));
+
+                    Map<String, Object> details = new HashMap<>();
+                    details.put("families", metrics.getFamilies().size());
+                    details.put("samples", metrics.getSampleCount());
+                    ServiceStatus status = new ServiceStatus(serviceName, HealthStatus.UP);
+                    status.setDetails(details);
+                    return status;
+                })
+                .defaultIfEmpty(new ServiceStatus(serviceName, HealthStatus.DOWN))
+                .onErrorResume(e -> {
+                    logger.warn("Failed to scrape prometheus metrics for {}: {}", serviceName, e.getMessage());
+                    return Mono.just(failedStatus(serviceName, e));
+                });
+    }
+
+    /**
+     * Fetches the target's configured metrics in parallel; any metric still pending at the
+     * deadline is unavailable. The result's timestamp is when its values were sampled: the time
+     * of the Prometheus scrape they were read from, or of the oldest direct fetch, so that
+     * results built from the same scrape carry the same time.
+     */
+    private Mono<ServiceStatus> fetchMetricDetails(Target target) {
+        return Mono.defer(() -> {
+            long deadlineAt = System.nanoTime() + aggregateDeadline().toNanos();
+            ScrapedMetrics scrape = recentScrape(target);
+            return Flux.fromIterable(target.getMetricNames())
+                    .flatMap(metricName -> scrapedMetric(scrape, metricName)
+                            .switchIfEmpty(fetchMetric(target, metricName))
+                            .timeout(remaining(deadlineAt), Mono.fromSupplier(() -> MetricSample.unavailable(metricName))))
+                    .collectList()
+                    .map(samples -> {
+                        Map<String, Object> metrics = new HashMap<>();
+                        long sampledAt = Long.MAX_VALUE;
+                        for (MetricSample sample : samples) {
+                            metrics.put(sample.name(), sample.value());
+                            sampledAt = Math.min(sampledAt, sample.sampledAt());
+                        }
+                        ServiceStatus status = new ServiceStatus(target.getName(), HealthStatus.UP);
+                        if (sampledAt != Long.MAX_VALUE) {
+                            status.setTimestampNanos(EpochNanos.ofMillis(sampledAt));
+                        }
+                        status.setDetails(metrics);
+                        return status;
+                    });
+        });
+    }
+
+    /**
+     * A recent Prometheus scrape of the target, if scraping is enabled, which saves a request per
+     * metric.
+     */
+    private ScrapedMetrics recentScrape(Target target) {
+        ServiceProperties.Scrape scrape = serviceProperties.getScrape();
+        return scrape.isEnabled() ? remoteMetricStore.getRecent(target.getName(), 2L * scrape.getInterval()) : null;
+    }
+
+    private Mono<MetricSample> scrapedMetric(ScrapedMetrics scrape, String metricName) {
+        if (scrape == null) {
+            return Mono.empty();
+        }
+        Map<String, Object> description = remoteMetricStore.describe(scrape, metricName);
+        return description != null
+                ? Mono.just(new MetricSample(metricName, description, scrape.getScrapedAt()))
+                : Mono.empty();
+    }
+
+    private Mono<MetricSample> fetchMetric(Target target, String metricName) {
+        return get(target, METRIC_ENDPOINT, target.getUrl() + "/actuator/metrics/" + metricName, MediaType.APPLICATION_JSON)
+                .map(buffer -> new MetricSample(metricName,
+                        checkMetrics.timeParse(target.getName(), METRIC_ENDPOINT, () -> responseParser.parseObject(buffer)),
+                        System.currentTimeMillis()))
+                .onErrorResume(e -> {
+                    logger.warn("Failed to fetch metric {} for {}: {}", metricName, target.getName(), e.getMessage());
+                    return Mono.just(MetricSample.unavailable(metricName));
+                });
+    }
+
+    /**
+     * Runs the check through the target's circuit breaker. While the circuit is not closed the
+     * check answers DOWN immediately instead of waiting out timeouts and retries. Only health
+     * checks count towards the breaker and probe it: a target without {@code /actuator/info} or
+     * a slow metrics endpoint must not cut off its health checks.
+     */
+    private Mono<ServiceStatus> guarded(Target target, CheckType type, Mono<ServiceStatus> check) {
+        if (!circuitBreakers.isEnabled()) {
+            return check;
         }
-        
+        return Mono.defer(() -> {
+            CircuitBreaker breaker = circuitBreakers.get(target.getName());
+            if (type != CheckType.HEALTH) {
+                return breaker.getState() == CircuitBreaker.State.CLOSED ? check : Mono.just(circuitOpen(target, breaker));
+            }
+            if (!breaker.tryAcquire()) {
+                return Mono.just(circuitOpen(target, breaker));
+            }
+            return check
+                    .doOnNext(status -> {
+                        if (status.getError() == null) {
+                            breaker.onSuccess();
+                        } else {
+                            breaker.onFailure();
+                        }
+                    })
+                    // A check cancelled by the aggregate deadline counts as a failure
+                    .doOnCancel(breaker::onFailure);
+        });
+    }
+
+    private static ServiceStatus circuitOpen(Target target, CircuitBreaker breaker) {
+        ServiceStatus status = new ServiceStatus(target.getName(), HealthStatus.DOWN);
+        status.setError("Circuit open, next probe in " + breaker.getRetryAfterMillis() + "ms");
         return status;
     }
 
-    private ServiceStatus checkServiceInfo(String serviceName, String url) {
-        ServiceStatus status = new ServiceStatus(serviceName, "UP");
-        
-        try {
-            String response = webClient.get()
-                    .uri(url)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofMillis(serviceProperties.getTimeout().getRead()))
-                    .retryWhen(Retry.fixedDelay(1, Duration.ofMillis(1000)))
-                    .block();
-            
-            if (response != null) {
-                JsonNode jsonNode = objectMapper.readTree(response);
-                Map<String, Object> details = objectMapper.convertValue(jsonNode, Map.class);
-                status.setDetails(details);
+    private Mono<ServiceStatus> observe(CheckType type, Mono<ServiceStatus> check) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return check.doOnNext(status -> {
+                long elapsed = System.nanoTime() - start;
+                status.setLatencyMillis(TimeUnit.NANOSECONDS.toMillis(elapsed));
+                checkMetrics.recordCheck(status.getServiceName(), type, status.getError() == null, elapsed);
+                publish(type, status);
+            });
+        });
+    }
+
+    private void publish(CheckType type, ServiceStatus status) {
+        for (CheckResultListener listener : listeners) {
+            try {
+                listener.onCheckResult(type, status);
+            } catch (Exception e) {
+                logger.warn("Check result listener {} failed for {}: {}",
+                        listener.getClass().getSimpleName(), status.getServiceName(), e.getMessage());
             }
-        } catch (Exception e) {
-            logger.error("Failed to fetch info for {}: {}", serviceName, e.getMessage());
-            status.setError(e.getMessage());
-            status.setStatus("DOWN");
         }
-        
-        return status;
     }
 
-    private ServiceStatus checkServiceMetrics(String serviceName, String url) {
-        ServiceStatus status = new ServiceStatus(serviceName, "UP");
-        
-        try {
-            String response = webClient.get()
-                    .uri(url)
-                    .accept(MediaType.APPLICATION_JSON)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofMillis(serviceProperties.getTimeout().getRead()))
-                    .retryWhen(Retry.fixedDelay(1, Duration.ofMillis(1000)))
-                    .block();
-            
-            if (response != null) {
-                JsonNode jsonNode = objectMapper.readTree(response);
-                Map<String, Object> details = new HashMap<>();
-                
-                if (jsonNode.has("names")) {
-                    details.put("availableMetrics", jsonNode.get("names"));
+    private Duration aggregateDeadline() {
+        return Duration.ofMillis(serviceProperties.getTimeout().getAggregate());
+    }
+
+    private Duration remaining(long deadlineAt) {
+        return Duration.ofNanos(Math.max(0L, deadlineAt - System.nanoTime()));
+    }
+
+    private WebClient webClient(Target target) {
+        if (target.getConnectTimeout() == null && target.getReadTimeout() == null) {
+            return webClient;
+        }
+        // Per-target timeouts get their own client, still backed by the shared connection pool
+        return targetClients.computeIfAbsent(target.getName(), name -> {
+            HttpClient targetHttpClient = httpClient.responseTimeout(readTimeout(target));
+            if (target.getConnectTimeout() != null) {
+                targetHttpClient = targetHttpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, target.getConnectTimeout());
+            }
+            return webClient.mutate()
+                    .clientConnector(new ReactorClientHttpConnector(targetHttpClient))
+                    .build();
+        });
+    }
+
+    private Duration readTimeout(Target target) {
+        Integer readTimeout = target.getReadTimeout();
+        return Duration.ofMillis(readTimeout != null ? readTimeout : serviceProperties.getTimeout().getRead());
+    }
+
+    private Mono<DataBuffer> get(Target target, String endpoint, String url, MediaType accept) {
+        return exchange(target, endpoint, url, accept, NO_HEADERS, response -> response.statusCode().isError()
+                ? response.createError()
+                : response.bodyToMono(DataBuffer.class));
+    }
+
+    /**
+     * One instrumented GET. Each attempt is timed and classified by {@link CheckMetrics}, the
+     * time until the response headers arrive is recorded separately from the body, and a failed
+     * attempt is retried once after a second.
+     */
+    private <T> Mono<T> exchange(Target target, String endpoint, String url, MediaType accept,
+                                 Consumer<HttpHeaders> headers, Function<ClientResponse, Mono<T>> handler) {
+        String serviceName = target.getName();
+        return checkMetrics.timeAttempt(serviceName, endpoint, Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return webClient(target).get()
+                            .uri(url)
+                            .accept(accept)
+                            .headers(headers)
+                            .exchangeToMono(response -> {
+                                checkMetrics.recordFirstByte(serviceName, endpoint, System.nanoTime() - start);
+                                return handler.apply(response);
+                            });
+                }).timeout(readTimeout(target)))
+                .retryWhen(Retry.fixedDelay(1, Duration.ofMillis(1000))
+                        .doBeforeRetry(signal -> checkMetrics.recordRetry(serviceName, endpoint)));
+    }
+
+    /**
+     * Fetches a JSON payload that rarely changes. Validators from the previous response are sent
+     * so targets that support them can answer 304, and a body whose hash matches the previous
+     * one is not parsed again; in both cases the previously built details map is returned.
+     */
+    private Mono<Map<String, Object>> getDetails(Target target, CheckType type, String url,
+                                                 Function<DataBuffer, Map<String, Object>> parser) {
+        String serviceName = target.getName();
+        String endpoint = type.getPath();
+        String key = serviceName + "/" + endpoint;
+        return Mono.defer(() -> {
+            CachedPayload cached = payloads.get(key);
+            return exchange(target, endpoint, url, MediaType.APPLICATION_JSON, headers -> {
+                if (cached != null && cached.etag() != null) {
+                    headers.setIfNoneMatch(cached.etag());
+                }
+                if (cached != null && cached.lastModified() != null) {
+                    headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
                 }
-                
-                status.setDetails(details);
+            }, response -> {
+                if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+                    return response.releaseBody().thenReturn(cached.details());
+                }
+                if (response.statusCode().isError()) {
+                    return response.createError();
+                }
+                HttpHeaders headers = response.headers().asHttpHeaders();
+                String etag = headers.getETag();
+                String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+                return response.bodyToMono(DataBuffer.class).map(buffer -> {
+                    long hash = hash(buffer);
+                    Map<String, Object> details;
+                    if (cached != null && cached.hash() == hash) {
+                        DataBufferUtils.release(buffer);
+                        details = cached.details();
+                    } else {
+                        details = checkMetrics.timeParse(serviceName, endpoint, () -> parser.apply(buffer));
+                    }
+                    payloads.put(key, new CachedPayload(etag, lastModified, hash, details));
+                    return details;
+                });
+            });
+        });
+    }
+
+    /**
+     * CRC32C of the readable bytes combined with their length, without consuming the buffer.
+     */
+    private static long hash(DataBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                crc.update(iterator.next());
             }
-        } catch (Exception e) {
-            logger.error("Failed to fetch metrics for {}: {}", serviceName, e.getMessage());
-            status.setError(e.getMessage());
-            status.setStatus("DOWN");
         }
-        
+        return crc.getValue() << 32 | buffer.readableByteCount();
+    }
+
+    private ServiceStatus failedStatus(String serviceName, Throwable e) {
+        ServiceStatus status = new ServiceStatus(serviceName, HealthStatus.DOWN);
+        status.setError(e.getMessage());
         return status;
     }
-}
 
+    private record CachedPayload(String etag, String lastModified, long hash, Map<String, Object> details) {
+    }
+
+    private record CachedHealth(long hash, HealthResponse health) {
+    }
+
+    /**
+     * One metric of a metric-details check and when it was sampled, in epoch millis.
+     */
+    private record MetricSample(String name, Object value, long sampledAt) {
+
+        static MetricSample unavailable(String name) {
+            return new MetricSample(name, "unavailable", Long.MAX_VALUE);
+        }
+    }
+}
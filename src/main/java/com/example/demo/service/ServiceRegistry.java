@@ -0,0 +1,39 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Target;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Name-indexed view of the monitored targets declared under {@code services.targets}.
+ */
+@Service
+public class ServiceRegistry {
+
+    private final Map<String, Target> targets;
+
+    public ServiceRegistry(ServiceProperties serviceProperties) {
+        Map<String, Target> byName = new LinkedHashMap<>();
+        for (Target target : serviceProperties.getTargets()) {
+            byName.put(target.getName(), target);
+        }
+        this.targets = Collections.unmodifiableMap(byName);
+    }
+
+    public Collection<Target> getTargets() {
+        return targets.values();
+    }
+
+    public Target getTarget(String name) {
+        return targets.get(name);
+    }
+
+    public int size() {
+        return targets.size();
+    }
+}
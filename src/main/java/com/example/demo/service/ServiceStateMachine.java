@@ -0,0 +1,186 @@
+package com.example.demo.service;
+
+/**
+ * Stabilised health of one service, fed one poll result at a time. Every update is O(1):
+ *
+ * <ul>
+ *     <li>Hysteresis: an available service goes DOWN only after {@code fall} consecutive failed
+ *     polls, and comes back only after {@code rise} consecutive successful ones. The first
+ *     result is taken as is.</li>
+ *     <li>DEGRADED: the latency percentile over the last {@code latencyWindow} successful polls is
+ *     at or above {@code degradedLatencyMillis}. With nearest-rank percentiles that holds exactly
+ *     when at least {@code n - ceil(percentile * n) + 1} of the {@code n} samples are that slow,
+ *     so only a ring of slow/fast flags and their count are kept. Until the window has filled
+ *     the same count is required, so one slow cold-start poll does not degrade a service.</li>
+ *     <li>Flapping: the share of polls whose outcome differs from the previous one, over the last
+ *     {@code flapWindow} polls, rises to {@code flapHighThreshold}; it clears again at or below
+ *     {@code flapLowThreshold}. A flapping service is reported DEGRADED, since it neither
+ *     reaches {@code fall} consecutive failures nor is reliably up.</li>
+ * </ul>
+ */
+public class ServiceStateMachine {
+
+    public enum State {
+        UNKNOWN, UP, DEGRADED, DOWN
+    }
+
+    /**
+     * Notified on every change of the reported state, under the state machine's lock.
+     */
+    public interface TransitionListener {
+        void onTransition(ServiceStateMachine machine, State from, State to);
+    }
+
+    private final String name;
+    private final int rise;
+    private final int fall;
+    private final long degradedLatencyMillis;
+    private final int slowLimit;
+    private final int flapStart;
+    private final int flapStop;
+    private final TransitionListener listener;
+
+    private final boolean[] slow;
+    private int slowIndex;
+    private int slowSamples;
+    private int slowCount;
+
+    private final boolean[] changes;
+    private int changeIndex;
+    private int changeSamples;
+    private int changeCount;
+
+    private State state = State.UNKNOWN;
+    private boolean available;
+    private boolean lastHealthy;
+    private int consecutiveSuccesses;
+    private int consecutiveFailures;
+    private boolean flapping;
+
+    public ServiceStateMachine(String name, int rise, int fall, long degradedLatencyMillis, double degradedPercentile,
+                               int latencyWindow, int flapWindow, double flapHighThreshold, double flapLowThreshold,
+                               TransitionListener listener) {
+        this.name = name;
+        this.rise = Math.max(1, rise);
+        this.fall = Math.max(1, fall);
+        this.degradedLatencyMillis = degradedLatencyMillis;
+        this.slow = new boolean[Math.max(1, latencyWindow)];
+        double percentile = Math.min(1.0, Math.max(0.0, degradedPercentile));
+        this.slowLimit = slow.length - Math.max(1, (int) Math.ceil(percentile * slow.length)) + 1;
+        this.changes = new boolean[Math.max(1, flapWindow)];
+        this.flapStart = Math.max(1, (int) Math.ceil(flapHighThreshold * changes.length));
+        this.flapStop = Math.min(flapStart - 1, (int) Math.floor(flapLowThreshold * changes.length));
+        this.listener = listener;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean isFlapping() {
+        return flapping;
+    }
+
+    /**
+     * Applies one poll result and returns the resulting state.
+     */
+    public synchronized State update(boolean healthy, long latencyMillis) {
+        if (state != State.UNKNOWN) {
+            recordChange(healthy != lastHealthy);
+        }
+        lastHealthy = healthy;
+        if (healthy) {
+            consecutiveSuccesses++;
+            consecutiveFailures = 0;
+            recordLatency(latencyMillis >= degradedLatencyMillis);
+        } else {
+            consecutiveFailures++;
+            consecutiveSuccesses = 0;
+        }
+
+        if (state == State.UNKNOWN) {
+            available = healthy;
+        } else if (available && consecutiveFailures >= fall) {
+            available = false;
+        } else if (!available && consecutiveSuccesses >= rise) {
+            available = true;
+        }
+
+        if (!flapping && changeCount >= flapStart) {
+            flapping = true;
+        } else if (flapping && changeCount <= flapStop) {
+            flapping = false;
+        }
+
+        State next;
+        if (flapping) {
+            next = State.DEGRADED;
+        } else if (!available) {
+            next = State.DOWN;
+        } else {
+            next = isSlow() ? State.DEGRADED : State.UP;
+        }
+        if (next != state) {
+            State previous = state;
+            state = next;
+            if (listener != null) {
+                listener.onTransition(this, previous, next);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Takes over a state stabilised elsewhere, by the cluster peer that has been checking the
+     * service, without notifying the listener. Later results are judged against it with the
+     * usual hysteresis instead of the first one being taken as is.
+     */
+    public synchronized void seed(State seeded) {
+        if (seeded == State.UNKNOWN) {
+            return;
+        }
+        available = seeded != State.DOWN;
+        lastHealthy = available;
+        consecutiveSuccesses = 0;
+        consecutiveFailures = 0;
+        state = seeded;
+    }
+
+    private void recordLatency(boolean isSlow) {
+        if (slowSamples == slow.length) {
+            if (slow[slowIndex]) {
+                slowCount--;
+            }
+        } else {
+            slowSamples++;
+        }
+        slow[slowIndex] = isSlow;
+        if (isSlow) {
+            slowCount++;
+        }
+        slowIndex = (slowIndex + 1) % slow.length;
+    }
+
+    private void recordChange(boolean changed) {
+        if (changeSamples == changes.length) {
+            if (changes[changeIndex]) {
+                changeCount--;
+            }
+        } else {
+            changeSamples++;
+        }
+        changes[changeIndex] = changed;
+        if (changed) {
+            changeCount++;
+        }
+        changeIndex = (changeIndex + 1) % changes.length;
+    }
+
+    private boolean isSlow() {
+        return slowCount >= slowLimit;
+    }
+}
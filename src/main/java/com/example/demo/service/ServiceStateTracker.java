@@ -0,0 +1,118 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.model.HealthStatus;
+import com.example.demo.model.ServiceStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one {@link ServiceStateMachine} per monitored service and turns each health result into
+ * its stabilised state. Publishes the state ({@code status.service.state}: 0 up, 1 degraded,
+ * 2 down, -1 unknown) and transition counts ({@code status.service.transitions}) as metrics.
+ */
+@Component
+public class ServiceStateTracker implements ServiceStateMachine.TransitionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceStateTracker.class);
+
+    private final ServiceProperties.State properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, ServiceStateMachine> machines = new ConcurrentHashMap<>();
+
+    public ServiceStateTracker(ServiceProperties serviceProperties, MeterRegistry meterRegistry) {
+        this.properties = serviceProperties.getState();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Feeds one health result into its service's state machine and returns the stable view: a
+     * copy whose {@code status} is the stable state, with the observed status kept in
+     * {@code observedStatus} when it differs.
+     */
+    public ServiceStatus apply(ServiceStatus observed) {
+        ServiceStateMachine machine = machines.computeIfAbsent(observed.getServiceName(), this::create);
+        Long latency = observed.getLatencyMillis();
+        ServiceStateMachine.State state = machine.update(observed.getStatusCode() == HealthStatus.UP,
+                latency != null ? latency : 0L);
+
+        // Check results are shared with listeners, so the stable view is a copy
+        HealthStatus stable = healthStatus(state);
+        ServiceStatus service = new ServiceStatus(observed.getServiceName(), stable);
+        service.setTimestampNanos(observed.getTimestampNanos());
+        service.setDetails(observed.getDetails());
+        service.setError(observed.getError());
+        service.setLatencyMillis(latency);
+        if (stable != observed.getStatusCode()) {
+            service.setObservedStatus(observed.getStatus());
+        }
+        if (machine.isFlapping()) {
+            service.setFlapping(true);
+        }
+        return service;
+    }
+
+    /**
+     * Aligns the service's state machine with a result a cluster peer already stabilised, so
+     * that when the service moves to this replica one failed poll does not take it DOWN.
+     */
+    public void seed(ServiceStatus stable) {
+        HealthStatus status = stable.getStatusCode();
+        ServiceStateMachine.State state = status == null ? ServiceStateMachine.State.UNKNOWN : switch (status) {
+            case UP -> ServiceStateMachine.State.UP;
+            case DEGRADED -> ServiceStateMachine.State.DEGRADED;
+            case DOWN -> ServiceStateMachine.State.DOWN;
+            default -> ServiceStateMachine.State.UNKNOWN;
+        };
+        if (state != ServiceStateMachine.State.UNKNOWN) {
+            machines.computeIfAbsent(stable.getServiceName(), this::create).seed(state);
+        }
+    }
+
+    @Override
+    public void onTransition(ServiceStateMachine machine, ServiceStateMachine.State from, ServiceStateMachine.State to) {
+        if (to == ServiceStateMachine.State.UP) {
+            logger.info("Service {} changed from {} to {}", machine.getName(), from, to);
+        } else {
+            logger.warn("Service {} changed from {} to {}{}", machine.getName(), from, to,
+                    machine.isFlapping() ? " (flapping)" : "");
+        }
+        meterRegistry.counter("status.service.transitions",
+                "service", machine.getName(), "from", from.name(), "to", to.name()).increment();
+    }
+
+    private ServiceStateMachine create(String serviceName) {
+        ServiceStateMachine machine = new ServiceStateMachine(serviceName, properties.getRise(), properties.getFall(),
+                properties.getDegradedLatency(), properties.getDegradedPercentile(), properties.getLatencyWindow(),
+                properties.getFlapWindow(), properties.getFlapHighThreshold(), properties.getFlapLowThreshold(), this);
+        Gauge.builder("status.service.state", machine, ServiceStateTracker::stateValue)
+                .description("Stabilised state per monitored service: 0 up, 1 degraded, 2 down, -1 unknown")
+                .tag("service", serviceName)
+                .register(meterRegistry);
+        return machine;
+    }
+
+    private static HealthStatus healthStatus(ServiceStateMachine.State state) {
+        return switch (state) {
+            case UP -> HealthStatus.UP;
+            case DEGRADED -> HealthStatus.DEGRADED;
+            case DOWN -> HealthStatus.DOWN;
+            case UNKNOWN -> HealthStatus.UNKNOWN;
+        };
+    }
+
+    private static double stateValue(ServiceStateMachine machine) {
+        return switch (machine.getState()) {
+            case UP -> 0;
+            case DEGRADED -> 1;
+            case DOWN -> 2;
+            case UNKNOWN -> -1;
+        };
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.demo.service;
+
+import com.example.demo.alert.AlertEngine;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.model.AggregatedStatus;
+import com.example.demo.model.HealthStatus;
+import com.example.demo.model.ServiceStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the latest aggregated health snapshot, assembled from the health checks that
+ * {@link CheckScheduler} runs in the background so that status readers never trigger remote
+ * calls themselves. Each service's entry is serialized when its result arrives and the aggregate
+ * when the snapshot is rebuilt, so readers are served pre-encoded bytes. Every result also
+ * updates the {@link ComponentIndex} and is pushed to {@link StatusStreamService} viewers.
+ */
+@Service
+public class StatusSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusSnapshotService.class);
+
+    private final ServiceRegistry serviceRegistry;
+    private final ServiceStateTracker serviceStateTracker;
+    private final ComponentIndex componentIndex;
+    private final AlertEngine alertEngine;
+    private final StatusStreamService statusStreamService;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<String, Entry> latest = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot;
+
+    public StatusSnapshotService(ServiceRegistry serviceRegistry, ServiceStateTracker serviceStateTracker,
+                                 ComponentIndex componentIndex, AlertEngine alertEngine,
+                                 StatusStreamService statusStreamService, ObjectMapper objectMapper) {
+        this.serviceRegistry = serviceRegistry;
+        this.serviceStateTracker = serviceStateTracker;
+        this.componentIndex = componentIndex;
+        this.alertEngine = alertEngine;
+        this.statusStreamService = statusStreamService;
+        this.objectMapper = objectMapper;
+        this.snapshot = new Snapshot(pendingStatus(), EncodedBody.of(objectMapper, pendingStatus()),
+                Collections.emptyMap(), 0L, false);
+    }
+
+    /**
+     * Records one health result and returns its stabilised state, which readers see from the
+     * next {@link #rebuild()}.
+     */
+    public ServiceStatus onHealthResult(ServiceStatus status) {
+        ServiceStatus stable = serviceStateTracker.apply(status);
+        record(stable);
+        return stable;
+    }
+
+    /**
+     * Records a result that a cluster peer checked and already stabilised. The local state
+     * machine follows it, so the stabilised state carries over if the service moves here.
+     */
+    public void onPeerResult(ServiceStatus stable) {
+        serviceStateTracker.seed(stable);
+        record(stable);
+    }
+
+    /**
+     * Rebuilds the snapshot from the latest result of every target. {@code overallStatus} stays
+     * {@code UNKNOWN} until every target has reported once.
+     */
+    public void rebuild() {
+        // Counts and overall status are kept as the services are added
+        AggregatedStatus aggregatedStatus = new AggregatedStatus(serviceRegistry.size());
+        Map<String, EncodedBody> serviceBodies = new HashMap<>();
+        for (Target target : serviceRegistry.getTargets()) {
+            Entry entry = latest.get(target.getName());
+            if (entry != null) {
+                aggregatedStatus.addService(entry.status());
+                serviceBodies.put(target.getName(), entry.body());
+            }
+        }
+        boolean complete = aggregatedStatus.getTotalServices() == serviceRegistry.size();
+        if (!complete) {
+            aggregatedStatus.setOverallStatusCode(HealthStatus.UNKNOWN);
+        } else {
+            alertEngine.onOverallStatus(aggregatedStatus.getOverallStatus());
+        }
+
+        Snapshot previous = snapshot;
+        if (sameBodies(previous.serviceBodies(), serviceBodies)) {
+            // Same results as before: keep the previous encoding, so the ETag only changes with the content
+            snapshot = new Snapshot(previous.status(), previous.body(), previous.serviceBodies(),
+                    System.nanoTime(), complete || previous.polled());
+            return;
+        }
+        snapshot = new Snapshot(aggregatedStatus, EncodedBody.of(objectMapper, aggregatedStatus), serviceBodies,
+                System.nanoTime(), complete || previous.polled());
+        logger.debug("Status snapshot rebuilt: {}", aggregatedStatus.getOverallStatus());
+    }
+
+    public AggregatedStatus getSnapshot() {
+        return snapshot.status();
+    }
+
+    /**
+     * The current snapshot, serialized.
+     */
+    public EncodedBody getEncodedSnapshot() {
+        return snapshot.body();
+    }
+
+    /**
+     * One service's entry of the current snapshot, serialized, or {@code null} if it has none.
+     */
+    public EncodedBody getEncodedServiceStatus(String serviceName) {
+        return snapshot.serviceBodies().get(serviceName);
+    }
+
+    /**
+     * Age of the current snapshot in milliseconds, or -1 if every target has not reported yet.
+     */
+    public long getAgeMillis() {
+        Snapshot current = snapshot;
+        if (!current.polled()) {
+            return -1;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - current.takenAt());
+    }
+
+    private void record(ServiceStatus stable) {
+        latest.put(stable.getServiceName(), new Entry(stable, EncodedBody.of(objectMapper, stable)));
+        componentIndex.update(stable);
+        statusStreamService.onStableResult(stable);
+    }
+
+    private static boolean sameBodies(Map<String, EncodedBody> previous, Map<String, EncodedBody> current) {
+        if (previous.size() != current.size() || current.isEmpty()) {
+            return false;
+        }
+        for (Map.Entry<String, EncodedBody> entry : current.entrySet()) {
+            EncodedBody body = previous.get(entry.getKey());
+            if (body == null || !body.getEtag(false).equals(entry.getValue().getEtag(false))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static AggregatedStatus pendingStatus() {
+        AggregatedStatus aggregatedStatus = new AggregatedStatus();
+        aggregatedStatus.setServices(Collections.emptyList());
+        aggregatedStatus.setOverallStatusCode(HealthStatus.UNKNOWN);
+        return aggregatedStatus;
+    }
+
+    private record Entry(ServiceStatus status, EncodedBody body) {
+    }
+
+    private record Snapshot(AggregatedStatus status, EncodedBody body, Map<String, EncodedBody> serviceBodies,
+                            long takenAt, boolean polled) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.model.ServiceStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes health changes to connected viewers. Every stabilised health result, local or from a
+ * cluster peer, passes through here once from {@link StatusSnapshotService}, so viewers see the
+ * same state as the snapshot, not a single failed poll; a result is forwarded only if what a
+ * viewer can see of it differs from what was last pushed, so viewers cost no remote traffic and
+ * see no repeated frames.
+ */
+@Service
+public class StatusStreamService {
+
+    private final ServiceRegistry serviceRegistry;
+    private final ServiceProperties.Stream properties;
+    private final Sinks.Many<ServerSentEvent<ServiceStatus>> changes = Sinks.many().multicast().directBestEffort();
+    private final ConcurrentMap<String, Latest> latest = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public StatusStreamService(ServiceRegistry serviceRegistry, ServiceProperties serviceProperties) {
+        this.serviceRegistry = serviceRegistry;
+        this.properties = serviceProperties.getStream();
+    }
+
+    /**
+     * Publishes a stabilised health result if it changed anything a viewer can see.
+     */
+    public void onStableResult(ServiceStatus status) {
+        Fingerprint fingerprint = Fingerprint.of(status, properties.getLatencyBucket());
+        Latest previous = latest.put(status.getServiceName(), new Latest(status, fingerprint));
+        if (previous != null && fingerprint.equals(previous.fingerprint())) {
+            return;
+        }
+
+        ServerSentEvent<ServiceStatus> event = ServerSentEvent.builder(status)
+                .id(String.valueOf(sequence.incrementAndGet()))
+                .event("status")
+                .build();
+        // Results complete on different threads; the sink needs its emissions serialised
+        synchronized (changes) {
+            changes.tryEmitNext(event);
+        }
+    }
+
+    /**
+     * The current state of every service as {@code snapshot} events, followed by {@code status}
+     * events for each change and a comment line every heartbeat interval. A viewer that falls
+     * more than the buffer size behind loses its oldest pending changes rather than slowing
+     * down everyone else.
+     */
+    public Flux<ServerSentEvent<ServiceStatus>> stream() {
+        Flux<ServerSentEvent<ServiceStatus>> current = Flux.defer(() -> Flux.fromIterable(serviceRegistry.getTargets()))
+                .mapNotNull(target -> latest.get(target.getName()))
+                .map(entry -> ServerSentEvent.builder(entry.status()).event("snapshot").build());
+        Flux<ServerSentEvent<ServiceStatus>> heartbeats = Flux.interval(Duration.ofMillis(properties.getHeartbeatInterval()))
+                .map(tick -> ServerSentEvent.<ServiceStatus>builder().comment("heartbeat").build());
+
+        return Flux.merge(changes.asFlux(), heartbeats)
+                .onBackpressureBuffer(properties.getBufferSize(), event -> {
+                }, BufferOverflowStrategy.DROP_OLDEST)
+                .startWith(current);
+    }
+
+    private record Latest(ServiceStatus status, Fingerprint fingerprint) {
+    }
+
+    /**
+     * What a viewer can see of a result. Latency is compared by bucket, so jitter within one
+     * bucket does not produce an event.
+     */
+    private record Fingerprint(String status, String observedStatus, Boolean flapping, long latencyBucket,
+                               int detailsHash, String error) {
+
+        static Fingerprint of(ServiceStatus status, long bucketMillis) {
+            Long latency = status.getLatencyMillis();
+            long latencyBucket = latency != null ? latency / Math.max(1, bucketMillis) : -1;
+            return new Fingerprint(status.getStatus(), status.getObservedStatus(), status.getFlapping(), latencyBucket,
+                    Objects.hashCode(status.getDetails()), status.getError());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.perf;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Deterministic actuator response bodies of a given size, shaped like what Spring Boot 3
+ * targets return. The same arguments always produce the same bytes, so results stay
+ * comparable between runs and commits.
+ */
+public final class ActuatorPayloads {
+
+    private ActuatorPayloads() {
+    }
+
+    /**
+     * {@code /actuator/health} with {@code components} components, each with a small details map.
+     */
+    public static byte[] health(int components) {
+        StringBuilder json = new StringBuilder("{\"status\":\"UP\",\"components\":{");
+        for (int i = 0; i < components; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"component").append(i).append("\":{\"status\":\"UP\",\"details\":{")
+                    .append("\"database\":\"PostgreSQL\",\"validationQuery\":\"isValid()\",")
+                    .append("\"total\":").append(499963174912L + i).append(",\"free\":").append(123456789L * (i + 1))
+                    .append(",\"threshold\":10485760,\"exists\":true}}");
+        }
+        return bytes(json.append("},\"groups\":[\"liveness\",\"readiness\"]}"));
+    }
+
+    /**
+     * {@code /actuator/info} with {@code entries} build/git style properties.
+     */
+    public static byte[] info(int entries) {
+        StringBuilder json = new StringBuilder("{\"app\":{\"name\":\"log-service\",\"version\":\"1.4.2\"},\"build\":{");
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"property").append(i).append("\":\"value-").append(Integer.toHexString(i * 7919)).append('"');
+        }
+        return bytes(json.append("},\"git\":{\"branch\":\"main\",\"commit\":{\"id\":\"3f2a9c1\",\"time\":\"2024-01-15T10:30:00Z\"}}}"));
+    }
+
+    /**
+     * {@code /actuator/metrics} listing {@code names} meter names.
+     */
+    public static byte[] metrics(int names) {
+        StringBuilder json = new StringBuilder("{\"names\":[");
+        for (int i = 0; i < names; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(meterName(i)).append('"');
+        }
+        return bytes(json.append("]}"));
+    }
+
+    /**
+     * {@code /actuator/metrics/{name}} for a counter.
+     */
+    public static byte[] metric(String name) {
+        return bytes(new StringBuilder("{\"name\":\"").append(name)
+                .append("\",\"measurements\":[{\"statistic\":\"COUNT\",\"value\":12345.0}],")
+                .append("\"availableTags\":[{\"tag\":\"topic\",\"values\":[\"app\",\"audit\"]}]}"));
+    }
+
+    /**
+     * {@code /actuator/prometheus} with {@code families} families, alternating counters, gauges
+     * and timers, each with a few label sets.
+     */
+    public static byte[] prometheus(int families) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < families; i++) {
+            String name = meterName(i).replace('.', '_');
+            switch (i % 3) {
+                case 0 -> {
+                    text.append("# HELP ").append(name).append("_total Counter ").append(i).append('\n');
+                    text.append("# TYPE ").append(name).append("_total counter\n");
+                    for (int labels = 0; labels < 4; labels++) {
+                        text.append(name).append("_total{topic=\"topic-").append(labels).append("\",outcome=\"SUCCESS\"} ")
+                                .append(1000.0 * i + labels).append('\n');
+                    }
+                }
+                case 1 -> {
+                    text.append("# HELP ").append(name).append(" Gauge ").append(i).append('\n');
+                    text.append("# TYPE ").append(name).append(" gauge\n");
+                    text.append(name).append("{area=\"heap\",id=\"G1 Eden Space\"} ").append(1.048576E7 + i).append('\n');
+                    text.append(name).append("{area=\"nonheap\",id=\"Metaspace\"} ").append(5.4321E7 + i).append('\n');
+                }
+                default -> {
+                    text.append("# HELP ").append(name).append("_seconds Timer ").append(i).append('\n');
+                    text.append("# TYPE ").append(name).append("_seconds summary\n");
+                    text.append(name).append("_seconds_count{uri=\"/api/logs\"} ").append(i * 31).append('\n');
+                    text.append(name).append("_seconds_sum{uri=\"/api/logs\"} ").append(i * 0.0123).append('\n');
+                    text.append("# TYPE ").append(name).append("_seconds_max gauge\n");
+                    text.append(name).append("_seconds_max{uri=\"/api/logs\"} ").append(0.25).append('\n');
+                }
+            }
+        }
+        return bytes(text);
+    }
+
+    public static String meterName(int index) {
+        return "logs.metric" + index + ".count";
+    }
+
+    private static byte[] bytes(CharSequence text) {
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
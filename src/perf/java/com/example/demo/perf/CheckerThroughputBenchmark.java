@@ -0,0 +1,72 @@
+package com.example.demo.perf;
+
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.RemoteServiceChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end checker throughput over real HTTP against in-process stub targets: request,
+ * pooled connection and response parsing, with the health of every target checked concurrently
+ * as the scheduler does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class CheckerThroughputBenchmark {
+
+    @Param({"2", "8"})
+    public int targets;
+
+    private final List<StubActuatorServer> stubs = new ArrayList<>();
+    private PerfCheckers checkers;
+    private RemoteServiceChecker checker;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        for (int i = 0; i < targets; i++) {
+            stubs.add(StubActuatorServer.builder("service-" + i).start());
+        }
+        checkers = new PerfCheckers(stubs, PerfCheckers.uncachedProperties());
+        checker = checkers.getChecker();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        checkers.close();
+        stubs.forEach(StubActuatorServer::close);
+    }
+
+    @Benchmark
+    public List<ServiceStatus> checkAllHealth() {
+        return Flux.fromIterable(checkers.getServiceRegistry().getTargets())
+                .flatMap(checker::checkHealthAsync)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public ServiceStatus checkInfo() {
+        return checker.checkInfoAsync(checkers.getServiceRegistry().getTarget(stubs.get(0).getName())).block();
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.demo.perf;
+
+import com.example.demo.ActuatorServiceApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load test of the status endpoints. Starts stub api-server and log-service
+ * targets, launches the application in a separate JVM against them, then drives each endpoint
+ * at increasing concurrency and reports latency percentiles, throughput and the application's
+ * thread and heap usage. Runs entirely on localhost.
+ *
+ * <p>Arguments are {@code key=value} pairs; see {@link #DEFAULTS}. Per-target settings are
+ * prefixed with the target name, e.g. {@code log-service.latency=2000} for a slow target,
+ * {@code log-service.latency=600000} for a hanging one or {@code log-service.error-rate=0.2}.
+ *
+ * <p>{@code modes=platform,virtual} runs the whole test once per execution mode against a fresh
+ * application: {@code platform} is the default configuration and {@code virtual} activates the
+ * {@code virtual} Spring profile, which needs a Java 21 build ({@code -Pjava21}).
+ */
+public final class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("levels", "1,16,64,256");
+        DEFAULTS.put("duration", "10");
+        DEFAULTS.put("warmup", "3");
+        DEFAULTS.put("endpoints", "/api/status,/actuator/health,/api/status/log-service/info");
+        DEFAULTS.put("poll-interval", "5000");
+        DEFAULTS.put("heap", "512m");
+        DEFAULTS.put("modes", "platform");
+        DEFAULTS.put("app-args", "");
+        for (String target : List.of("api-server", "log-service")) {
+            DEFAULTS.put(target + ".latency", "0");
+            DEFAULTS.put(target + ".error-rate", "0");
+            DEFAULTS.put(target + ".components", "8");
+            DEFAULTS.put(target + ".info-entries", "20");
+            DEFAULTS.put(target + ".metric-names", "100");
+        }
+    }
+
+    private final Map<String, String> settings;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String baseUrl;
+
+    private LoadTest(Map<String, String> settings) {
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0 || !DEFAULTS.containsKey(arg.substring(0, separator))) {
+                System.err.println("Unknown argument " + arg + "; known settings: " + DEFAULTS);
+                System.exit(2);
+            }
+            settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        new LoadTest(settings).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        List<StubActuatorServer> stubs = new ArrayList<>();
+        Process application = null;
+        try {
+            for (String target : List.of("api-server", "log-service")) {
+                stubs.add(StubActuatorServer.builder(target)
+                        .latencyMillis(Long.parseLong(settings.get(target + ".latency")))
+                        .errorRate(Double.parseDouble(settings.get(target + ".error-rate")))
+                        .components(Integer.parseInt(settings.get(target + ".components")))
+                        .infoEntries(Integer.parseInt(settings.get(target + ".info-entries")))
+                        .metricNames(Integer.parseInt(settings.get(target + ".metric-names")))
+                        .start());
+            }
+            System.out.println("Settings: " + settings);
+            int[] levels = Arrays.stream(settings.get("levels").split(",")).mapToInt(Integer::parseInt).toArray();
+            for (String mode : settings.get("modes").split(",")) {
+                application = startApplication(stubs, mode);
+                System.out.println();
+                System.out.println("Mode: " + mode);
+                System.out.printf(Locale.ROOT, "%-36s %6s %9s %9s %7s %9s %9s %9s %9s %8s %9s%n", "endpoint", "conc",
+                        "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms", "threads", "heap MB");
+                for (String endpoint : settings.get("endpoints").split(",")) {
+                    for (int concurrency : levels) {
+                        drive(endpoint, concurrency, Integer.parseInt(settings.get("warmup")));
+                        Result result = drive(endpoint, concurrency, Integer.parseInt(settings.get("duration")));
+                        report(endpoint, concurrency, result);
+                    }
+                }
+                stop(application);
+                application = null;
+            }
+        } finally {
+            if (application != null) {
+                stop(application);
+            }
+            stubs.forEach(StubActuatorServer::close);
+        }
+    }
+
+    private static void stop(Process application) throws InterruptedException {
+        application.destroy();
+        application.waitFor(10, TimeUnit.SECONDS);
+    }
+
+    private Process startApplication(List<StubActuatorServer> stubs, String mode) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        baseUrl = "http://127.0.0.1:" + port;
+
+        List<String> command = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xms" + settings.get("heap"), "-Xmx" + settings.get("heap"),
+                "-cp", System.getProperty("java.class.path"),
+                ActuatorServiceApplication.class.getName(),
+                "--server.port=" + port,
+                "--services.poll.interval=" + settings.get("poll-interval"),
+                "--services.history.log.enabled=false",
+                "--logging.level.root=WARN"));
+        switch (mode) {
+            case "platform" -> {
+            }
+            case "virtual" -> {
+                if (Runtime.version().feature() < 21) {
+                    throw new IllegalStateException("The virtual mode needs Java 21, running on " + Runtime.version());
+                }
+                command.add("--spring.profiles.active=virtual");
+            }
+            default -> throw new IllegalArgumentException("Unknown mode " + mode + "; use platform or virtual");
+        }
+        for (String arg : settings.get("app-args").split(",")) {
+            if (!arg.isBlank()) {
+                command.add(arg);
+            }
+        }
+        for (int i = 0; i < stubs.size(); i++) {
+            command.add("--services.targets[" + i + "].name=" + stubs.get(i).getName());
+            command.add("--services.targets[" + i + "].url=" + stubs.get(i).getUrl());
+        }
+        File log = Paths.get("target", "loadtest-application-" + mode + ".log").toFile();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(90);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                JsonNode status = getJson("/api/status");
+                if (status != null && !"UNKNOWN".equals(status.path("overallStatus").asText())) {
+                    return process;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(250);
+        }
+        process.destroy();
+        throw new IllegalStateException("Application did not complete a poll within 90s, see " + log);
+    }
+
+    private Result drive(String endpoint, int concurrency, int seconds) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+        long endAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        Worker[] workers = new Worker[concurrency];
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(request, endAt, done);
+            workers[i] = worker;
+            Thread thread = new Thread(worker, "load-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - startedAt;
+
+        int count = 0;
+        long errors = 0;
+        for (Worker worker : workers) {
+            count += worker.count;
+            errors += worker.errors;
+        }
+        long[] latencies = new long[count];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors, elapsed);
+    }
+
+    private void report(String endpoint, int concurrency, Result result) {
+        long[] latencies = result.latencies();
+        double throughput = latencies.length / (result.elapsedNanos() / 1e9);
+        String threads = "-";
+        String heap = "-";
+        try {
+            threads = String.valueOf(metricValue("jvm.threads.live", null));
+            heap = String.valueOf(metricValue("jvm.memory.used", "area:heap") / (1024 * 1024));
+        } catch (IOException | InterruptedException e) {
+            // The application may be saturated; the latency figures still stand
+        }
+        System.out.printf(Locale.ROOT, "%-36s %6d %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %8s %9s%n", endpoint,
+                concurrency, latencies.length, throughput, result.errors(), percentile(latencies, 0.50),
+                percentile(latencies, 0.99), percentile(latencies, 0.999),
+                latencies.length > 0 ? latencies[latencies.length - 1] / 1e6 : 0.0, threads, heap);
+    }
+
+    private long metricValue(String name, String tag) throws IOException, InterruptedException {
+        JsonNode metric = getJson("/actuator/metrics/" + name + (tag != null ? "?tag=" + tag : ""));
+        return metric == null ? -1 : metric.path("measurements").path(0).path("value").asLong();
+    }
+
+    private JsonNode getJson(String path) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(5)).build(), HttpResponse.BodyHandlers.ofByteArray());
+        return response.statusCode() < 500 || path.startsWith("/api/status")
+                ? objectMapper.readTree(response.body()) : null;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private record Result(long[] latencies, long errors, long elapsedNanos) {
+    }
+
+    private final class Worker implements Runnable {
+        private final HttpRequest request;
+        private final long endAt;
+        private final CountDownLatch done;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Worker(HttpRequest request, long endAt, CountDownLatch done) {
+            this.request = request;
+            this.endAt = endAt;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (System.nanoTime() < endAt) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        // A 503 from /actuator/health reports a DOWN target, not a failed request
+                        if (response.statusCode() >= 500 && response.statusCode() != 503) {
+                            errors++;
+                        }
+                    } catch (IOException e) {
+                        errors++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+}
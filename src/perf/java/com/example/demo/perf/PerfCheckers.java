@@ -0,0 +1,76 @@
+package com.example.demo.perf;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.WebClientConfig;
+import com.example.demo.metrics.RemoteMetricStore;
+import com.example.demo.service.ActuatorResponseParser;
+import com.example.demo.service.CheckCoalescer;
+import com.example.demo.service.CheckMetrics;
+import com.example.demo.service.CheckResultListener;
+import com.example.demo.service.CircuitBreakerRegistry;
+import com.example.demo.service.RemoteServiceChecker;
+import com.example.demo.service.ServiceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wires a {@link RemoteServiceChecker} against stub targets the way the application context
+ * does, without starting Spring.
+ */
+public final class PerfCheckers implements AutoCloseable {
+
+    private final ConnectionProvider connectionProvider;
+    private final RemoteServiceChecker checker;
+    private final ServiceRegistry serviceRegistry;
+
+    public PerfCheckers(List<StubActuatorServer> stubs, ServiceProperties properties) {
+        List<ServiceProperties.Target> targets = new ArrayList<>();
+        for (StubActuatorServer stub : stubs) {
+            ServiceProperties.Target target = new ServiceProperties.Target();
+            target.setName(stub.getName());
+            target.setUrl(stub.getUrl());
+            targets.add(target);
+        }
+        properties.setTargets(targets);
+
+        WebClientConfig webClientConfig = new WebClientConfig();
+        this.connectionProvider = webClientConfig.remoteConnectionProvider(properties);
+        HttpClient httpClient = webClientConfig.remoteHttpClient(connectionProvider, properties);
+        this.serviceRegistry = new ServiceRegistry(properties);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        this.checker = new RemoteServiceChecker(webClientConfig.remoteWebClient(httpClient), httpClient, properties,
+                serviceRegistry, new ActuatorResponseParser(Jackson2ObjectMapperBuilder.json().build()),
+                new DefaultListableBeanFactory().getBeanProvider(CheckResultListener.class),
+                new CircuitBreakerRegistry(properties, meterRegistry), new CheckCoalescer(),
+                new RemoteMetricStore(), new CheckMetrics(meterRegistry));
+    }
+
+    /**
+     * Properties with response caching off, so every call reaches the stub.
+     */
+    public static ServiceProperties uncachedProperties() {
+        ServiceProperties properties = new ServiceProperties();
+        properties.getCache().setInfoTtl(0);
+        properties.getCache().setMetricsTtl(0);
+        return properties;
+    }
+
+    public RemoteServiceChecker getChecker() {
+        return checker;
+    }
+
+    public ServiceRegistry getServiceRegistry() {
+        return serviceRegistry;
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.dispose();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.perf;
+
+import com.example.demo.metrics.PrometheusTextParser;
+import com.example.demo.metrics.ScrapedMetrics;
+import com.example.demo.service.ActuatorResponseParser;
+import com.example.demo.service.ActuatorResponseParser.HealthResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing cost of each remote response type, for a small target and for a large one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class ResponseParsingBenchmark {
+
+    @Param({"small", "large"})
+    public String size;
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private final PrometheusTextParser prometheusParser = new PrometheusTextParser();
+    private ActuatorResponseParser parser;
+    private byte[] health;
+    private byte[] info;
+    private byte[] metrics;
+    private byte[] prometheus;
+
+    @Setup
+    public void setUp() {
+        boolean large = "large".equals(size);
+        parser = new ActuatorResponseParser(Jackson2ObjectMapperBuilder.json().build());
+        health = ActuatorPayloads.health(large ? 64 : 4);
+        info = ActuatorPayloads.info(large ? 500 : 10);
+        metrics = ActuatorPayloads.metrics(large ? 600 : 50);
+        prometheus = ActuatorPayloads.prometheus(large ? 600 : 50);
+    }
+
+    @Benchmark
+    public HealthResponse healthStatusOnly() {
+        return parser.parseHealth(wrap(health), false);
+    }
+
+    @Benchmark
+    public HealthResponse healthWithDetails() {
+        return parser.parseHealth(wrap(health), true);
+    }
+
+    @Benchmark
+    public Map<String, Object> info() {
+        return parser.parseObject(wrap(info));
+    }
+
+    @Benchmark
+    public List<String> metricNames() {
+        return parser.parseMetricNames(wrap(metrics));
+    }
+
+    @Benchmark
+    public ScrapedMetrics prometheus() {
+        return prometheusParser.parse(wrap(prometheus));
+    }
+
+    private DataBuffer wrap(byte[] body) {
+        return bufferFactory.wrap(body);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.perf;
+
+import com.example.demo.model.AggregatedStatus;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.ActuatorResponseParser;
+import com.example.demo.service.EncodedBody;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning an aggregated snapshot into response bytes, with the health component
+ * trees a real target reports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class SerializationBenchmark {
+
+    @Param({"2", "32"})
+    public int services;
+
+    @Param({"8"})
+    public int components;
+
+    private ObjectMapper objectMapper;
+    private AggregatedStatus aggregatedStatus;
+
+    @Setup
+    public void setUp() {
+        // Configured like the application's ObjectMapper (ISO dates, JSR-310 module)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ActuatorResponseParser parser = new ActuatorResponseParser(objectMapper);
+
+        List<ServiceStatus> statuses = new ArrayList<>();
+        for (int i = 0; i < services; i++) {
+            ServiceStatus status = new ServiceStatus("service-" + i, "UP");
+            status.setDetails(parser.parseHealth(
+                    DefaultDataBufferFactory.sharedInstance.wrap(ActuatorPayloads.health(components)), true).details());
+            status.setLatencyMillis(20L + i);
+            statuses.add(status);
+        }
+        aggregatedStatus = new AggregatedStatus();
+        aggregatedStatus.setServices(statuses);
+    }
+
+    @Benchmark
+    public byte[] aggregatedStatusJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(aggregatedStatus);
+    }
+
+    @Benchmark
+    public EncodedBody encodedSnapshot() {
+        return EncodedBody.of(objectMapper, aggregatedStatus);
+    }
+
+    @Benchmark
+    public byte[] encodedSnapshotGzip() {
+        return EncodedBody.of(objectMapper, aggregatedStatus).getGzip();
+    }
+}
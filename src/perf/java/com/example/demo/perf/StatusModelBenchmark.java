@@ -0,0 +1,90 @@
+package com.example.demo.perf;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.history.StatusHistoryStore;
+import com.example.demo.model.AggregatedStatus;
+import com.example.demo.model.CheckType;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.ActuatorResponseParser;
+import com.example.demo.service.ServiceStateTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-check cost of the status model once a health response has been parsed: building the
+ * result, recording it in the history and stabilising it, as every scheduled health check does,
+ * and assembling the aggregate of all targets, as every snapshot rebuild does. Meant to be run
+ * with {@code -prof gc}, whose {@code gc.alloc.rate.norm} is the bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class StatusModelBenchmark {
+
+    @Param({"32", "512"})
+    public int services;
+
+    private String[] names;
+    private Map<String, Object> details;
+    private ServiceStateTracker serviceStateTracker;
+    private StatusHistoryStore statusHistoryStore;
+    private List<ServiceStatus> stable;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ServiceProperties properties = new ServiceProperties();
+        serviceStateTracker = new ServiceStateTracker(properties, new SimpleMeterRegistry());
+        statusHistoryStore = new StatusHistoryStore(properties);
+        // Health details as parsed once; unchanged responses share them
+        details = new ActuatorResponseParser(Jackson2ObjectMapperBuilder.json().build())
+                .parseHealth(DefaultDataBufferFactory.sharedInstance.wrap(ActuatorPayloads.health(8)), true)
+                .details();
+
+        names = new String[services];
+        stable = new ArrayList<>(services);
+        for (int i = 0; i < services; i++) {
+            names[i] = "service-" + i;
+            stable.add(healthCheck());
+        }
+    }
+
+    @Benchmark
+    public ServiceStatus healthCheck() {
+        String name = names[next];
+        next = next + 1 == services ? 0 : next + 1;
+
+        ServiceStatus observed = new ServiceStatus(name, "UP");
+        observed.setDetails(details);
+        observed.setLatencyMillis(20L);
+        statusHistoryStore.onCheckResult(CheckType.HEALTH, observed);
+        return serviceStateTracker.apply(observed);
+    }
+
+    @Benchmark
+    public AggregatedStatus aggregate() {
+        AggregatedStatus aggregatedStatus = new AggregatedStatus();
+        aggregatedStatus.setServices(stable);
+        return aggregatedStatus;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.demo.perf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-in for a remote service's actuator endpoints, built on the JDK HTTP server
+ * so it runs offline with no extra dependencies. Latency, error rate and payload sizes are
+ * configurable to model slow, flaky or hanging targets.
+ */
+public final class StubActuatorServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Builder settings;
+    private final byte[] health;
+    private final byte[] info;
+    private final byte[] metrics;
+    private final byte[] prometheus;
+
+    private StubActuatorServer(Builder settings) throws IOException {
+        this.settings = settings;
+        this.health = ActuatorPayloads.health(settings.components);
+        this.info = ActuatorPayloads.info(settings.infoEntries);
+        this.metrics = ActuatorPayloads.metrics(settings.metricNames);
+        this.prometheus = ActuatorPayloads.prometheus(settings.metricNames);
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", settings.port), 1024);
+        // Injected latency sleeps on the handler thread, so the pool must not be the bottleneck
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-" + settings.name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/actuator/health", exchange -> respond(exchange, health));
+        server.createContext("/actuator/info", exchange -> respond(exchange, info));
+        server.createContext("/actuator/prometheus", exchange -> respond(exchange, prometheus, "text/plain;version=0.0.4"));
+        server.createContext("/actuator/metrics", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.length() > "/actuator/metrics/".length()) {
+                respond(exchange, ActuatorPayloads.metric(path.substring("/actuator/metrics/".length())));
+            } else {
+                respond(exchange, metrics);
+            }
+        });
+        server.start();
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return settings.name;
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        respond(exchange, body, "application/json");
+    }
+
+    private void respond(HttpExchange exchange, byte[] body, String contentType) throws IOException {
+        try (InputStream request = exchange.getRequestBody()) {
+            request.readAllBytes();
+            if (settings.latencyMillis > 0) {
+                TimeUnit.MILLISECONDS.sleep(settings.latencyMillis);
+            }
+            if (settings.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    public static final class Builder {
+        private final String name;
+        private int port;
+        private long latencyMillis;
+        private double errorRate;
+        private int components = 8;
+        private int infoEntries = 20;
+        private int metricNames = 100;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder latencyMillis(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+            return this;
+        }
+
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        public Builder components(int components) {
+            this.components = components;
+            return this;
+        }
+
+        public Builder infoEntries(int infoEntries) {
+            this.infoEntries = infoEntries;
+            return this;
+        }
+
+        public Builder metricNames(int metricNames) {
+            this.metricNames = metricNames;
+            return this;
+        }
+
+        public StubActuatorServer start() throws IOException {
+            return new StubActuatorServer(this);
+        }
+    }
+}
@@ -1,11 +1,31 @@
 package com.example.demo;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
-@SpringBootTest
+import java.nio.file.Path;
+
+// No check is scheduled, so loading the context never reaches the configured services
+@SpringBootTest(properties = {
+		"services.poll.interval=0",
+		"services.scheduler.intervals.info=0",
+		"services.scheduler.intervals.metrics=0",
+		"services.scheduler.intervals.metric-details=0",
+		"services.scrape.enabled=false"
+})
 class ActuatorServiceApplicationTests {
 
+	@TempDir
+	static Path historyDirectory;
+
+	@DynamicPropertySource
+	static void historyLog(DynamicPropertyRegistry registry) {
+		registry.add("services.history.log.directory", historyDirectory::toString);
+	}
+
 	@Test
 	void contextLoads() {
 	}
@@ -0,0 +1,90 @@
+package com.example.demo.alert;
+
+import com.example.demo.config.ServiceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertDispatcherTests {
+
+	private final ServiceProperties properties = new ServiceProperties();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final PendingSink pendingSink = new PendingSink();
+
+	@Test
+	void countsNotificationsOnceDeliveryCompletes() {
+		AlertDispatcher dispatcher = dispatcher();
+
+		dispatcher.deliver(event(AlertEvent.State.FIRING));
+		dispatcher.deliver(event(AlertEvent.State.FIRING));
+		assertThat(count("sent")).isZero();
+		assertThat(count("failed")).isZero();
+
+		pendingSink.deliveries.get(0).tryEmitEmpty();
+		pendingSink.deliveries.get(1).tryEmitError(new IllegalStateException("503 Service Unavailable"));
+		assertThat(count("sent")).isEqualTo(1);
+		assertThat(count("failed")).isEqualTo(1);
+	}
+
+	@Test
+	void deliversResolutionsOverTheRateLimit() {
+		properties.getAlerts().setRateLimit(1);
+		AlertDispatcher dispatcher = dispatcher();
+
+		dispatcher.deliver(event(AlertEvent.State.FIRING));
+		dispatcher.deliver(event(AlertEvent.State.FIRING));
+		dispatcher.deliver(event(AlertEvent.State.RESOLVED));
+
+		assertThat(pendingSink.events).extracting(AlertEvent::state)
+				.containsExactly(AlertEvent.State.FIRING, AlertEvent.State.RESOLVED);
+		assertThat(count("rate_limited")).isEqualTo(1);
+	}
+
+	private AlertDispatcher dispatcher() {
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("pendingSink", pendingSink);
+		return new AlertDispatcher(properties, beanFactory.getBeanProvider(AlertSink.class), meterRegistry);
+	}
+
+	private double count(String outcome) {
+		return meterRegistry.get("status.alerts.notifications").tag("sink", "pending").tag("outcome", outcome)
+				.counter().count();
+	}
+
+	private static AlertEvent event(AlertEvent.State state) {
+		return new AlertEvent("log-service-down", "log-service", state, "log-service is DOWN", Instant.now(), List.of());
+	}
+
+	/**
+	 * Completes each delivery only when the test says so, like a webhook waiting for its response.
+	 */
+	private static final class PendingSink implements AlertSink {
+
+		private final List<AlertEvent> events = new ArrayList<>();
+
+		private final List<Sinks.Empty<Void>> deliveries = new ArrayList<>();
+
+		@Override
+		public String getName() {
+			return "pending";
+		}
+
+		@Override
+		public Mono<Void> send(AlertEvent event) {
+			Sinks.Empty<Void> delivery = Sinks.empty();
+			events.add(event);
+			deliveries.add(delivery);
+			return delivery.asMono();
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package com.example.demo.alert;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Alerts.Rule;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.model.CheckType;
+import com.example.demo.model.EpochNanos;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.ServiceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AlertEngineTests {
+
+	private final ServiceProperties properties = new ServiceProperties();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	AlertEngineTests() {
+		properties.getTargets().add(target("api-server"));
+		Target logService = target("log-service");
+		logService.setMetricNames(List.of("logs.errors"));
+		properties.getTargets().add(logService);
+	}
+
+	@Test
+	void firesOnceAfterDurationAndResolves() {
+		AlertEngine engine = engine(rule("log-service-down", "log-service", "status", rule -> rule.setDuration(60_000)));
+
+		assertThat(engine.evaluate(CheckType.HEALTH, status("log-service", "DOWN"), 0)).isEmpty();
+		assertThat(engine.evaluate(CheckType.HEALTH, status("log-service", "DOWN"), 30_000)).isEmpty();
+		List<AlertEvent> firing = engine.evaluate(CheckType.HEALTH, status("log-service", "DOWN"), 60_000);
+		assertThat(firing).singleElement().satisfies(event -> {
+			assertThat(event.state()).isEqualTo(AlertEvent.State.FIRING);
+			assertThat(event.service()).isEqualTo("log-service");
+		});
+		// Still down: no duplicate notification
+		assertThat(engine.evaluate(CheckType.HEALTH, status("log-service", "DOWN"), 65_000)).isEmpty();
+		// Other services and check types do not reach the rule
+		assertThat(engine.evaluate(CheckType.HEALTH, status("api-server", "UP"), 70_000)).isEmpty();
+		assertThat(engine.evaluate(CheckType.INFO, status("log-service", "UP"), 70_000)).isEmpty();
+
+		assertThat(engine.evaluate(CheckType.HEALTH, status("log-service", "UP"), 75_000))
+				.singleElement().extracting(AlertEvent::state).isEqualTo(AlertEvent.State.RESOLVED);
+	}
+
+	@Test
+	void firesOnLatencyPercentileOverWindow() {
+		AlertEngine engine = engine(rule("api-server-slow", "api-server", "latency", rule -> {
+			rule.setPercentile(0.9);
+			rule.setThreshold(2000);
+			rule.setWindow(100_000);
+			rule.setMinSamples(10);
+		}));
+
+		long now = 0;
+		for (int i = 0; i < 9; i++) {
+			assertThat(engine.evaluate(CheckType.HEALTH, latency("api-server", 100), now += 1000)).isEmpty();
+		}
+		// 1 of 10 slow: p90 is still fast
+		assertThat(engine.evaluate(CheckType.HEALTH, latency("api-server", 2500), now += 1000)).isEmpty();
+		assertThat(engine.evaluate(CheckType.HEALTH, latency("api-server", 2500), now += 1000))
+				.singleElement().extracting(AlertEvent::state).isEqualTo(AlertEvent.State.FIRING);
+
+		// Once the slow samples leave the window the rule resolves
+		for (int i = 0; i < 12; i++) {
+			engine.evaluate(CheckType.HEALTH, latency("api-server", 100), now += 10_000);
+		}
+		assertThat(engine.evaluate(CheckType.HEALTH, latency("api-server", 100), now += 10_000)).isEmpty();
+		assertThat(engine.evaluate(CheckType.HEALTH, latency("api-server", 2500), now += 1000)).isEmpty();
+	}
+
+	@Test
+	void firesOnCounterRateAcrossResets() {
+		AlertEngine engine = engine(rule("log-errors", "log-service", "metric-rate", rule -> {
+			rule.setMetric("logs.errors");
+			rule.setThreshold(1.0);
+			rule.setWindow(60_000);
+		}));
+
+		assertThat(engine.evaluate(CheckType.METRIC_DETAILS, metric("log-service", 100), 0)).isEmpty();
+		assertThat(engine.evaluate(CheckType.METRIC_DETAILS, metric("log-service", 130), 30_000)).isEmpty();
+		// Counter reset to 50: 30 + 50 errors in 60s
+		assertThat(engine.evaluate(CheckType.METRIC_DETAILS, metric("log-service", 50), 60_000))
+				.singleElement().satisfies(event -> assertThat(event.message()).contains("1.333"));
+	}
+
+	@Test
+	void timesCounterRatesBySampleTime() {
+		AlertEngine engine = engine(rule("log-errors", "log-service", "metric-rate", rule -> {
+			rule.setMetric("logs.errors");
+			rule.setThreshold(1.0);
+			rule.setWindow(60_000);
+		}));
+
+		engine.onCheckResult(CheckType.METRIC_DETAILS, sampled(metric("log-service", 0), 0));
+		ServiceStatus scrape = sampled(metric("log-service", 30), 30_000);
+		engine.onCheckResult(CheckType.METRIC_DETAILS, scrape);
+		// The same scrape again, e.g. from an on-demand /metrics/details request, adds no sample
+		engine.onCheckResult(CheckType.METRIC_DETAILS, scrape);
+		assertThat(firing()).isZero();
+
+		// 60 errors in the 40s since the first sample
+		engine.onCheckResult(CheckType.METRIC_DETAILS, sampled(metric("log-service", 60), 40_000));
+		assertThat(firing()).isEqualTo(1);
+
+		// Once the burst has left the window the rate is measured from later samples only
+		long time = 40_000;
+		for (int i = 0; i < 8; i++) {
+			engine.onCheckResult(CheckType.METRIC_DETAILS, sampled(metric("log-service", 60 + i), time += 10_000));
+		}
+		assertThat(firing()).isZero();
+	}
+
+	@Test
+	void rejectsInvalidRules() {
+		assertThatThrownBy(() -> engine(rule("unknown", "cache", "status", rule -> {
+		}))).hasMessageContaining("unknown service cache");
+		assertThatThrownBy(() -> engine(rule("missing-metric", "api-server", "metric", rule -> rule.setMetric("logs.errors"))))
+				.hasMessageContaining("metric-names");
+		assertThatThrownBy(() -> engine(rule("pager", "api-server", "status", rule -> rule.setSinks(List.of("pager")))))
+				.hasMessageContaining("unknown sink pager");
+	}
+
+	private AlertEngine engine(Rule rule) {
+		properties.getAlerts().setRules(List.of(rule));
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("logAlertSink", new LogAlertSink());
+		AlertDispatcher dispatcher = new AlertDispatcher(properties, beanFactory.getBeanProvider(AlertSink.class), meterRegistry);
+		return new AlertEngine(properties, new ServiceRegistry(properties), dispatcher, meterRegistry);
+	}
+
+	private double firing() {
+		return meterRegistry.get("status.alerts.firing").gauge().value();
+	}
+
+	private static Rule rule(String name, String service, String type, Consumer<Rule> customizer) {
+		Rule rule = new Rule();
+		rule.setName(name);
+		rule.setService(service);
+		rule.setType(type);
+		customizer.accept(rule);
+		return rule;
+	}
+
+	private static Target target(String name) {
+		Target target = new Target();
+		target.setName(name);
+		target.setUrl("http://localhost");
+		return target;
+	}
+
+	private static ServiceStatus status(String service, String status) {
+		return new ServiceStatus(service, status);
+	}
+
+	private static ServiceStatus latency(String service, long latencyMillis) {
+		ServiceStatus status = new ServiceStatus(service, "UP");
+		status.setLatencyMillis(latencyMillis);
+		return status;
+	}
+
+	private static ServiceStatus sampled(ServiceStatus status, long epochMillis) {
+		status.setTimestampNanos(EpochNanos.ofMillis(epochMillis));
+		return status;
+	}
+
+	private static ServiceStatus metric(String service, double count) {
+		ServiceStatus status = new ServiceStatus(service, "UP");
+		status.setDetails(Map.of("logs.errors", Map.of("name", "logs.errors",
+				"measurements", List.of(Map.of("statistic", "COUNT", "value", count)))));
+		return status;
+	}
+}
@@ -0,0 +1,242 @@
+package com.example.demo.cluster;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.model.HealthStatus;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.ServiceRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClusterServiceTests {
+
+	private static final String A = "http://a:8080";
+
+	private static final String B = "http://b:8080";
+
+	private static final String C = "http://c:8080";
+
+	private final ServiceProperties properties = new ServiceProperties();
+
+	private final PeerMessageCodec codec = new PeerMessageCodec(new ObjectMapper());
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final Map<String, List<PeerMessage>> sent = new HashMap<>();
+
+	private final Set<String> unreachable = new HashSet<>();
+
+	@TempDir
+	Path directory;
+
+	ClusterServiceTests() {
+		for (int i = 0; i < 20; i++) {
+			Target target = new Target();
+			target.setName("service-" + i);
+			target.setUrl("http://service-" + i + ".example");
+			properties.getTargets().add(target);
+		}
+		properties.getCluster().setEnabled(true);
+		properties.getCluster().setSelfUrl(A + "/");
+	}
+
+	@Test
+	void dropsSilentPeersAndTakesOverTheirTargets() throws Exception {
+		properties.getCluster().setPeers(List.of(B, C));
+		properties.getCluster().setFailureTimeout(200);
+		ClusterService cluster = cluster();
+
+		cluster.join();
+		assertOwnership(cluster, A, B, C);
+		cluster.heartbeat();
+		assertOwnership(cluster, A, B, C);
+
+		// b keeps answering, c stays silent past the failure timeout
+		unreachable.add("c");
+		Thread.sleep(300);
+		cluster.heartbeat();
+		assertOwnership(cluster, A, B);
+		assertThat(meterRegistry.get("status.cluster.members").gauge().value()).isEqualTo(2);
+
+		// A heartbeat from c brings it back
+		cluster.receive(codec.encode(new PeerMessage(C, 1L, List.of())), null);
+		cluster.heartbeat();
+		assertOwnership(cluster, A, B, C);
+	}
+
+	@Test
+	void followsTheMembersFile() throws Exception {
+		Path members = directory.resolve("members");
+		Files.writeString(members, "# Replicas\n" + B + "\n");
+		properties.getCluster().setMembersFile(members.toString());
+		ClusterService cluster = cluster();
+
+		cluster.join();
+		assertOwnership(cluster, A, B);
+
+		update(members, B + "\n" + C + "/\n");
+		cluster.heartbeat();
+		assertOwnership(cluster, A, B, C);
+
+		update(members, C + "\n");
+		cluster.heartbeat();
+		assertOwnership(cluster, A, C);
+		assertThat(sent).containsOnlyKeys("b", "c");
+	}
+
+	@Test
+	void resendsEverythingAfterAFailedHeartbeatOrAPeerRestart() {
+		properties.getCluster().setPeers(List.of(B));
+		ClusterService cluster = cluster();
+		cluster.join();
+		List<String> owned = new ArrayList<>();
+		for (Target target : properties.getTargets()) {
+			if (cluster.isOwner(target.getName())) {
+				owned.add(target.getName());
+			}
+		}
+		String first = owned.get(0);
+		String second = owned.get(1);
+
+		cluster.onLocalResult(new ServiceStatus(first, HealthStatus.UP));
+		cluster.onLocalResult(new ServiceStatus(second, HealthStatus.UP));
+		cluster.heartbeat();
+		assertThat(lastSentTo("b")).containsExactlyInAnyOrder(first, second);
+
+		// Only what changed since b acknowledged the last heartbeat
+		cluster.heartbeat();
+		assertThat(lastSentTo("b")).isEmpty();
+		cluster.onLocalResult(new ServiceStatus(first, HealthStatus.DOWN));
+		cluster.heartbeat();
+		assertThat(lastSentTo("b")).containsExactly(first);
+
+		unreachable.add("b");
+		cluster.onLocalResult(new ServiceStatus(second, HealthStatus.DOWN));
+		cluster.heartbeat();
+		unreachable.clear();
+		cluster.heartbeat();
+		assertThat(lastSentTo("b")).containsExactlyInAnyOrder(first, second);
+
+		// b restarted and lost everything it was sent
+		cluster.heartbeat();
+		assertThat(lastSentTo("b")).isEmpty();
+		cluster.receive(codec.encode(new PeerMessage(B, 2L, List.of())), null);
+		cluster.heartbeat();
+		assertThat(lastSentTo("b")).containsExactlyInAnyOrder(first, second);
+	}
+
+	@Test
+	void acceptsResultsOnlyForConfiguredTargetsOwnedByOthers() {
+		properties.getCluster().setPeers(List.of(B));
+		properties.getCluster().setToken("secret");
+		ClusterService cluster = cluster();
+		cluster.join();
+		String ownedHere = null;
+		String ownedByB = null;
+		for (Target target : properties.getTargets()) {
+			if (cluster.isOwner(target.getName())) {
+				ownedHere = target.getName();
+			} else {
+				ownedByB = target.getName();
+			}
+		}
+
+		byte[] body = codec.encode(new PeerMessage(B, 1L, List.of(new ServiceStatus(ownedHere, HealthStatus.DOWN),
+				new ServiceStatus(ownedByB, HealthStatus.DOWN), new ServiceStatus("cache", HealthStatus.DOWN))));
+
+		assertThat(cluster.receive(body, "secret")).extracting(ServiceStatus::getServiceName).containsExactly(ownedByB);
+		assertThat(cluster.receive(codec.encode(new PeerMessage("http://d:8080", 1L,
+				List.of(new ServiceStatus(ownedByB, HealthStatus.DOWN)))), "secret")).isEmpty();
+		assertThatThrownBy(() -> cluster.receive(body, "wrong")).isInstanceOf(SecurityException.class);
+	}
+
+	private ClusterService cluster() {
+		WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+			String host = request.url().getHost();
+			sent.computeIfAbsent(host, key -> new ArrayList<>()).add(codec.decode(body(request)));
+			return unreachable.contains(host)
+					? Mono.error(new ConnectException("Connection refused"))
+					: Mono.just(ClientResponse.create(HttpStatus.OK).build());
+		});
+		return new ClusterService(properties, new ServiceRegistry(properties), new ObjectMapper(), webClientBuilder,
+				meterRegistry);
+	}
+
+	/**
+	 * Every target is owned here exactly when a ring of {@code members} assigns it to this replica.
+	 */
+	private void assertOwnership(ClusterService cluster, String... members) {
+		ConsistentHashRing ring = new ConsistentHashRing(List.of(members), properties.getCluster().getVirtualNodes());
+		for (Target target : properties.getTargets()) {
+			assertThat(cluster.isOwner(target.getName())).as(target.getName())
+					.isEqualTo(A.equals(ring.owner(target.getName())));
+		}
+	}
+
+	private List<String> lastSentTo(String host) {
+		List<PeerMessage> messages = sent.get(host);
+		return messages.get(messages.size() - 1).results().stream().map(ServiceStatus::getServiceName).toList();
+	}
+
+	private static void update(Path file, String content) throws IOException {
+		FileTime modified = Files.getLastModifiedTime(file);
+		Files.writeString(file, content);
+		// The file is only re-read when its modification time changes
+		Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 1000));
+	}
+
+	private static byte[] body(ClientRequest request) {
+		MockClientHttpRequest written = new MockClientHttpRequest(request.method(), request.url());
+		request.body().insert(written, new BodyInserter.Context() {
+			@Override
+			public List<HttpMessageWriter<?>> messageWriters() {
+				return ExchangeStrategies.withDefaults().messageWriters();
+			}
+
+			@Override
+			public Optional<ServerHttpRequest> serverRequest() {
+				return Optional.empty();
+			}
+
+			@Override
+			public Map<String, Object> hints() {
+				return Map.of();
+			}
+		}).block();
+		return DataBufferUtils.join(written.getBody()).map(buffer -> {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			return bytes;
+		}).block();
+	}
+}
@@ -0,0 +1,51 @@
+package com.example.demo.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTests {
+
+	private static final List<String> MEMBERS = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+
+	@Test
+	void spreadsKeysOverAllMembers() {
+		ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 128);
+
+		Map<String, Integer> owned = new HashMap<>();
+		for (int i = 0; i < 3000; i++) {
+			owned.merge(ring.owner("service-" + i), 1, Integer::sum);
+		}
+		assertThat(owned).containsOnlyKeys(MEMBERS);
+		assertThat(owned.values()).allSatisfy(count -> assertThat(count).isBetween(700, 1300));
+	}
+
+	@Test
+	void removingMemberOnlyMovesItsKeys() {
+		ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 128);
+		ConsistentHashRing shrunk = new ConsistentHashRing(List.of("http://a:8080", "http://c:8080"), 128);
+
+		for (int i = 0; i < 3000; i++) {
+			String key = "service-" + i;
+			String owner = ring.owner(key);
+			if (!owner.equals("http://b:8080")) {
+				assertThat(shrunk.owner(key)).isEqualTo(owner);
+			}
+		}
+	}
+
+	@Test
+	void ownershipDoesNotDependOnMemberOrder() {
+		ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 16);
+		ConsistentHashRing reordered = new ConsistentHashRing(List.of("http://c:8080", "http://a:8080", "http://b:8080"), 16);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(reordered.owner("service-" + i)).isEqualTo(ring.owner("service-" + i));
+		}
+		assertThat(new ConsistentHashRing(List.of(), 16).owner("service-0")).isNull();
+	}
+}
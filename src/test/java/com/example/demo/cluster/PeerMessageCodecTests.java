@@ -0,0 +1,50 @@
+package com.example.demo.cluster;
+
+import com.example.demo.model.ServiceStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PeerMessageCodecTests {
+
+	private final PeerMessageCodec codec = new PeerMessageCodec(new ObjectMapper());
+
+	@Test
+	void roundTripsResults() {
+		ServiceStatus degraded = new ServiceStatus("log-service", "DEGRADED");
+		degraded.setTimestamp(LocalDateTime.of(2024, 5, 1, 12, 0, 0));
+		degraded.setObservedStatus("UP");
+		degraded.setFlapping(true);
+		degraded.setLatencyMillis(2400L);
+		degraded.setDetails(Map.of("db", Map.of("status", "UP", "details", Map.of("database", "PostgreSQL"))));
+
+		ServiceStatus down = new ServiceStatus("api-server", "MAINTENANCE");
+		down.setTimestamp(LocalDateTime.of(2024, 5, 1, 12, 0, 1));
+		down.setError("Connection refused");
+
+		PeerMessage decoded = codec.decode(codec.encode(new PeerMessage("http://a:8080", 42L, List.of(degraded, down))));
+
+		assertThat(decoded.sender()).isEqualTo("http://a:8080");
+		assertThat(decoded.incarnation()).isEqualTo(42L);
+		assertThat(decoded.results()).hasSize(2);
+		assertThat(decoded.results().get(0)).usingRecursiveComparison().isEqualTo(degraded);
+		assertThat(decoded.results().get(1)).usingRecursiveComparison().isEqualTo(down);
+	}
+
+	@Test
+	void rejectsForeignBodies() {
+		assertThatThrownBy(() -> codec.decode("{\"status\":\"UP\"}".getBytes()))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		byte[] truncated = codec.encode(new PeerMessage("http://a:8080", 1L, List.of(new ServiceStatus("log-service", "UP"))));
+		assertThatThrownBy(() -> codec.decode(Arrays.copyOf(truncated, truncated.length - 4)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import com.example.demo.config.ServiceProperties.Target;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServicePropertiesTests {
+
+	@Test
+	void mapsLegacyUrlsOntoTargets() {
+		ServiceProperties properties = bind(Map.of(
+				"services.targets[0].name", "api-server",
+				"services.targets[0].url", "https://api.example",
+				"services.targets[0].read-timeout", "15000",
+				"services.api-server.url", "https://api.staging.example",
+				"services.log-service.url", "https://logs.staging.example"));
+		properties.validate();
+
+		// The legacy URL overrides the target of the same name and keeps its other settings
+		assertThat(properties.getTargets()).extracting(Target::getName).containsExactly("api-server", "log-service");
+		assertThat(properties.getTargets().get(0).getUrl()).isEqualTo("https://api.staging.example");
+		assertThat(properties.getTargets().get(0).getReadTimeout()).isEqualTo(15000);
+		assertThat(properties.getTargets().get(1).getUrl()).isEqualTo("https://logs.staging.example");
+	}
+
+	@Test
+	void leavesTargetsAloneWithoutLegacyUrls() {
+		ServiceProperties properties = bind(Map.of(
+				"services.targets[0].name", "api-server",
+				"services.targets[0].url", "https://api.example"));
+		properties.validate();
+
+		assertThat(properties.getTargets()).singleElement().extracting(Target::getUrl).isEqualTo("https://api.example");
+	}
+
+	private static ServiceProperties bind(Map<String, String> values) {
+		return new Binder(new MapConfigurationPropertySource(values))
+				.bindOrCreate("services", Bindable.of(ServiceProperties.class));
+	}
+}
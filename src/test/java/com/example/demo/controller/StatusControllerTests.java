@@ -0,0 +1,25 @@
+package com.example.demo.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatusControllerTests {
+
+	@Test
+	void negotiatesGzipByQuality() {
+		assertThat(StatusController.acceptsGzip(List.of("gzip"))).isTrue();
+		assertThat(StatusController.acceptsGzip(List.of("br, deflate;q=0.5, gzip;q=0.8"))).isTrue();
+		assertThat(StatusController.acceptsGzip(List.of("identity", "x-gzip"))).isTrue();
+		assertThat(StatusController.acceptsGzip(List.of("*;q=0.1"))).isTrue();
+
+		assertThat(StatusController.acceptsGzip(List.of("gzip;q=0"))).isFalse();
+		assertThat(StatusController.acceptsGzip(List.of("gzip; q=0.0"))).isFalse();
+		assertThat(StatusController.acceptsGzip(List.of("gzip;q=0.000, br"))).isFalse();
+		assertThat(StatusController.acceptsGzip(List.of("*, gzip;q=0"))).isFalse();
+		assertThat(StatusController.acceptsGzip(List.of("gzipx"))).isFalse();
+		assertThat(StatusController.acceptsGzip(null)).isFalse();
+	}
+}
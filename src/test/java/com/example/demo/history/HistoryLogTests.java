@@ -0,0 +1,189 @@
+package com.example.demo.history;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.model.CheckType;
+import com.example.demo.model.EpochNanos;
+import com.example.demo.model.HealthStatus;
+import com.example.demo.model.HistoryPoint;
+import com.example.demo.model.ServiceStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryLogTests {
+
+	// Header plus "api-server"
+	private static final int RECORD_SIZE = 16 + 10;
+
+	private final ServiceProperties properties = new ServiceProperties();
+
+	private final long start = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+
+	@TempDir
+	Path directory;
+
+	HistoryLogTests() {
+		properties.getHistory().getLog().setEnabled(true);
+		properties.getHistory().getLog().setSegmentSize(1024);
+	}
+
+	@Test
+	void queriesAppendedRecords() throws Exception {
+		HistoryLog log = start(new StatusHistoryStore(properties));
+		log.onCheckResult(CheckType.HEALTH, result(0, HealthStatus.UP, 12L));
+		log.onCheckResult(CheckType.INFO, result(1000, HealthStatus.UP, 30L));
+		log.onCheckResult(CheckType.HEALTH, result(2000, HealthStatus.DOWN, null));
+		log.onCheckResult(CheckType.HEALTH, result(3000, HealthStatus.UP, 14L));
+		log.stop();
+
+		List<HistoryPoint> points = log.query("api-server", CheckType.HEALTH, start, start + 3000);
+
+		assertThat(points).extracting(HistoryPoint::getStatus).containsExactly("UP", "DOWN");
+		assertThat(points).extracting(HistoryPoint::getLatencyMillis).containsExactly(12L, null);
+		assertThat(log.query("log-service", CheckType.HEALTH, start, Long.MAX_VALUE)).isEmpty();
+	}
+
+	@Test
+	void replaysAndContinuesTheLastSegmentAfterRestart() throws Exception {
+		HistoryLog first = start(new StatusHistoryStore(properties));
+		write(first, 0, 2);
+		first.stop();
+
+		StatusHistoryStore store = new StatusHistoryStore(properties);
+		HistoryLog second = start(store);
+		assertThat(store.query("api-server", CheckType.HEALTH, Resolution.RAW, 0, Long.MAX_VALUE)).hasSize(2);
+		write(second, 2, 1);
+		second.stop();
+
+		assertThat(segments()).hasSize(1);
+		assertThat(second.query("api-server", CheckType.HEALTH, 0, Long.MAX_VALUE))
+				.extracting(HistoryPoint::getLatencyMillis).containsExactly(0L, 1L, 2L);
+	}
+
+	@Test
+	void rollsOverToANewSegmentWhenFull() throws Exception {
+		HistoryLog log = start(new StatusHistoryStore(properties));
+		write(log, 0, 100);
+		log.stop();
+
+		// 39 records fit into a 1024 byte segment
+		assertThat(segments()).hasSize(3);
+		assertThat(log.query("api-server", CheckType.HEALTH, 0, Long.MAX_VALUE)).hasSize(100);
+		// Segments outside the range are skipped, those overlapping it are filtered
+		assertThat(log.query("api-server", CheckType.HEALTH, start + 40_000, start + 50_000)).hasSize(10);
+	}
+
+	@Test
+	void deletesOldestSegmentsOverMaxTotalSize() throws Exception {
+		properties.getHistory().getLog().setMaxTotalSize(2048);
+		HistoryLog log = start(new StatusHistoryStore(properties));
+		write(log, 0, 100);
+		log.stop();
+
+		assertThat(segments()).hasSize(2);
+		List<HistoryPoint> points = log.query("api-server", CheckType.HEALTH, 0, Long.MAX_VALUE);
+		assertThat(points).hasSize(100 - 39);
+		assertThat(points.get(points.size() - 1).getLatencyMillis()).isEqualTo(99L);
+	}
+
+	@Test
+	void deletesSegmentsOlderThanMaxAge() throws Exception {
+		HistoryLog first = start(new StatusHistoryStore(properties));
+		// The first segment only holds records from an hour ago
+		write(first, 0, 39);
+		first.onCheckResult(CheckType.HEALTH, result(TimeUnit.MINUTES.toMillis(59), HealthStatus.UP, 1L));
+		first.stop();
+		assertThat(segments()).hasSize(2);
+
+		properties.getHistory().getLog().setMaxAge(TimeUnit.MINUTES.toMillis(30));
+		HistoryLog second = start(new StatusHistoryStore(properties));
+		second.stop();
+
+		assertThat(segments()).hasSize(1);
+		assertThat(second.query("api-server", CheckType.HEALTH, 0, Long.MAX_VALUE)).hasSize(1);
+	}
+
+	@Test
+	void ignoresGarbageAtTheTailOfASegment() throws Exception {
+		HistoryLog first = start(new StatusHistoryStore(properties));
+		write(first, 0, 2);
+		first.stop();
+		try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+			// A timestamp followed by an unknown check type, as a torn write could leave behind
+			file.seek(2 * RECORD_SIZE);
+			file.writeLong(start);
+			file.writeInt(5);
+			file.writeByte(99);
+		}
+
+		StatusHistoryStore store = new StatusHistoryStore(properties);
+		HistoryLog second = start(store);
+		assertThat(store.query("api-server", CheckType.HEALTH, Resolution.RAW, 0, Long.MAX_VALUE)).hasSize(2);
+		// The next record overwrites the garbage
+		write(second, 2, 1);
+		second.stop();
+
+		assertThat(segments()).hasSize(1);
+		HistoryLog third = start(new StatusHistoryStore(properties));
+		third.stop();
+		assertThat(third.query("api-server", CheckType.HEALTH, 0, Long.MAX_VALUE))
+				.extracting(HistoryPoint::getLatencyMillis).containsExactly(0L, 1L, 2L);
+	}
+
+	@Test
+	void ignoresATruncatedRecord() throws Exception {
+		HistoryLog first = start(new StatusHistoryStore(properties));
+		write(first, 0, 2);
+		first.stop();
+		try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw")) {
+			file.setLength(2 * RECORD_SIZE + 5);
+		}
+
+		HistoryLog second = start(new StatusHistoryStore(properties));
+		write(second, 2, 1);
+		second.stop();
+
+		// The truncated segment has no room left, so writing continues in a new one
+		assertThat(segments()).hasSize(2);
+		assertThat(second.query("api-server", CheckType.HEALTH, 0, Long.MAX_VALUE))
+				.extracting(HistoryPoint::getLatencyMillis).containsExactly(0L, 1L, 2L);
+	}
+
+	private HistoryLog start(StatusHistoryStore store) throws IOException {
+		properties.getHistory().getLog().setDirectory(directory.toString());
+		HistoryLog log = new HistoryLog(properties, store);
+		log.start();
+		return log;
+	}
+
+	/**
+	 * Appends {@code count} health results one second apart, each with its index as latency.
+	 */
+	private void write(HistoryLog log, int from, int count) {
+		for (int i = from; i < from + count; i++) {
+			log.onCheckResult(CheckType.HEALTH, result(i * 1000L, HealthStatus.UP, (long) i));
+		}
+	}
+
+	private ServiceStatus result(long offsetMillis, HealthStatus status, Long latencyMillis) {
+		ServiceStatus result = new ServiceStatus("api-server", status);
+		result.setTimestampNanos(EpochNanos.ofMillis(start + offsetMillis));
+		result.setLatencyMillis(latencyMillis);
+		return result;
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.sorted().toList();
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.demo.history;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.model.CheckType;
+import com.example.demo.model.HistoryPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatusHistoryStoreTests {
+
+	private static final long MINUTE = 60_000L;
+
+	@Test
+	void rawTierKeepsOnlyTheNewestSamples() {
+		StatusHistoryStore store = store(3);
+		for (int i = 0; i < 5; i++) {
+			store.record("api-server", CheckType.HEALTH, i * 1000L, 10 + i, HistoryStatus.UP);
+		}
+
+		List<HistoryPoint> points = store.query("api-server", CheckType.HEALTH, Resolution.RAW, 0, Long.MAX_VALUE);
+
+		assertThat(points).extracting(HistoryPoint::getLatencyMillis).containsExactly(12L, 13L, 14L);
+	}
+
+	@Test
+	void minuteTierAggregatesSamplesPerBucket() {
+		StatusHistoryStore store = store(10);
+		store.record("log-service", CheckType.HEALTH, 0, 100, HistoryStatus.UP);
+		store.record("log-service", CheckType.HEALTH, 30_000, 300, HistoryStatus.DOWN);
+		store.record("log-service", CheckType.HEALTH, MINUTE, 50, HistoryStatus.UP);
+
+		List<HistoryPoint> points = store.query("log-service", CheckType.HEALTH, Resolution.MINUTE, 0, 2 * MINUTE);
+
+		assertThat(points).hasSize(2);
+		assertThat(points.get(0).getSamples()).isEqualTo(2);
+		assertThat(points.get(0).getAvailability()).isEqualTo(0.5);
+		assertThat(points.get(0).getLatencyMillis()).isEqualTo(200L);
+		assertThat(points.get(0).getMaxLatencyMillis()).isEqualTo(300L);
+		assertThat(points.get(1).getSamples()).isEqualTo(1);
+	}
+
+	@Test
+	void seriesAreSeparatedByCheckType() {
+		StatusHistoryStore store = store(10);
+		store.record("api-server", CheckType.HEALTH, 0, 10, HistoryStatus.UP);
+
+		assertThat(store.query("api-server", CheckType.INFO, Resolution.RAW, 0, Long.MAX_VALUE)).isEmpty();
+	}
+
+	private StatusHistoryStore store(int rawCapacity) {
+		ServiceProperties properties = new ServiceProperties();
+		properties.getHistory().setRawCapacity(rawCapacity);
+		return new StatusHistoryStore(properties);
+	}
+}
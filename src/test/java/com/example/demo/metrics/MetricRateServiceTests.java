@@ -0,0 +1,143 @@
+package com.example.demo.metrics;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.model.CheckType;
+import com.example.demo.model.EpochNanos;
+import com.example.demo.model.HealthStatus;
+import com.example.demo.model.MetricRates;
+import com.example.demo.model.MetricRates.Series;
+import com.example.demo.model.ServiceStatus;
+import com.example.demo.service.ServiceRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MetricRateServiceTests {
+
+	private final MetricRateService service;
+
+	MetricRateServiceTests() {
+		ServiceProperties properties = new ServiceProperties();
+		properties.getRates().setWindows(List.of(60_000L, 300_000L));
+		Target target = new Target();
+		target.setName("log-service");
+		target.getPipeline().setConsumed("logs.consumed");
+		target.getPipeline().setSaved("logs.saved");
+		target.getPipeline().setErrors("logs.errors");
+		target.getPipeline().setProcessingTime("logs.processing.time");
+		properties.getTargets().add(target);
+		service = new MetricRateService(properties, new ServiceRegistry(properties));
+	}
+
+	@Test
+	void derivesPipelineRatesLagAndRatios() {
+		service.update("log-service", details(1000, 900, 10, 50, 5.0), 0);
+		MetricRates first = service.getRates("log-service");
+		assertThat(first.getMetrics().get("logs.consumed").get("COUNT").getValue()).isEqualTo(1000.0);
+		assertThat(first.getMetrics().get("logs.consumed").get("COUNT").getRate()).isNull();
+		assertThat(first.getPipeline().getLag().getValue()).isEqualTo(100.0);
+
+		service.update("log-service", details(1600, 1300, 16, 250, 15.0), 10_000);
+		MetricRates.Pipeline pipeline = service.getRates("log-service").getPipeline();
+		assertThat(pipeline.getConsumedRate()).isEqualTo(60.0);
+		assertThat(pipeline.getSavedRate()).isEqualTo(40.0);
+		assertThat(pipeline.getErrorRate()).isEqualTo(0.6);
+		assertThat(pipeline.getLag().getValue()).isEqualTo(300.0);
+		assertThat(pipeline.getLag().getRate()).isEqualTo(20.0);
+		assertThat(pipeline.getErrorRatio().getValue()).isCloseTo(0.01, within(1e-9));
+		assertThat(pipeline.getErrorRatio().getAverages()).containsOnlyKeys("1m", "5m");
+		// 10s of processing over 200 records
+		assertThat(pipeline.getProcessingTime().getValue()).isCloseTo(0.05, within(1e-9));
+	}
+
+	@Test
+	void treatsDecreaseAsCounterReset() {
+		service.update("log-service", details(1000, 1000, 0, 0, 0), 0);
+		service.update("log-service", details(2000, 2000, 0, 0, 0), 10_000);
+		// The log service restarted and counted 300 since
+		service.update("log-service", details(300, 300, 0, 0, 0), 20_000);
+
+		Series consumed = service.getRates("log-service").getMetrics().get("logs.consumed").get("COUNT");
+		assertThat(consumed.getRate()).isEqualTo(30.0);
+		assertThat(consumed.getResets()).isEqualTo(1L);
+		assertThat(consumed.getAverages().get("1m")).isBetween(30.0, 100.0);
+	}
+
+	@Test
+	void movingAveragesFollowTheRate() {
+		long now = 0;
+		double consumed = 0;
+		for (int i = 0; i <= 60; i++) {
+			service.update("log-service", Map.of("logs.consumed", counter(consumed)), now);
+			consumed += 100;
+			now += 10_000;
+		}
+		// Steady 10/s
+		Map<String, Double> averages = service.getRates("log-service").getMetrics().get("logs.consumed").get("COUNT").getAverages();
+		assertThat(averages.get("1m")).isCloseTo(10.0, within(1e-9));
+
+		for (int i = 0; i < 6; i++) {
+			service.update("log-service", Map.of("logs.consumed", counter(consumed)), now);
+			now += 10_000;
+		}
+		// Idle for a minute: the short window falls faster than the long one
+		averages = service.getRates("log-service").getMetrics().get("logs.consumed").get("COUNT").getAverages();
+		assertThat(averages.get("1m")).isLessThan(5.0);
+		assertThat(averages.get("5m")).isGreaterThan(averages.get("1m"));
+	}
+
+	@Test
+	void keepsPreviousSampleWhenMetricIsUnavailable() {
+		service.update("log-service", Map.of("logs.consumed", counter(100)), 0);
+		service.update("log-service", Map.of("logs.consumed", "unavailable"), 10_000);
+		service.update("log-service", Map.of("logs.consumed", counter(500)), 20_000);
+
+		assertThat(service.getRates("log-service").getMetrics().get("logs.consumed").get("COUNT").getRate()).isEqualTo(20.0);
+		assertThat(service.getRates("api-server")).isNull();
+		assertThat(MetricRateService.label(900_000)).isEqualTo("15m");
+	}
+
+	@Test
+	void ratesResultsBySampleTime() {
+		ServiceStatus first = new ServiceStatus("log-service", HealthStatus.UP);
+		first.setDetails(Map.of("logs.consumed", counter(100)));
+		first.setTimestampNanos(EpochNanos.ofMillis(1_000_000));
+		service.onCheckResult(CheckType.METRIC_DETAILS, first);
+
+		// The same scrape seen again by an on-demand check has not advanced, so it is no sample
+		ServiceStatus again = new ServiceStatus("log-service", HealthStatus.UP);
+		again.setDetails(Map.of("logs.consumed", counter(100)));
+		again.setTimestampNanos(EpochNanos.ofMillis(1_000_000));
+		service.onCheckResult(CheckType.METRIC_DETAILS, again);
+		assertThat(service.getRates("log-service").getMetrics().get("logs.consumed").get("COUNT").getRate()).isNull();
+
+		// The next scrape is rated over the time between the scrapes, whenever its result arrives
+		ServiceStatus next = new ServiceStatus("log-service", HealthStatus.UP);
+		next.setDetails(Map.of("logs.consumed", counter(400)));
+		next.setTimestampNanos(EpochNanos.ofMillis(1_015_000));
+		service.onCheckResult(CheckType.METRIC_DETAILS, next);
+		assertThat(service.getRates("log-service").getMetrics().get("logs.consumed").get("COUNT").getRate()).isEqualTo(20.0);
+		assertThat(service.getRates("log-service").getUpdatedAt()).isEqualTo(Instant.ofEpochMilli(1_015_000));
+	}
+
+	private static Map<String, Object> details(double consumed, double saved, double errors, double count, double totalTime) {
+		return Map.of(
+				"logs.consumed", counter(consumed),
+				"logs.saved", counter(saved),
+				"logs.errors", Map.of("measurements", List.of(Map.of("statistic", "VALUE", "value", errors))),
+				"logs.processing.time", Map.of("measurements", List.of(
+						Map.of("statistic", "COUNT", "value", count),
+						Map.of("statistic", "TOTAL_TIME", "value", totalTime),
+						Map.of("statistic", "MAX", "value", 0.2))));
+	}
+
+	private static Map<String, Object> counter(double value) {
+		return Map.of("name", "counter", "measurements", List.of(Map.of("statistic", "COUNT", "value", value)));
+	}
+}
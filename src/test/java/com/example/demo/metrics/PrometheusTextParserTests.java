@@ -0,0 +1,86 @@
+package com.example.demo.metrics;
+
+import com.example.demo.metrics.ScrapedMetrics.Family;
+import com.example.demo.metrics.ScrapedMetrics.Type;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrometheusTextParserTests {
+
+	private static final String SCRAPE = """
+			# HELP logs_consumed_total Logs consumed from Kafka
+			# TYPE logs_consumed_total counter
+			logs_consumed_total{topic="app",service="ingest"} 42.0
+			# HELP logs_processing_time_seconds
+			# TYPE logs_processing_time_seconds summary
+			logs_processing_time_seconds_count{topic="app"} 3
+			logs_processing_time_seconds_sum{topic="app"} 0.25
+			# TYPE logs_processing_time_seconds_max gauge
+			logs_processing_time_seconds_max{topic="app"} 0.125
+			# TYPE http_server_requests_seconds histogram
+			http_server_requests_seconds_bucket{uri="/a\\"b",le="0.1"} 1.0
+			http_server_requests_seconds_bucket{uri="/a\\"b",le="+Inf"} 2.0
+			http_server_requests_seconds_count{uri="/a\\"b"} 2.0
+			http_server_requests_seconds_sum{uri="/a\\"b"} 0.3
+			untyped_metric 1.5e3 1700000000000
+			jvm_gc_overhead NaN
+			""";
+
+	private final PrometheusTextParser parser = new PrometheusTextParser();
+
+	@Test
+	void groupsSamplesIntoFamilies() {
+		ScrapedMetrics metrics = parse(SCRAPE);
+
+		assertThat(metrics.getFamilies()).extracting(Family::name).containsExactly("logs_consumed",
+				"logs_processing_time_seconds", "logs_processing_time_seconds_max", "http_server_requests_seconds",
+				"untyped_metric", "jvm_gc_overhead");
+		assertThat(metrics.getSampleCount()).isEqualTo(10);
+
+		Family counter = metrics.getFamily("logs_consumed");
+		assertThat(counter.type()).isEqualTo(Type.COUNTER);
+		assertThat(counter.help()).isEqualTo("Logs consumed from Kafka");
+		assertThat(counter.samples().get(0).suffix()).isEqualTo("_total");
+		assertThat(counter.samples().get(0).label("service")).isEqualTo("ingest");
+		assertThat(counter.samples().get(0).value()).isEqualTo(42.0);
+
+		Family histogram = metrics.getFamily("http_server_requests_seconds");
+		assertThat(histogram.samples()).extracting(ScrapedMetrics.Sample::suffix)
+				.containsExactly("_bucket", "_bucket", "_count", "_sum");
+		assertThat(histogram.samples().get(0).label("uri")).isEqualTo("/a\"b");
+		assertThat(histogram.samples().get(1).label("le")).isEqualTo("+Inf");
+	}
+
+	@Test
+	void parsesValues() {
+		ScrapedMetrics metrics = parse(SCRAPE);
+
+		assertThat(metrics.getFamily("untyped_metric").samples().get(0).value()).isEqualTo(1500.0);
+		assertThat(metrics.getFamily("jvm_gc_overhead").samples().get(0).value()).isNaN();
+		assertThat(metrics.getFamily("logs_processing_time_seconds").samples().get(1).value()).isEqualTo(0.25);
+
+		ScrapedMetrics edge = parse("a 0.1\nb -Inf\nc 123456789012345678901\nd 1.7976931348623157E308\n");
+		assertThat(edge.getFamily("a").samples().get(0).value()).isEqualTo(0.1);
+		assertThat(edge.getFamily("b").samples().get(0).value()).isEqualTo(Double.NEGATIVE_INFINITY);
+		assertThat(edge.getFamily("c").samples().get(0).value()).isEqualTo(123456789012345678901.0);
+		assertThat(edge.getFamily("d").samples().get(0).value()).isEqualTo(Double.MAX_VALUE);
+	}
+
+	@Test
+	void reusesStringsAcrossScrapes() {
+		ScrapedMetrics first = parse(SCRAPE);
+		ScrapedMetrics second = parse(SCRAPE);
+
+		assertThat(second.getFamilies().get(0).name()).isSameAs(first.getFamilies().get(0).name());
+		assertThat(second.getFamily("logs_consumed").samples().get(0).labels()[1])
+				.isSameAs(first.getFamily("logs_consumed").samples().get(0).labels()[1]);
+	}
+
+	private ScrapedMetrics parse(String text) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		return parser.parse(bytes, bytes.length);
+	}
+}
@@ -0,0 +1,110 @@
+package com.example.demo.metrics;
+
+import com.example.demo.config.ServiceProperties;
+import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import io.prometheus.metrics.model.snapshots.ClassicHistogramBucket;
+import io.prometheus.metrics.model.snapshots.CounterSnapshot;
+import io.prometheus.metrics.model.snapshots.GaugeSnapshot;
+import io.prometheus.metrics.model.snapshots.HistogramSnapshot;
+import io.prometheus.metrics.model.snapshots.Labels;
+import io.prometheus.metrics.model.snapshots.MetricSnapshot;
+import io.prometheus.metrics.model.snapshots.MetricSnapshots;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RemoteMetricsCollectorTests {
+
+	private static final String API_SERVER = """
+			# HELP http_requests_total Requests served
+			# TYPE http_requests_total counter
+			http_requests_total{method="GET",service="frontend"} 10
+			http_requests_created{method="GET",service="frontend"} 1700000000
+			# TYPE queue_size gauge
+			queue_size 4
+			# TYPE app_info gauge
+			app_info{version="1.0"} 1
+			# TYPE http_latency_seconds histogram
+			http_latency_seconds_bucket{le="0.1"} 3
+			http_latency_seconds_bucket{le="1"} 5
+			http_latency_seconds_bucket{le="+Inf"} 6
+			http_latency_seconds_count 6
+			http_latency_seconds_sum 2.5
+			""";
+
+	private static final String LOG_SERVICE = """
+			# TYPE http_requests_total counter
+			http_requests_total{method="POST"} 5
+			# TYPE queue_size counter
+			queue_size_total 7
+			""";
+
+	private final ServiceProperties properties = new ServiceProperties();
+
+	private final RemoteMetricStore remoteMetricStore = new RemoteMetricStore();
+
+	@Test
+	void mergesServicesUnderPrefixedNamesWithAServiceLabel() {
+		Map<String, MetricSnapshot> snapshots = collect();
+
+		CounterSnapshot requests = (CounterSnapshot) snapshots.get("remote_http_requests");
+		assertThat(requests.getMetadata().getHelp()).isEqualTo("Requests served");
+		// _created samples are not data points of their own
+		assertThat(requests.getDataPoints()).extracting(point -> point.getLabels()).containsExactly(
+				Labels.of("exported_service", "frontend", "method", "GET", "service", "api-server"),
+				Labels.of("method", "POST", "service", "log-service"));
+		assertThat(requests.getDataPoints()).extracting(CounterSnapshot.CounterDataPointSnapshot::getValue)
+				.containsExactly(10.0, 5.0);
+
+		HistogramSnapshot latency = (HistogramSnapshot) snapshots.get("remote_http_latency_seconds");
+		HistogramSnapshot.HistogramDataPointSnapshot point = latency.getDataPoints().get(0);
+		assertThat(latency.getDataPoints()).extracting(HistogramSnapshot.HistogramDataPointSnapshot::getLabels)
+				.containsExactly(Labels.of("service", "api-server"));
+		assertThat(point.getSum()).isEqualTo(2.5);
+		// Cumulative text-format buckets become per-bucket counts
+		assertThat(point.getClassicBuckets().stream()).extracting(ClassicHistogramBucket::getCount)
+				.containsExactly(3L, 2L, 1L);
+	}
+
+	@Test
+	void skipsConflictingTypesAndReservedNames() {
+		Map<String, MetricSnapshot> snapshots = collect();
+
+		// log-service declares queue_size as a counter, so only api-server's gauge is kept
+		GaugeSnapshot queueSize = (GaugeSnapshot) snapshots.get("remote_queue_size");
+		assertThat(queueSize.getDataPoints()).extracting(point -> point.getLabels().get("service"))
+				.containsExactly("api-server");
+		assertThat(snapshots).doesNotContainKey("remote_app_info");
+		assertThat(snapshots).containsOnlyKeys("remote_http_requests", "remote_queue_size",
+				"remote_http_latency_seconds");
+	}
+
+	@Test
+	void usesTheConfiguredPrefix() {
+		properties.getScrape().setPrefix("upstream_");
+
+		assertThat(collect()).containsKeys("upstream_http_requests", "upstream_queue_size");
+	}
+
+	private Map<String, MetricSnapshot> collect() {
+		remoteMetricStore.update("log-service", body(LOG_SERVICE));
+		remoteMetricStore.update("api-server", body(API_SERVER));
+		RemoteMetricsCollector collector = new RemoteMetricsCollector(remoteMetricStore, properties,
+				new StaticListableBeanFactory().getBeanProvider(PrometheusRegistry.class));
+		MetricSnapshots snapshots = collector.collect();
+		return snapshots.stream().collect(Collectors.toMap(snapshot -> snapshot.getMetadata().getName(),
+				Function.identity()));
+	}
+
+	private static DataBuffer body(String text) {
+		return DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8));
+	}
+}
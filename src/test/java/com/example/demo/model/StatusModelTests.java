@@ -0,0 +1,64 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatusModelTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	@Test
+	void serializesStatusNamesAndTimestamps() throws Exception {
+		ServiceStatus status = new ServiceStatus("api-server", HealthStatus.DEGRADED);
+		status.setTimestamp(LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_000_000));
+		status.setDetails(Map.of("db", Map.of("status", "UP")));
+		status.setLatencyMillis(12L);
+		status.setObservedStatus("DOWN");
+
+		assertThat(objectMapper.writeValueAsString(status)).isEqualTo("{\"serviceName\":\"api-server\","
+				+ "\"status\":\"DEGRADED\",\"timestamp\":\"2024-01-15T10:30:00.123\",\"details\":{\"db\":{\"status\":\"UP\"}},"
+				+ "\"latencyMillis\":12,\"observedStatus\":\"DOWN\"}");
+		assertThat(status.getTimestamp()).isEqualTo(LocalDateTime.of(2024, 1, 15, 10, 30, 0, 123_000_000));
+	}
+
+	@Test
+	void keepsCustomStatusNames() {
+		assertThat(new ServiceStatus("a", "up").getStatusCode()).isEqualTo(HealthStatus.UP);
+		assertThat(new ServiceStatus("a", "up").getStatus()).isEqualTo("UP");
+
+		ServiceStatus custom = new ServiceStatus("a", "WARMING");
+		assertThat(custom.getStatusCode()).isEqualTo(HealthStatus.CUSTOM);
+		assertThat(custom.getStatus()).isEqualTo("WARMING");
+		assertThat(new ServiceStatus().getStatus()).isNull();
+	}
+
+	@Test
+	void countsServicesAsTheyAreAdded() {
+		AggregatedStatus aggregated = new AggregatedStatus(3);
+		aggregated.addService(new ServiceStatus("a", HealthStatus.UP));
+		assertThat(aggregated.getOverallStatus()).isEqualTo("UP");
+		aggregated.addService(new ServiceStatus("b", HealthStatus.DEGRADED));
+		assertThat(aggregated.getOverallStatus()).isEqualTo("DEGRADED");
+		aggregated.addService(new ServiceStatus("c", "WARMING"));
+
+		assertThat(aggregated.getOverallStatus()).isEqualTo("DOWN");
+		assertThat(aggregated.getTotalServices()).isEqualTo(3);
+		assertThat(aggregated.getHealthyServices()).isEqualTo(2);
+		assertThat(aggregated.getUnhealthyServices()).isEqualTo(1);
+
+		// Replacing the services recounts them
+		aggregated.setServices(List.of(new ServiceStatus("a", HealthStatus.UP)));
+		assertThat(aggregated.getOverallStatus()).isEqualTo("UP");
+		assertThat(aggregated.getHealthyServices()).isEqualTo(1);
+		assertThat(aggregated.getUnhealthyServices()).isZero();
+	}
+}
@@ -0,0 +1,73 @@
+package com.example.demo.service;
+
+import com.example.demo.service.ActuatorResponseParser.HealthResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ActuatorResponseParserTests {
+
+	private final ActuatorResponseParser parser = new ActuatorResponseParser(new ObjectMapper());
+
+	private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+
+	@Test
+	void readsStatusAndComponentsInAnyOrder() {
+		HealthResponse health = parser.parseHealth(buffer("""
+				{"components":{"db":{"status":"UP","details":{"database":"PostgreSQL"}}},
+				 "groups":["liveness","readiness"],"status":"DOWN"}"""), true);
+
+		assertThat(health.status()).isEqualTo("DOWN");
+		assertThat(health.details()).containsOnlyKeys("db");
+		assertThat(health.details().get("db")).isEqualTo(Map.of("status", "UP", "details", Map.of("database", "PostgreSQL")));
+	}
+
+	@Test
+	void skipsDetailsUnlessRequested() {
+		String body = "{\"status\":\"UP\",\"details\":{\"diskSpace\":{\"status\":\"UP\"}}}";
+
+		assertThat(parser.parseHealth(buffer(body), false)).isEqualTo(new HealthResponse("UP", null));
+		// Boot 1.x reported components as "details"
+		assertThat(parser.parseHealth(buffer(body), true).details()).containsOnlyKeys("diskSpace");
+		assertThat(parser.parseHealth(buffer("{}"), true)).isEqualTo(new HealthResponse("UNKNOWN", null));
+	}
+
+	@Test
+	void readsObjectsAndMetricNames() {
+		assertThat(parser.parseObject(buffer("{\"app\":{\"name\":\"api\",\"version\":2}}")))
+				.isEqualTo(Map.of("app", Map.of("name", "api", "version", 2)));
+		assertThat(parser.parseMetricNames(buffer("{\"other\":[1,2],\"names\":[\"jvm.memory.used\",\"http.server.requests\"]}")))
+				.containsExactly("jvm.memory.used", "http.server.requests");
+		assertThat(parser.parseMetricNames(buffer("{\"other\":{}}"))).isNull();
+	}
+
+	@Test
+	void releasesTheBufferEvenWhenParsingFails() {
+		NettyDataBuffer parsed = buffer("{\"status\":\"UP\"}");
+		parser.parseHealth(parsed, true);
+		assertThat(parsed.getNativeBuffer().refCnt()).isZero();
+
+		NettyDataBuffer invalid = buffer("[\"UP\"]");
+		assertThatThrownBy(() -> parser.parseHealth(invalid, true))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("Expected a JSON object");
+		assertThat(invalid.getNativeBuffer().refCnt()).isZero();
+
+		DataBuffer truncated = buffer("{\"status\":\"UP\",\"components\":{");
+		assertThatThrownBy(() -> parser.parseHealth(truncated, true)).isInstanceOf(IllegalStateException.class);
+	}
+
+	private NettyDataBuffer buffer(String json) {
+		return bufferFactory.wrap(Unpooled.wrappedBuffer(json.getBytes(StandardCharsets.UTF_8)));
+	}
+}
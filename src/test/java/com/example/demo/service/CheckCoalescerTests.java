@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import com.example.demo.model.CheckType;
+import com.example.demo.model.HealthStatus;
+import com.example.demo.model.ServiceStatus;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CheckCoalescerTests {
+
+	private static final Duration TTL = Duration.ofMinutes(1);
+
+	private final CheckCoalescer coalescer = new CheckCoalescer();
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	@Test
+	void sharesACheckInFlight() {
+		Sinks.One<ServiceStatus> response = Sinks.one();
+		Mono<ServiceStatus> check = Mono.defer(() -> {
+			calls.incrementAndGet();
+			return response.asMono();
+		});
+
+		CompletableFuture<ServiceStatus> first = coalescer.share("api-server", CheckType.INFO, TTL, () -> check).toFuture();
+		CompletableFuture<ServiceStatus> second = coalescer.share("api-server", CheckType.INFO, TTL, () -> check).toFuture();
+		assertThat(first).isNotDone();
+		assertThat(second).isNotDone();
+
+		ServiceStatus status = new ServiceStatus("api-server", HealthStatus.UP);
+		response.tryEmitValue(status);
+		assertThat(first.join()).isSameAs(status);
+		assertThat(second.join()).isSameAs(status);
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	void cachesSuccessesForTheTtl() {
+		assertThat(coalescer.share("api-server", CheckType.INFO, TTL, this::check).block().getStatus()).isEqualTo("UP");
+		assertThat(coalescer.share("api-server", CheckType.INFO, TTL, this::check).block().getStatus()).isEqualTo("UP");
+		assertThat(calls).hasValue(1);
+
+		// Other check types and services are separate calls
+		coalescer.share("api-server", CheckType.METRICS, TTL, this::check).block();
+		coalescer.share("log-service", CheckType.INFO, TTL, this::check).block();
+		assertThat(calls).hasValue(3);
+
+		// Without a TTL only concurrent callers share a result
+		coalescer.share("api-server", CheckType.HEALTH, Duration.ZERO, this::check).block();
+		coalescer.share("api-server", CheckType.HEALTH, Duration.ZERO, this::check).block();
+		assertThat(calls).hasValue(5);
+	}
+
+	@Test
+	void neverCachesFailures() {
+		Mono<ServiceStatus> failedStatus = Mono.fromSupplier(() -> {
+			calls.incrementAndGet();
+			ServiceStatus status = new ServiceStatus("api-server", HealthStatus.DOWN);
+			status.setError("Connection refused");
+			return status;
+		});
+		coalescer.share("api-server", CheckType.INFO, TTL, () -> failedStatus).block();
+		coalescer.share("api-server", CheckType.INFO, TTL, () -> failedStatus).block();
+		assertThat(calls).hasValue(2);
+
+		Mono<ServiceStatus> error = Mono.defer(() -> {
+			calls.incrementAndGet();
+			return Mono.error(new IllegalStateException("timeout"));
+		});
+		assertThatThrownBy(() -> coalescer.share("log-service", CheckType.INFO, TTL, () -> error).block())
+				.hasMessageContaining("timeout");
+		assertThatThrownBy(() -> coalescer.share("log-service", CheckType.INFO, TTL, () -> error).block())
+				.hasMessageContaining("timeout");
+		assertThat(calls).hasValue(4);
+	}
+
+	private Mono<ServiceStatus> check() {
+		return Mono.fromSupplier(() -> {
+			calls.incrementAndGet();
+			return new ServiceStatus("api-server", HealthStatus.UP);
+		});
+	}
+}
@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CheckMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final CheckMetrics metrics = new CheckMetrics(registry);
+
+	@Test
+	void classifiesFailuresThroughWrappingExceptions() {
+		assertThat(CheckMetrics.cause(new TimeoutException())).isEqualTo("timeout");
+		assertThat(CheckMetrics.cause(request(ReadTimeoutException.INSTANCE))).isEqualTo("timeout");
+		assertThat(CheckMetrics.cause(request(new ConnectException("refused")))).isEqualTo("connect");
+		assertThat(CheckMetrics.cause(request(new UnknownHostException("api.example")))).isEqualTo("dns");
+		assertThat(CheckMetrics.cause(new RuntimeException("Health check failed",
+				WebClientResponseException.create(HttpStatus.SERVICE_UNAVAILABLE, "", null, null, null, null))))
+				.isEqualTo("http_5xx");
+		assertThat(CheckMetrics.cause(new IllegalArgumentException())).isEqualTo("other");
+	}
+
+	@Test
+	void recordsAttemptsByOutcome() {
+		metrics.timeAttempt("log-service", "health", Mono.just("ok")).block();
+		assertThatThrownBy(() -> metrics.timeAttempt("log-service", "health", Mono.error(new TimeoutException())).block())
+				.hasCauseInstanceOf(TimeoutException.class);
+
+		assertThat(registry.get("status.remote.requests").tag("outcome", CheckMetrics.SUCCESS).timer().count()).isEqualTo(1);
+		assertThat(registry.get("status.remote.requests").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+		assertThat(registry.get("status.remote.errors").tag("cause", "timeout").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void countsParserFailures() {
+		assertThatThrownBy(() -> metrics.timeParse("api-server", "info", () -> {
+			throw new IllegalStateException("Invalid JSON response");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(registry.get("status.remote.parse").tag("service", "api-server").timer().count()).isEqualTo(1);
+		assertThat(registry.get("status.remote.errors").tag("cause", "parse").counter().count()).isEqualTo(1);
+	}
+
+	private static WebClientRequestException request(Throwable cause) {
+		return new WebClientRequestException(cause, HttpMethod.GET,
+				URI.create("http://localhost/actuator/health"), new HttpHeaders());
+	}
+}
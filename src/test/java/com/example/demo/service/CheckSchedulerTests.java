@@ -0,0 +1,126 @@
+package com.example.demo.service;
+
+import com.example.demo.cluster.ClusterService;
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.metrics.RemoteMetricStore;
+import com.example.demo.model.CheckType;
+import com.example.demo.service.CheckScheduler.ScheduledCheck;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CheckSchedulerTests {
+
+	private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+	private final ServiceProperties properties = new ServiceProperties();
+
+	private final ClusterService clusterService = mock(ClusterService.class);
+
+	private final RemoteMetricStore remoteMetricStore = new RemoteMetricStore();
+
+	@Test
+	void startsHealthChecksFirstWithinTheBudget() {
+		properties.getScheduler().setMaxConcurrent(2);
+		when(clusterService.isOwner(anyString())).thenReturn(true);
+		CheckScheduler scheduler = scheduler("a", "b", "c");
+
+		// Every first run falls within the last hour, so all checks are due now
+		long now = System.nanoTime();
+		scheduler.schedule(now - HOUR);
+		List<ScheduledCheck> starting = new ArrayList<>();
+		scheduler.dispatch(now, starting);
+
+		assertThat(starting).extracting(check -> check.type).containsExactly(CheckType.HEALTH, CheckType.HEALTH);
+		assertThat(scheduler.inFlight()).isEqualTo(2);
+		// The third health check plus info and metrics of all three targets
+		assertThat(scheduler.waiting()).isEqualTo(7);
+
+		// Nothing starts until a check completes, and then the remaining health check goes first
+		List<ScheduledCheck> next = new ArrayList<>();
+		scheduler.dispatch(now, next);
+		assertThat(next).isEmpty();
+		scheduler.complete(starting.get(0), null, new IllegalStateException("timeout"));
+		scheduler.dispatch(now, next);
+		assertThat(next).extracting(check -> check.type).containsExactly(CheckType.HEALTH);
+
+		next.clear();
+		scheduler.complete(starting.get(1), null, new IllegalStateException("timeout"));
+		scheduler.dispatch(now, next);
+		assertThat(next).hasSize(1).extracting(check -> check.type).doesNotContain(CheckType.HEALTH);
+		assertThat(scheduler.waiting()).isEqualTo(5);
+	}
+
+	@Test
+	void skipsTargetsOwnedByAnotherReplica() {
+		properties.getScrape().setEnabled(true);
+		when(clusterService.isOwner("a")).thenReturn(true);
+		when(clusterService.isOwner("b")).thenReturn(false);
+		remoteMetricStore.update("b", DefaultDataBufferFactory.sharedInstance
+				.wrap("up 1\n".getBytes(StandardCharsets.UTF_8)));
+		CheckScheduler scheduler = scheduler("a", "b");
+
+		long now = System.nanoTime();
+		scheduler.schedule(now - HOUR);
+		List<ScheduledCheck> starting = new ArrayList<>();
+		scheduler.dispatch(now, starting);
+
+		assertThat(starting).extracting(check -> check.target.getName()).containsOnly("a");
+		assertThat(starting).extracting(check -> check.type)
+				.containsExactlyInAnyOrder(CheckType.HEALTH, CheckType.INFO, CheckType.METRICS, CheckType.PROMETHEUS);
+		// The owner re-exposes b's metrics, so the scrape taken here is dropped
+		assertThat(remoteMetricStore.get("b")).isNull();
+
+		// Skipped checks stay queued one interval later, so they run once ownership moves here
+		List<ScheduledCheck> next = new ArrayList<>();
+		scheduler.dispatch(now, next);
+		assertThat(next).isEmpty();
+		when(clusterService.isOwner("b")).thenReturn(true);
+		scheduler.dispatch(now + HOUR, next);
+		assertThat(next).extracting(check -> check.target.getName()).contains("b");
+	}
+
+	@Test
+	void jittersIntervalsWithinTheConfiguredFraction() {
+		properties.getScheduler().setJitter(0.1);
+		CheckScheduler scheduler = scheduler("a");
+		long interval = TimeUnit.SECONDS.toNanos(30);
+
+		long min = Long.MAX_VALUE;
+		long max = Long.MIN_VALUE;
+		for (int i = 0; i < 1000; i++) {
+			long delay = scheduler.nextDelay(interval);
+			min = Math.min(min, delay);
+			max = Math.max(max, delay);
+		}
+		assertThat(min).isGreaterThanOrEqualTo(TimeUnit.SECONDS.toNanos(27)).isLessThan(interval);
+		assertThat(max).isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(33)).isGreaterThan(interval);
+
+		properties.getScheduler().setJitter(0);
+		assertThat(scheduler.nextDelay(interval)).isEqualTo(interval);
+	}
+
+	private CheckScheduler scheduler(String... names) {
+		List<Target> targets = new ArrayList<>();
+		for (String name : names) {
+			Target target = new Target();
+			target.setName(name);
+			target.setUrl("http://" + name + ".example");
+			targets.add(target);
+		}
+		properties.setTargets(targets);
+		return new CheckScheduler(null, new ServiceRegistry(properties), properties, null, clusterService,
+				remoteMetricStore, new SimpleMeterRegistry());
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTests {
+
+	private final AtomicLong now = new AtomicLong();
+
+	private final CircuitBreaker breaker = new CircuitBreaker("log-service", 2, 1000, 10_000, 0, now::get, null);
+
+	@Test
+	void opensAfterConsecutiveFailures() {
+		breaker.onFailure();
+		assertThat(breaker.tryAcquire()).isTrue();
+
+		breaker.onFailure();
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquire()).isFalse();
+	}
+
+	@Test
+	void admitsSingleProbeAfterOpenPeriod() {
+		breaker.onFailure();
+		breaker.onFailure();
+
+		advance(1000);
+		assertThat(breaker.tryAcquire()).isTrue();
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		assertThat(breaker.tryAcquire()).isFalse();
+
+		breaker.onSuccess();
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+		assertThat(breaker.tryAcquire()).isTrue();
+	}
+
+	@Test
+	void failedProbesBackOffExponentially() {
+		breaker.onFailure();
+		breaker.onFailure();
+		advance(1000);
+		breaker.tryAcquire();
+
+		breaker.onFailure();
+		assertThat(breaker.getRetryAfterMillis()).isEqualTo(2000);
+
+		advance(2000);
+		breaker.tryAcquire();
+		breaker.onFailure();
+		assertThat(breaker.getRetryAfterMillis()).isEqualTo(4000);
+	}
+
+	private void advance(long millis) {
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+}
@@ -0,0 +1,86 @@
+package com.example.demo.service;
+
+import com.example.demo.model.ServiceStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComponentIndexTests {
+
+	private final ComponentIndex index = new ComponentIndex();
+
+	@Test
+	void answersPathsAndComponentsAcrossServices() {
+		index.update(status("api-server", Map.of(
+				"db", Map.of("status", "UP", "details", Map.of("database", "PostgreSQL")),
+				"diskSpace", Map.of("status", "UP"))));
+		index.update(status("log-service", Map.of(
+				"db", Map.of("status", "DOWN", "details", Map.of("database", "MySQL")),
+				"kafka", Map.of("status", "UP"))));
+
+		assertThat(index.query("components.db.details.database"))
+				.containsExactly(Map.entry("api-server", "PostgreSQL"), Map.entry("log-service", "MySQL"));
+		assertThat(index.query("status")).containsOnlyKeys("api-server", "log-service");
+		assertThat(index.component("kafka")).containsOnlyKeys("log-service");
+		assertThat(index.component("db").get("log-service")).isEqualTo(
+				Map.of("status", "DOWN", "details", Map.of("database", "MySQL")));
+		assertThat(index.query("components.redis")).isEmpty();
+	}
+
+	@Test
+	void indexesNestedComponentsByName() {
+		index.update(status("api-server", Map.of(
+				"db", Map.of("status", "UP", "components", Map.of(
+						"primary", Map.of("status", "UP"),
+						"replica", Map.of("status", "DOWN"))))));
+
+		assertThat(index.component("replica")).containsEntry("api-server", Map.of("status", "DOWN"));
+		assertThat(index.query("components.db.components.primary.status")).containsEntry("api-server", "UP");
+		assertThat(index.component("components")).isEmpty();
+	}
+
+	@Test
+	void dropsPathsThatDisappear() {
+		index.update(status("api-server", Map.of("db", Map.of("status", "UP"), "redis", Map.of("status", "UP"))));
+		index.update(status("api-server", Map.of("db", Map.of("status", "DOWN"))));
+
+		assertThat(index.component("redis")).isEmpty();
+		assertThat(index.query("components.redis.status")).isEmpty();
+		assertThat(index.query("components.db.status")).containsEntry("api-server", "DOWN");
+
+		index.update(new ServiceStatus("api-server", "DOWN"));
+		assertThat(index.component("db")).isEmpty();
+		assertThat(index.query("status")).containsEntry("api-server", "DOWN");
+	}
+
+	@Test
+	void skipsDetailsThatWereAlreadyIndexed() {
+		Map<String, Object> details = new HashMap<>();
+		details.put("db", Map.of("status", "UP"));
+		index.update(status("api-server", details));
+
+		// The checker reuses the same map only for an unchanged body, so it is not walked again
+		details.put("redis", Map.of("status", "UP"));
+		ServiceStatus degraded = new ServiceStatus("api-server", "DEGRADED");
+		degraded.setDetails(details);
+		index.update(degraded);
+
+		assertThat(index.component("redis")).isEmpty();
+		assertThat(index.query("status")).containsEntry("api-server", "DEGRADED");
+		assertThat(index.query("components.db.status")).containsEntry("api-server", "UP");
+
+		// A new map is indexed again
+		index.update(status("api-server", new HashMap<>(details)));
+		assertThat(index.component("redis")).containsOnlyKeys("api-server");
+		assertThat(index.query("status")).containsEntry("api-server", "UP");
+	}
+
+	private static ServiceStatus status(String service, Map<String, Object> components) {
+		ServiceStatus status = new ServiceStatus(service, "UP");
+		status.setDetails(components);
+		return status;
+	}
+}
@@ -0,0 +1,36 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EncodedBodyTests {
+
+	private final EncodedBody body = EncodedBody.of(new ObjectMapper(), Map.of("status", "UP"));
+
+	@Test
+	void matchesEitherRepresentation() {
+		assertThat(body.matches(body.getEtag(false))).isTrue();
+		assertThat(body.matches(body.getEtag(true))).isTrue();
+		assertThat(body.matches("W/" + body.getEtag(true))).isTrue();
+		assertThat(body.matches("\"other\", " + body.getEtag(false))).isTrue();
+		assertThat(body.matches(" * ")).isTrue();
+		assertThat(body.matches(null)).isFalse();
+	}
+
+	@Test
+	void comparesWholeTags() {
+		String tag = body.getEtag(false);
+		String unquoted = tag.substring(1, tag.length() - 1);
+
+		// A tag that only starts with this one is a different representation
+		assertThat(body.matches("\"" + unquoted + "0\"")).isFalse();
+		assertThat(body.matches("\"" + unquoted + "-gzip2\"")).isFalse();
+		assertThat(body.matches("\"" + unquoted.substring(0, unquoted.length() - 1) + "\"")).isFalse();
+		assertThat(body.matches(unquoted)).isFalse();
+		assertThat(body.matches("\"other\", W/\"another\"")).isFalse();
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.metrics.RemoteMetricStore;
+import com.example.demo.model.ServiceStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RemoteServiceCheckerTests {
+
+	private static final String LAST_MODIFIED = "Wed, 15 Jan 2025 10:30:00 GMT";
+
+	private final ServiceProperties properties = new ServiceProperties();
+
+	private final Target target = new Target();
+
+	private final List<ClientRequest> requests = new ArrayList<>();
+
+	private final Queue<ClientResponse> responses = new ArrayDeque<>();
+
+	private final RemoteServiceChecker checker;
+
+	RemoteServiceCheckerTests() {
+		target.setName("api-server");
+		target.setUrl("http://api-server.example");
+		properties.getTargets().add(target);
+		// Every call goes to the target rather than to the coalescer's cache
+		properties.getCache().setInfoTtl(0);
+		properties.getCircuitBreaker().setFailureThreshold(1);
+
+		WebClient webClient = WebClient.builder().exchangeFunction(request -> {
+			requests.add(request);
+			// A target answers 500 to anything not queued
+			ClientResponse response = responses.poll();
+			return Mono.just(response != null ? response : ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+		}).build();
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		checker = new RemoteServiceChecker(webClient, HttpClient.create(), properties, new ServiceRegistry(properties),
+				new ActuatorResponseParser(new ObjectMapper()),
+				new StaticListableBeanFactory().getBeanProvider(CheckResultListener.class),
+				new CircuitBreakerRegistry(properties, meterRegistry), new CheckCoalescer(), new RemoteMetricStore(),
+				new CheckMetrics(meterRegistry));
+	}
+
+	@Test
+	void revalidatesWithThePreviousValidators() {
+		responses.add(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CONTENT_TYPE, "application/json")
+				.header(HttpHeaders.ETAG, "\"v1\"")
+				.header(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED)
+				.body("{\"app\":{\"version\":\"1.0\"}}")
+				.build());
+		ServiceStatus first = checker.checkInfoAsync(target).block();
+		assertThat(first.getDetails()).isEqualTo(Map.of("app", Map.of("version", "1.0")));
+		assertThat(requests.get(0).headers().getIfNoneMatch()).isEmpty();
+
+		responses.add(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+		ServiceStatus second = checker.checkInfoAsync(target).block();
+
+		HttpHeaders sent = requests.get(1).headers();
+		assertThat(sent.getIfNoneMatch()).containsExactly("\"v1\"");
+		assertThat(sent.getFirst(HttpHeaders.IF_MODIFIED_SINCE)).isEqualTo(LAST_MODIFIED);
+		// 304 reuses the details built from the last full response
+		assertThat(second.getStatus()).isEqualTo("UP");
+		assertThat(second.getError()).isNull();
+		assertThat(second.getDetails()).isSameAs(first.getDetails());
+	}
+
+	@Test
+	void reusesDetailsOfAnUnchangedBody() {
+		String body = "{\"app\":{\"version\":\"1.0\"}}";
+		responses.add(ClientResponse.create(HttpStatus.OK).header(HttpHeaders.CONTENT_TYPE, "application/json").body(body).build());
+		responses.add(ClientResponse.create(HttpStatus.OK).header(HttpHeaders.CONTENT_TYPE, "application/json").body(body).build());
+		responses.add(ClientResponse.create(HttpStatus.OK).header(HttpHeaders.CONTENT_TYPE, "application/json")
+				.body("{\"app\":{\"version\":\"1.1\"}}").build());
+
+		ServiceStatus first = checker.checkInfoAsync(target).block();
+		ServiceStatus unchanged = checker.checkInfoAsync(target).block();
+		ServiceStatus changed = checker.checkInfoAsync(target).block();
+
+		// Without validators nothing is revalidated, but the same bytes are not parsed again
+		assertThat(requests).allSatisfy(request -> assertThat(request.headers().getIfNoneMatch()).isEmpty());
+		assertThat(unchanged.getDetails()).isSameAs(first.getDetails());
+		assertThat(changed.getDetails()).isEqualTo(Map.of("app", Map.of("version", "1.1")));
+	}
+
+	@Test
+	void treatsNotModifiedWithoutAPreviousResponseAsEmpty() {
+		responses.add(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+
+		ServiceStatus status = checker.checkInfoAsync(target).block();
+
+		assertThat(status.getStatus()).isEqualTo("UP");
+		assertThat(status.getDetails()).isNull();
+	}
+
+	@Test
+	void opensTheCircuitOnHealthFailuresOnly() {
+		// A target without /actuator/info fails its info checks, but its health is still checked
+		assertThat(checker.checkInfoAsync(target).block().getError()).isNotNull();
+		responses.add(ClientResponse.create(HttpStatus.OK).header(HttpHeaders.CONTENT_TYPE, "application/json")
+				.body("{\"status\":\"UP\"}").build());
+		assertThat(checker.checkHealthAsync(target).block().getStatus()).isEqualTo("UP");
+
+		// A failed health check opens the circuit for every check type
+		assertThat(checker.checkHealthAsync(target).block().getStatus()).isEqualTo("DOWN");
+		int sent = requests.size();
+		assertThat(checker.checkInfoAsync(target).block().getError()).startsWith("Circuit open");
+		assertThat(checker.checkHealthAsync(target).block().getError()).startsWith("Circuit open");
+		assertThat(requests).hasSize(sent);
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.demo.service;
+
+import com.example.demo.service.ServiceStateMachine.State;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceStateMachineTests {
+
+	private final ServiceStateMachine machine = new ServiceStateMachine("log-service", 2, 3, 1000, 0.9, 10, 10, 0.5,
+			0.2, null);
+
+	@Test
+	void singleFailureDoesNotTakeServiceDown() {
+		assertThat(machine.update(true, 50)).isEqualTo(State.UP);
+		assertThat(machine.update(false, 0)).isEqualTo(State.UP);
+		assertThat(machine.update(true, 50)).isEqualTo(State.UP);
+	}
+
+	@Test
+	void seededStateIsKeptThroughASingleFailure() {
+		machine.seed(State.UP);
+		assertThat(machine.getState()).isEqualTo(State.UP);
+		assertThat(machine.update(false, 0)).isEqualTo(State.UP);
+
+		// A service seeded DOWN needs rise successes to come back
+		machine.seed(State.DOWN);
+		assertThat(machine.update(true, 50)).isEqualTo(State.DOWN);
+		assertThat(machine.update(true, 50)).isEqualTo(State.UP);
+	}
+
+	@Test
+	void fallsAfterConsecutiveFailuresAndRisesAfterConsecutiveSuccesses() {
+		machine.update(true, 50);
+		machine.update(false, 0);
+		machine.update(false, 0);
+		assertThat(machine.update(false, 0)).isEqualTo(State.DOWN);
+
+		assertThat(machine.update(true, 50)).isEqualTo(State.DOWN);
+		assertThat(machine.update(true, 50)).isEqualTo(State.UP);
+	}
+
+	@Test
+	void degradesWhenLatencyPercentileCrossesThreshold() {
+		for (int i = 0; i < 9; i++) {
+			machine.update(true, 50);
+		}
+		// p90 of 10 samples is the 9th smallest, so one slow sample is not enough
+		assertThat(machine.update(true, 1500)).isEqualTo(State.UP);
+		assertThat(machine.update(true, 1500)).isEqualTo(State.DEGRADED);
+
+		// Both slow samples slide out of the window
+		for (int i = 0; i < 9; i++) {
+			machine.update(true, 50);
+		}
+		assertThat(machine.getState()).isEqualTo(State.UP);
+	}
+
+	@Test
+	void reportsAlternatingResultsAsFlapping() {
+		machine.update(true, 50);
+		for (int i = 0; i < 5; i++) {
+			machine.update(false, 0);
+			machine.update(true, 50);
+		}
+		assertThat(machine.isFlapping()).isTrue();
+		assertThat(machine.getState()).isEqualTo(State.DEGRADED);
+
+		for (int i = 0; i < 8; i++) {
+			machine.update(true, 50);
+		}
+		assertThat(machine.isFlapping()).isFalse();
+		assertThat(machine.getState()).isEqualTo(State.UP);
+	}
+}
@@ -0,0 +1,112 @@
+package com.example.demo.service;
+
+import com.example.demo.alert.AlertDispatcher;
+import com.example.demo.alert.AlertEngine;
+import com.example.demo.alert.AlertSink;
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.model.HealthStatus;
+import com.example.demo.model.ServiceStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatusSnapshotServiceTests {
+
+	private final ServiceProperties properties = new ServiceProperties();
+
+	private final StatusStreamService statusStreamService;
+
+	private final StatusSnapshotService service;
+
+	StatusSnapshotServiceTests() {
+		properties.getTargets().add(target("api-server"));
+		properties.getTargets().add(target("log-service"));
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ServiceRegistry serviceRegistry = new ServiceRegistry(properties);
+		AlertDispatcher dispatcher = new AlertDispatcher(properties,
+				new StaticListableBeanFactory().getBeanProvider(AlertSink.class), meterRegistry);
+		statusStreamService = new StatusStreamService(serviceRegistry, properties);
+		service = new StatusSnapshotService(serviceRegistry, new ServiceStateTracker(properties, meterRegistry),
+				new ComponentIndex(), new AlertEngine(properties, serviceRegistry, dispatcher, meterRegistry),
+				statusStreamService, new ObjectMapper().registerModule(new JavaTimeModule()));
+	}
+
+	@Test
+	void keepsTheEtagWhileResultsAreUnchanged() {
+		ServiceStatus api = new ServiceStatus("api-server", HealthStatus.UP);
+		ServiceStatus logs = new ServiceStatus("log-service", HealthStatus.UP);
+		service.onPeerResult(api);
+		service.onPeerResult(logs);
+		service.rebuild();
+		String etag = service.getEncodedSnapshot().getEtag(false);
+
+		// A rebuild with the same results, e.g. after a peer re-sent them, serves the same bytes
+		service.onPeerResult(api);
+		service.rebuild();
+		assertThat(service.getEncodedSnapshot().getEtag(false)).isEqualTo(etag);
+
+		service.onPeerResult(new ServiceStatus("log-service", HealthStatus.DOWN));
+		service.rebuild();
+		assertThat(service.getEncodedSnapshot().getEtag(false)).isNotEqualTo(etag);
+		assertThat(service.getSnapshot().getOverallStatus()).isEqualTo("DOWN");
+	}
+
+	@Test
+	void streamsStabilisedResults() {
+		List<ServerSentEvent<ServiceStatus>> events = new ArrayList<>();
+		Disposable subscription = statusStreamService.stream()
+				.filter(event -> "status".equals(event.event()))
+				.subscribe(events::add);
+
+		service.onHealthResult(new ServiceStatus("api-server", HealthStatus.UP));
+		ServiceStatus failed = new ServiceStatus("api-server", HealthStatus.DOWN);
+		failed.setError("Connection refused");
+		service.onHealthResult(failed);
+		// A result a peer already stabilised is streamed as it is
+		service.onPeerResult(new ServiceStatus("log-service", HealthStatus.DOWN));
+		subscription.dispose();
+
+		// One failed poll is below the fall threshold, so the service is still UP
+		assertThat(events).extracting(ServerSentEvent::data).satisfiesExactly(
+				first -> assertThat(first.getStatus()).isEqualTo("UP"),
+				second -> {
+					assertThat(second.getStatus()).isEqualTo("UP");
+					assertThat(second.getObservedStatus()).isEqualTo("DOWN");
+				},
+				third -> {
+					assertThat(third.getServiceName()).isEqualTo("log-service");
+					assertThat(third.getStatus()).isEqualTo("DOWN");
+				});
+	}
+
+	@Test
+	void keepsAPeersStateWhenTheServiceMovesHere() {
+		service.onPeerResult(new ServiceStatus("api-server", HealthStatus.UP));
+		service.onPeerResult(new ServiceStatus("log-service", HealthStatus.UP));
+
+		// The peer died and this replica's first own poll of api-server fails
+		ServiceStatus stable = service.onHealthResult(new ServiceStatus("api-server", HealthStatus.DOWN));
+		service.rebuild();
+
+		assertThat(stable.getStatus()).isEqualTo("UP");
+		assertThat(stable.getObservedStatus()).isEqualTo("DOWN");
+		assertThat(service.getSnapshot().getOverallStatus()).isEqualTo("UP");
+	}
+
+	private static Target target(String name) {
+		Target target = new Target();
+		target.setName(name);
+		target.setUrl("http://" + name + ".example");
+		return target;
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ServiceProperties;
+import com.example.demo.config.ServiceProperties.Target;
+import com.example.demo.model.HealthStatus;
+import com.example.demo.model.ServiceStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatusStreamServiceTests {
+
+	private final ServiceProperties properties = new ServiceProperties();
+
+	private final StatusStreamService service;
+
+	StatusStreamServiceTests() {
+		properties.getTargets().add(target("api-server"));
+		properties.getTargets().add(target("log-service"));
+		properties.getStream().setLatencyBucket(100);
+		service = new StatusStreamService(new ServiceRegistry(properties), properties);
+	}
+
+	@Test
+	void emitsOnlyVisibleChanges() {
+		List<ServerSentEvent<ServiceStatus>> events = new ArrayList<>();
+		Disposable subscription = service.stream().filter(event -> event.data() != null).subscribe(events::add);
+
+		service.onStableResult(status("api-server", HealthStatus.UP, 120));
+		// Same status and latency bucket
+		service.onStableResult(status("api-server", HealthStatus.UP, 180));
+		// Latency moved to the next bucket
+		service.onStableResult(status("api-server", HealthStatus.UP, 210));
+		ServiceStatus withDetails = status("api-server", HealthStatus.UP, 250);
+		withDetails.setDetails(Map.of("db", Map.of("status", "UP")));
+		service.onStableResult(withDetails);
+		service.onStableResult(status("log-service", HealthStatus.DOWN, 20));
+		service.onStableResult(status("log-service", HealthStatus.DOWN, 30));
+		subscription.dispose();
+
+		assertThat(events).extracting(ServerSentEvent::event).containsOnly("status");
+		assertThat(events).extracting(event -> event.data().getServiceName() + " " + event.data().getLatencyMillis())
+				.containsExactly("api-server 120", "api-server 210", "api-server 250", "log-service 20");
+		// Ids increase, so viewers can tell how many events they missed
+		assertThat(events).extracting(event -> Long.parseLong(event.id())).isSorted().doesNotHaveDuplicates();
+	}
+
+	@Test
+	void startsWithTheLatestStateOfEveryService() {
+		service.onStableResult(status("log-service", HealthStatus.UP, 10));
+		service.onStableResult(status("api-server", HealthStatus.UP, 10));
+		service.onStableResult(status("api-server", HealthStatus.DOWN, 10));
+
+		List<ServerSentEvent<ServiceStatus>> events = new ArrayList<>();
+		Disposable subscription = service.stream().take(2).subscribe(events::add);
+		subscription.dispose();
+
+		// In target order, one event per service, with no id since they are not changes
+		assertThat(events).extracting(ServerSentEvent::event).containsExactly("snapshot", "snapshot");
+		assertThat(events).extracting(event -> event.data().getServiceName() + " " + event.data().getStatus())
+				.containsExactly("api-server DOWN", "log-service UP");
+		assertThat(events).extracting(ServerSentEvent::id).containsOnlyNulls();
+	}
+
+	private static ServiceStatus status(String name, HealthStatus health, long latencyMillis) {
+		ServiceStatus status = new ServiceStatus(name, health);
+		status.setLatencyMillis(latencyMillis);
+		return status;
+	}
+
+	private static Target target(String name) {
+		Target target = new Target();
+		target.setName(name);
+		target.setUrl("http://" + name + ".example");
+		return target;
+	}
+}